@@ -1,22 +1,26 @@
 package com.oracle.osd;
 
+import com.oracle.osd.config.GeneratorConfig;
+import com.oracle.osd.generator.LoadGenerator;
+import com.oracle.osd.generator.TableSpec;
+import com.oracle.osd.metrics.PrometheusExporter;
+import com.oracle.osd.utils.DatabaseUtils;
 import com.oracle.osd.utils.PerformanceUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
-
 /**
  * Coordinator class that orchestrates data insertion across all record types.
- * Accepts the number of records and calls all insert classes with that number.
+ * Accepts the number of records and loads that many into every table through the {@link LoadGenerator}.
  */
 public class DataInsertCoordinator {
 
     private static final Logger logger = LoggerFactory.getLogger(DataInsertCoordinator.class);
     private static final int DEFAULT_RECORDS = 1000;
+    /**
+     * System property with the port of the Prometheus metrics endpoint, e.g. {@code -Dmetrics.http.port=9465}.
+     */
+    private static final String METRICS_PORT_PROPERTY = "metrics.http.port";
 
     private final int recordCount;
     private final boolean parallelExecution;
@@ -35,7 +39,14 @@ public class DataInsertCoordinator {
         boolean parallel = shouldRunInParallel(args);
 
         DataInsertCoordinator coordinator = new DataInsertCoordinator(recordCount, parallel);
-        coordinator.insertAllRecords();
+        PrometheusExporter metricsExporter = PrometheusExporter.startIfEnabled(Integer.getInteger(METRICS_PORT_PROPERTY, 0));
+        try {
+            coordinator.insertAllRecords();
+        } finally {
+            if (metricsExporter != null) {
+                metricsExporter.close();
+            }
+        }
     }
 
     private static int parseRecordCount(String[] args) {
@@ -75,78 +86,13 @@ public class DataInsertCoordinator {
 
         PerformanceUtils.Timer totalTimer = new PerformanceUtils.Timer("Total data insertion", logger);
 
-        if (parallelExecution) {
-            insertRecordsInParallel();
-        } else {
-            insertRecordsSequentially();
-        }
+        LoadGenerator generator = new LoadGenerator(new GeneratorConfig(), DatabaseUtils.getPooledDataSource());
+        long inserted = generator.insertAll(TableSpec.ALL, recordCount, parallelExecution);
 
         long totalTimeMs = totalTimer.getDurationMillis();
         logger.info("All data insertion completed in {} ms", totalTimeMs);
-        logger.info("Total records inserted: {} (across 4 types)", recordCount * 4);
-    }
-
-    private void insertRecordsInParallel() {
-        ExecutorService executor = Executors.newFixedThreadPool(4);
-
-        try {
-            CompletableFuture<Void> actionsFuture = CompletableFuture.runAsync(() -> {
-                logger.info("Starting action records insertion...");
-                InsertActionRecords.main(new String[]{String.valueOf(recordCount)});
-                logger.info("Action records insertion completed");
-            }, executor);
-
-            CompletableFuture<Void> paymentsFuture = CompletableFuture.runAsync(() -> {
-                logger.info("Starting payment records insertion...");
-                InsertPaymentRecords.main(new String[]{String.valueOf(recordCount)});
-                logger.info("Payment records insertion completed");
-            }, executor);
-
-            CompletableFuture<Void> statementsFuture = CompletableFuture.runAsync(() -> {
-                logger.info("Starting statement records insertion...");
-                InsertStatementRecords.main(new String[]{String.valueOf(recordCount)});
-                logger.info("Statement records insertion completed");
-            }, executor);
-
-            CompletableFuture<Void> transactionsFuture = CompletableFuture.runAsync(() -> {
-                logger.info("Starting transaction records insertion...");
-                InsertTransactionRecords.main(new String[]{String.valueOf(recordCount)});
-                logger.info("Transaction records insertion completed");
-            }, executor);
-
-            // Wait for all insertions to complete
-            CompletableFuture.allOf(actionsFuture, paymentsFuture, statementsFuture, transactionsFuture)
-                    .join();
-
-        } finally {
-            executor.shutdown();
-            try {
-                if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
-                    executor.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                executor.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
-        }
-    }
-
-    private void insertRecordsSequentially() {
-        logger.info("Starting action records insertion...");
-        InsertActionRecords.main(new String[]{String.valueOf(recordCount)});
-        logger.info("Action records insertion completed");
-
-        logger.info("Starting payment records insertion...");
-        InsertPaymentRecords.main(new String[]{String.valueOf(recordCount)});
-        logger.info("Payment records insertion completed");
-
-        logger.info("Starting statement records insertion...");
-        InsertStatementRecords.main(new String[]{String.valueOf(recordCount)});
-        logger.info("Statement records insertion completed");
-
-        logger.info("Starting transaction records insertion...");
-        InsertTransactionRecords.main(new String[]{String.valueOf(recordCount)});
-        logger.info("Transaction records insertion completed");
+        logger.info("Total records inserted: {} (across {} types)", inserted, TableSpec.ALL.size());
+        DatabaseUtils.logPoolStatistics();
     }
 
     /**
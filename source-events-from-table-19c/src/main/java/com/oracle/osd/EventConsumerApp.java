@@ -1,24 +1,43 @@
 package com.oracle.osd;
 
+import com.oracle.osd.aggregation.WindowedAggregator;
+import com.oracle.osd.audit.AuditOutput;
+import com.oracle.osd.audit.AuditOutputs;
 import com.oracle.osd.config.ConsumerConfig;
+import com.oracle.osd.config.ConsumerConfigWatcher;
+import com.oracle.osd.consumers.BacklogMonitor;
+import com.oracle.osd.consumers.ConsumerContext;
+import com.oracle.osd.consumers.ConsumerStats;
+import com.oracle.osd.consumers.DeduplicationCache;
+import com.oracle.osd.consumers.LatencyRecorder;
+import com.oracle.osd.consumers.PinningMonitor;
+import com.oracle.osd.consumers.ProcessingPipeline;
+import com.oracle.osd.consumers.SessionAutoscaler;
+import com.oracle.osd.consumers.SubscriberSessions;
+import com.oracle.osd.metrics.MetricsRegistry;
+import com.oracle.osd.metrics.PrometheusExporter;
+import com.oracle.osd.processors.EntityStateProcessor;
+import com.oracle.osd.processors.JdbcSinkProcessor;
 import com.oracle.osd.processors.MessageHandler;
+import com.oracle.osd.processors.WindowAggregationProcessor;
+import com.oracle.osd.state.EntityStateView;
 import com.oracle.osd.utils.DatabaseUtils;
-import jakarta.jms.*;
 import oracle.jakarta.AQ.AQException;
-import oracle.jakarta.jms.AQjmsFactory;
-import oracle.jakarta.jms.AQjmsSession;
-import oracle.jakarta.jms.AQjmsTextMessage;
-import oracle.jakarta.jms.AQjmsTopicSubscriber;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.sql.SQLException;
-import java.sql.Timestamp;
-import java.util.Objects;
-import java.util.concurrent.CountDownLatch;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Consumer application that consumes events from all 3 TxEventQ subscribers.
@@ -29,14 +48,100 @@ public class EventConsumerApp {
     private static final Logger logger = LoggerFactory.getLogger(EventConsumerApp.class);
 
     private final ConsumerConfig config;
-    private final MessageHandler messageHandler;
-    private volatile boolean running = true;
+    private final ConsumerStats stats;
+    private final ProcessingPipeline pipeline;
+    private final LatencyRecorder latencyRecorder;
+    private final AuditOutput auditOutput;
+    private final DeduplicationCache deduplicationCache;
+    private final EntityStateView entityStateView;
+    private final WindowedAggregator windowedAggregator;
+    private final ConsumerContext context;
+    private final List<SubscriberSessions> subscribers = new CopyOnWriteArrayList<>();
+    private final ReentrantLock sessionLock = new ReentrantLock();
+    private final Condition sessionsChanged = sessionLock.newCondition();
+    /** Running session tasks; guarded by sessionLock. */
+    private int liveSessions;
+    /**
+     * Set while {@link #start()} submits the initial sessions, so sessions failing before the rest are
+     * submitted don't end the wait for all sessions; guarded by sessionLock.
+     */
+    private boolean starting;
+    private final AtomicBoolean shuttingDown = new AtomicBoolean();
     private ExecutorService executorService;
-    private CountDownLatch shutdownLatch;
+    private ScheduledExecutorService reportExecutor;
+    private PinningMonitor pinningMonitor;
+    private PrometheusExporter metricsExporter;
+    private SessionAutoscaler autoscaler;
+    private ConsumerConfigWatcher configWatcher;
 
     public EventConsumerApp() {
         this.config = new ConsumerConfig();
-        this.messageHandler = new MessageHandler();
+        this.stats = new ConsumerStats();
+        this.pipeline = config.isPipelineEnabled()
+                ? new ProcessingPipeline(config.getPipelineWorkers(), config.getPipelineBufferSize(),
+                        config.isVirtualThreadsEnabled())
+                : null;
+        this.latencyRecorder = config.isLatencyTrackingEnabled() ? new LatencyRecorder() : null;
+        this.auditOutput = AuditOutputs.create(config);
+        this.deduplicationCache = createDeduplicationCache();
+        this.entityStateView = config.isStateViewEnabled() ? new EntityStateView(config.getStateViewInitialCapacity()) : null;
+        this.windowedAggregator = config.isAggregationEnabled()
+                ? new WindowedAggregator(config.getAggregationTumblingWindowSeconds() * 1000L,
+                        config.getAggregationSlidingWindowSeconds() * 1000L,
+                        config.getAggregationSlidingStepSeconds() * 1000L, config.getAggregationTopKeys())
+                : null;
+        registerMetrics();
+        this.context = new ConsumerContext(config, createMessageHandler(), stats, pipeline,
+                latencyRecorder, auditOutput, deduplicationCache);
+    }
+
+    private MessageHandler createMessageHandler() {
+        MessageHandler messageHandler = new MessageHandler(auditOutput, config.isDecodeReuseEventsEnabled());
+        if (entityStateView != null) {
+            messageHandler.addProcessor(EntityStateProcessor.forActions(entityStateView));
+            messageHandler.addProcessor(EntityStateProcessor.forPayments(entityStateView));
+            messageHandler.addProcessor(EntityStateProcessor.forStatements(entityStateView));
+        }
+        if (windowedAggregator != null) {
+            messageHandler.addProcessor(WindowAggregationProcessor.forActions(windowedAggregator));
+            messageHandler.addProcessor(WindowAggregationProcessor.forPayments(windowedAggregator));
+            messageHandler.addProcessor(WindowAggregationProcessor.forStatements(windowedAggregator));
+        }
+        if (config.isSinkEnabled()) {
+            messageHandler.addProcessor(JdbcSinkProcessor.forActions(config.getSinkActionTable()));
+            messageHandler.addProcessor(JdbcSinkProcessor.forPayments(config.getSinkPaymentTable()));
+            messageHandler.addProcessor(JdbcSinkProcessor.forStatements(config.getSinkStatementTable()));
+        }
+        return messageHandler;
+    }
+
+    /**
+     * Exposes the counters of optional components; the session counters are registered by {@link ConsumerStats}.
+     */
+    private void registerMetrics() {
+        MetricsRegistry registry = MetricsRegistry.global();
+        if (deduplicationCache != null) {
+            registry.functionCounter("consumer_duplicates_skipped_total", "Redelivered messages skipped as already processed",
+                    deduplicationCache::getHits);
+        }
+        if (entityStateView != null) {
+            for (String eventType : List.of("ACTION", "PAYMENT", "STATEMENT")) {
+                registry.gauge("consumer_state_view_entities", "Entities in the state view",
+                        () -> entityStateView.size(eventType), "event_type", eventType);
+            }
+        }
+    }
+
+    private DeduplicationCache createDeduplicationCache() {
+        if (!config.isDedupEnabled()) {
+            return null;
+        }
+        if (config.isSinkEnabled()) {
+            // Sink rows of a rolled back transaction are rolled back too, so redeliveries must be processed again
+            logger.warn("Deduplication is disabled because the JDBC sink commits its writes with the dequeue");
+            return null;
+        }
+        return new DeduplicationCache(config.getDedupMemoryLimitMb() * 1024L * 1024L, config.isDedupBloomFilterEnabled());
     }
 
     public static void main(String[] args) {
@@ -56,144 +161,317 @@ public class EventConsumerApp {
     public void start() throws AQException, SQLException {
         // Log configuration for debugging
         config.logConfiguration();
+        metricsExporter = PrometheusExporter.startIfEnabled(config.getMetricsHttpPort());
 
-        logger.info("Starting EventConsumerApp with {} consumer threads", config.getConsumerThreads());
+        if (config.isAutoscaleEnabled()) {
+            autoscaler = new SessionAutoscaler(config, new BacklogMonitor(DatabaseUtils.getPooledDataSource()));
+        }
+        int totalSessions = config.getTotalSessions();
+        logger.info("Starting EventConsumerApp with {} consumer sessions in {} mode on {} threads",
+                totalSessions, config.getConsumerMode(), config.isVirtualThreadsEnabled() ? "virtual" : "platform");
 
-        executorService = Executors.newFixedThreadPool(config.getConsumerThreads());
-        shutdownLatch = new CountDownLatch(config.getConsumerThreads());
+        executorService = createExecutor();
+        if (pipeline != null) {
+            pipeline.start();
+        }
+        if (windowedAggregator != null) {
+            windowedAggregator.start();
+        }
 
-        // Start consumer for each subscriber using configuration
-        executorService.submit(() -> consumeFromQueue(config.getActionQueue(), config.getActionSubscriber(), "ACTION"));
-        executorService.submit(() -> consumeFromQueue(config.getPaymentQueue(), config.getPaymentSubscriber(), "PAYMENT"));
-        executorService.submit(() -> consumeFromQueue(config.getStatementQueue(), config.getStatementSubscriber(), "STATEMENT"));
+        // Start the configured number of sessions for each subscriber
+        setStarting(true);
+        try {
+            submitConsumers(config.getActionQueue(), config.getActionSubscriber(), "ACTION", config.getActionSessions());
+            submitConsumers(config.getPaymentQueue(), config.getPaymentSubscriber(), "PAYMENT", config.getPaymentSessions());
+            submitConsumers(config.getStatementQueue(), config.getStatementSubscriber(), "STATEMENT", config.getStatementSessions());
+        } finally {
+            setStarting(false);
+        }
 
         logger.info("All consumer threads started successfully");
 
+        if (autoscaler != null) {
+            autoscaler.start();
+        }
+        startConfigWatcher();
+        startReporting();
+
         // Wait for all consumers to finish
         try {
-            shutdownLatch.await();
+            awaitSessions(Long.MAX_VALUE);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             logger.info("Main thread interrupted, shutting down...");
         }
     }
 
-    private void consumeFromQueue(String queueName, String subscriberName, String eventType) {
-        logger.info("Starting consumer for queue: {}, subscriber: {}, type: {}",
-                queueName, subscriberName, eventType);
+    /**
+     * Creates the executor running the consumer sessions. In virtual thread mode every session,
+     * including the event processors it invokes, runs on its own virtual thread and pinning of
+     * carrier threads is monitored. Otherwise each session occupies a platform thread for its
+     * lifetime; the pool grows and shrinks with the sessions, whose number may change at runtime.
+     */
+    private ExecutorService createExecutor() {
+        if (!config.isVirtualThreadsEnabled()) {
+            return Executors.newCachedThreadPool();
+        }
+        pinningMonitor = new PinningMonitor(config.getPinningThresholdMs());
+        pinningMonitor.start();
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("consumer-", 1).factory());
+    }
+
+    private void submitConsumers(String queueName, String subscriberName, String eventType, int sessionCount) {
+        SubscriberSessions sessions = new SubscriberSessions(context, queueName, subscriberName, eventType,
+                this::launchSession);
+        subscribers.add(sessions);
+        int initialSessions = sessionCount;
+        if (autoscaler != null) {
+            autoscaler.manage(sessions);
+            initialSessions = autoscaler.initialSessions(sessionCount);
+        }
+        for (int i = 0; i < initialSessions; i++) {
+            sessions.add();
+        }
+    }
 
+    /**
+     * Runs a session task on the executor; the application stops waiting once no session is left.
+     */
+    private void launchSession(Runnable session) {
+        if (shuttingDown.get()) {
+            return;
+        }
+        sessionLock.lock();
         try {
-            var dataSource = DatabaseUtils.createDataSource();
-
-            try (TopicConnection conn = AQjmsFactory.getTopicConnectionFactory(dataSource).createTopicConnection()) {
-                // Create TRANSACTED session (like the working example)
-                TopicSession session = conn.createTopicSession(true, Session.AUTO_ACKNOWLEDGE);
-                Topic topic = ((AQjmsSession) session).getTopic(dataSource.getUser(), queueName);
-                conn.start();
-
-                // Create durable subscriber
-                AQjmsTopicSubscriber subscriber = (AQjmsTopicSubscriber) session.createDurableSubscriber(topic, subscriberName);
-
-                logger.info("Consumer connected to queue: {} with subscriber: {}", queueName, subscriberName);
-                logger.info("Starting to check for messages on {} with subscriber {}...", queueName, subscriberName);
-
-                // Use synchronous receive() with configurable timeout
-                while (running) {
-                    try {
-                        // Receive with configurable timeout
-                        AQjmsTextMessage message = (AQjmsTextMessage) subscriber.receive(config.getReceiveTimeoutMs());
-
-                        if (message != null) {
-                            String messageText = Objects.requireNonNullElse(message.getText(), "");
-                            if (!messageText.isEmpty()) {
-                                processMessage(message, eventType, subscriberName);
-                            } else {
-                                logger.warn("Received empty message from subscriber: {}", subscriberName);
-                            }
-                            session.commit();
-                        } else {
-                            logger.debug("No messages received from queue: {}, subscriber: {}", queueName, subscriberName);
-                        }
-
-                    } catch (JMSException e) {
-                        if (running) {
-                            logger.error("JMS error receiving message from queue: {}, subscriber: {}: {}",
-                                    queueName, subscriberName, e.getMessage());
-                            try {
-                                session.rollback();
-                            } catch (JMSException rollbackEx) {
-                                logger.error("Failed to rollback transaction: {}", rollbackEx.getMessage());
-                            }
-                            TimeUnit.SECONDS.sleep(config.getRetryDelaySeconds());
-                        }
-                    }
+            liveSessions++;
+        } finally {
+            sessionLock.unlock();
+        }
+        try {
+            executorService.submit(() -> {
+                try {
+                    session.run();
+                } finally {
+                    sessionStopped();
                 }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Not starting consumer session, the application is shutting down");
+            sessionStopped();
+        }
+    }
 
-            } catch (JMSException e) {
-                if (running) {
-                    logger.error("JMS connection error for queue: {}, subscriber: {}: {}", queueName, subscriberName, e.getMessage());
-                }
-            }
-        } catch (Exception e) {
-            if (running) {
-                logger.error("Unexpected error for queue: {}, subscriber: {}: {}", queueName, subscriberName, e.getMessage());
+    private void sessionStopped() {
+        sessionLock.lock();
+        try {
+            if (--liveSessions == 0) {
+                sessionsChanged.signalAll();
             }
+        } finally {
+            sessionLock.unlock();
+        }
+    }
+
+    private void setStarting(boolean value) {
+        sessionLock.lock();
+        try {
+            starting = value;
+            sessionsChanged.signalAll();
+        } finally {
+            sessionLock.unlock();
+        }
+    }
+
+    private int liveSessions() {
+        sessionLock.lock();
+        try {
+            return liveSessions;
+        } finally {
+            sessionLock.unlock();
         }
+    }
 
-        logger.info("Consumer stopped for queue: {}, subscriber: {}", queueName, subscriberName);
-        shutdownLatch.countDown();
+    /**
+     * Waits until no session is running and none is being started. Sessions may be started again
+     * afterwards, e.g. by the autoscaler, so every call checks the current count.
+     *
+     * @return Whether all sessions stopped within the timeout
+     */
+    private boolean awaitSessions(long timeoutNanos) throws InterruptedException {
+        sessionLock.lock();
+        try {
+            long remaining = timeoutNanos;
+            while (starting || liveSessions > 0) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = sessionsChanged.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            sessionLock.unlock();
+        }
     }
 
-    private void processMessage(Message message, String eventType, String subscriberName) {
+    /**
+     * @return Whether all sessions stopped within the timeout, false if interrupted
+     */
+    private boolean awaitSessions(int timeoutSeconds) {
         try {
-            String messageText = "";
-            String messageId = message.getJMSMessageID();
-            long timestamp = message.getJMSTimestamp();
+            return awaitSessions(TimeUnit.SECONDS.toNanos(timeoutSeconds));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
 
-            if (message instanceof AQjmsTextMessage textMessage) {
-                messageText = Objects.requireNonNullElse(textMessage.getText(), "");
+    /**
+     * Watches the configuration file, if it is one, and applies changes to the running sessions.
+     */
+    private void startConfigWatcher() {
+        if (!config.isConfigReloadEnabled()) {
+            return;
+        }
+        ConsumerConfig.getConfigFile().ifPresentOrElse(file -> {
+            configWatcher = new ConsumerConfigWatcher(file, config);
+            configWatcher.addListener((previous, next) -> applyConfig(next));
+            try {
+                configWatcher.start();
+            } catch (IOException e) {
+                logger.warn("Configuration changes will not be applied, cannot watch {}: {}", file, e.getMessage());
+                configWatcher = null;
             }
+        }, () -> logger.info("Configuration is not read from a file, hot reload disabled"));
+    }
 
-            long currentTimestamp = System.currentTimeMillis();
-
-            // Log basic message information
-            logger.info("=== EVENT CONSUMED ===");
-            logger.info("Event Type: {}", eventType);
-            logger.info("Subscriber: {}", subscriberName);
-            logger.info("Message ID: {}", messageId);
-            logger.info("JMS Timestamp: {}", new Timestamp(timestamp));
-            logger.info("Consumed At: {}", new Timestamp(currentTimestamp));
-            logger.info("Message Content: {}", messageText);
-            logger.info("=====================");
-
-            // Use structured message processing with validation
-            boolean processed = messageHandler.processMessage(messageText, eventType, subscriberName);
-            if (!processed) {
-                logger.warn("Failed to process {} event from subscriber {} - message may be invalid",
-                        eventType, subscriberName);
+    /**
+     * Publishes a reloaded configuration: sessions switch to it at their next batch, and the
+     * number of sessions per subscriber follows the new counts or autoscaling bounds.
+     */
+    private void applyConfig(ConsumerConfig next) {
+        context.updateConfig(next);
+        if (autoscaler != null) {
+            autoscaler.updateConfig(next);
+            return;
+        }
+        for (SubscriberSessions sessions : subscribers) {
+            int target = switch (sessions.getEventType()) {
+                case "ACTION" -> next.getActionSessions();
+                case "PAYMENT" -> next.getPaymentSessions();
+                default -> next.getStatementSessions();
+            };
+            if (target != sessions.size()) {
+                logger.info("Resizing subscriber {} from {} to {} sessions", sessions.getSubscriberName(), sessions.size(), target);
+                sessions.resize(target);
             }
+        }
+    }
 
-        } catch (JMSException e) {
-            logger.error("Error processing message from subscriber {}: {}", subscriberName, e.getMessage());
+    private void startReporting() {
+        int intervalSeconds = config.getReportIntervalSeconds();
+        if (intervalSeconds <= 0) {
+            return;
         }
+        String mode = config.getConsumerMode().name();
+        reportExecutor = Executors.newSingleThreadScheduledExecutor();
+        reportExecutor.scheduleAtFixedRate(() -> logReport(mode),
+                intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
     }
 
+    private void logReport(String mode) {
+        stats.logReport(mode);
+        DatabaseUtils.logPoolStatistics();
+        if (pipeline != null) {
+            pipeline.logReport();
+        }
+        if (entityStateView != null) {
+            entityStateView.logReport();
+        }
+        if (deduplicationCache != null) {
+            deduplicationCache.logReport();
+        }
+        if (latencyRecorder != null) {
+            latencyRecorder.logReport();
+        }
+        if (pinningMonitor != null) {
+            pinningMonitor.logReport();
+        }
+    }
+
+    /**
+     * @return The latest state of every consumed entity, or {@code null} when the state view is disabled
+     */
+    public EntityStateView getEntityStateView() {
+        return entityStateView;
+    }
+
+    /**
+     * @return The windowed event counts and entity activity rates, or {@code null} when aggregation is disabled
+     */
+    public WindowedAggregator getWindowedAggregator() {
+        return windowedAggregator;
+    }
+
+    /**
+     * Drains the consumer for a restart or handoff: sessions stop fetching, idle receives are ended
+     * at once, and every batch already received is processed and committed before its session
+     * closes its connection. All sessions drain in parallel on their own threads; sessions still
+     * running after {@code consumer.shutdown.timeout.seconds} are interrupted, and their
+     * uncommitted messages are redelivered to the remaining consumers. Safe to call more than once.
+     */
     public void shutdown() {
-        logger.info("Initiating graceful shutdown...");
-        running = false;
+        if (!shuttingDown.compareAndSet(false, true)) {
+            return;
+        }
+        long drainStart = System.nanoTime();
+        int sessionsToDrain = liveSessions();
+        long committedBefore = stats.getMessagesCommitted();
+        logger.info("Initiating graceful shutdown, draining {} consumer sessions...", sessionsToDrain);
+        if (configWatcher != null) {
+            configWatcher.close();
+        }
+        if (autoscaler != null) {
+            autoscaler.close();
+        }
+        subscribers.forEach(SubscriberSessions::stopAll);
 
+        boolean drained = awaitSessions(config.getShutdownTimeoutSeconds());
         if (executorService != null) {
             executorService.shutdown();
-            try {
-                if (!executorService.awaitTermination(config.getShutdownTimeoutSeconds(), TimeUnit.SECONDS)) {
-                    logger.warn("Executor did not terminate gracefully, forcing shutdown");
-                    executorService.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+            if (!drained) {
+                logger.warn("{} sessions did not drain within {}s, interrupting them; their uncommitted messages will be redelivered",
+                        liveSessions(), config.getShutdownTimeoutSeconds());
                 executorService.shutdownNow();
+                awaitSessions(1);
             }
         }
+        logger.info("Drained {} sessions in {} ms, committing {} in-flight messages ({})",
+                sessionsToDrain, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - drainStart),
+                stats.getMessagesCommitted() - committedBefore, drained ? "clean" : "forced");
+
+        if (reportExecutor != null) {
+            reportExecutor.shutdownNow();
+            logReport(config.getConsumerMode().name());
+        }
+
+        // Workers are stopped only after the sessions, which may still be waiting on a watermark
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+
+        if (windowedAggregator != null) {
+            windowedAggregator.close();
+        }
+
+        if (pinningMonitor != null) {
+            pinningMonitor.close();
+        }
+
+        auditOutput.close();
+
+        if (metricsExporter != null) {
+            metricsExporter.close();
+        }
 
         logger.info("EventConsumerApp shutdown complete");
     }
@@ -0,0 +1,37 @@
+package com.oracle.osd.aggregation;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates of one event type over a closed window.
+ *
+ * @param eventType      The event type (ACTION, PAYMENT, STATEMENT)
+ * @param kind           Whether this is a tumbling or a sliding window
+ * @param startMillis    Inclusive start of the window, epoch milliseconds
+ * @param endMillis      Exclusive end of the window, epoch milliseconds
+ * @param countsByAction Number of events per operation (INSERT, UPDATE)
+ * @param hottestKeys    The most active entities of the window, most active first
+ */
+public record WindowResult(String eventType, Kind kind, long startMillis, long endMillis,
+                           Map<String, Long> countsByAction, List<KeyRate> hottestKeys) {
+
+    public enum Kind {
+        TUMBLING,
+        SLIDING
+    }
+
+    public long totalCount() {
+        return countsByAction.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Estimated activity of a single entity.
+     *
+     * @param key           The entity ID
+     * @param count         Estimated number of events in the window (may overestimate, never underestimates)
+     * @param ratePerSecond The estimated count divided by the window length
+     */
+    public record KeyRate(String key, long count, double ratePerSecond) {
+    }
+}
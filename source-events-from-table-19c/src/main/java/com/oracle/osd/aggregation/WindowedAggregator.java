@@ -0,0 +1,488 @@
+package com.oracle.osd.aggregation;
+
+import com.oracle.osd.utils.JsonFieldScanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Incremental windowed aggregation of consumed events per event type and operation
+ * ({@code BaseEvent.getAction()}: INSERT, UPDATE), over tumbling windows and over a sliding window
+ * that advances in fixed steps, plus per-entity activity rates.
+ * <p>
+ * Every event costs constant work: it increments the counters of the open tumbling window and of
+ * the current step of the sliding window, and the count-min sketches that estimate how often its
+ * entity occurred. The sliding window is a ring of step buckets whose totals are kept up to date,
+ * so advancing it subtracts the oldest bucket instead of recounting. The most active entities of a
+ * tumbling window are tracked in a small fixed-size candidate list fed by the sketch estimates.
+ * <p>
+ * Windows are aligned to multiples of their length in processing time. A window is closed by the
+ * first event after its end or by the periodic tick started with {@link #start()}, whichever comes
+ * first, and its {@link WindowResult} is handed to the listener outside of any lock. Windows without
+ * events are not emitted; after a gap without events or ticks, every sliding window that still held
+ * events is emitted in order. Counts are at-least-once: events of a rolled back or retried batch are
+ * counted again when they are redelivered.
+ * <p>
+ * Every step bucket of the sliding window holds its own count-min sketch of
+ * {@value #SKETCH_DEPTH} x {@value #SKETCH_WIDTH} counters, 32 KB, allocated per event type when its
+ * first event arrives. The sliding window is therefore limited to {@value #MAX_SLIDING_BUCKETS} steps,
+ * at most 8 MB per event type.
+ */
+public class WindowedAggregator implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WindowedAggregator.class);
+
+    private static final int MAX_ACTIONS = 8;
+    private static final String UNKNOWN_ACTION = "UNKNOWN";
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 2048;
+    private static final int MAX_SLIDING_BUCKETS = 256;
+
+    private final long tumblingMillis;
+    private final long stepMillis;
+    private final int slidingBuckets;
+    private final int topKeys;
+    private final Consumer<WindowResult> listener;
+    private final Map<String, TypeWindows> windows = new ConcurrentHashMap<>();
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Creates an aggregator that logs every closed window.
+     *
+     * @param tumblingMillis Length of the tumbling windows
+     * @param slidingMillis  Length of the sliding window, a multiple of the step of at most
+     *                       {@value #MAX_SLIDING_BUCKETS} steps
+     * @param stepMillis     How far the sliding window advances at a time
+     * @param topKeys        Number of most active entities reported per tumbling window, 0 for none
+     */
+    public WindowedAggregator(long tumblingMillis, long slidingMillis, long stepMillis, int topKeys) {
+        this(tumblingMillis, slidingMillis, stepMillis, topKeys, WindowedAggregator::logResult);
+    }
+
+    /**
+     * @param listener Receives the result of every closed window; called from consumer threads and
+     *                 the tick thread, so it must be thread-safe and should return quickly
+     */
+    public WindowedAggregator(long tumblingMillis, long slidingMillis, long stepMillis, int topKeys,
+                              Consumer<WindowResult> listener) {
+        if (tumblingMillis <= 0 || stepMillis <= 0 || slidingMillis < stepMillis) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid windows: tumbling %d ms, sliding %d ms, step %d ms", tumblingMillis, slidingMillis, stepMillis));
+        }
+        if (slidingMillis % stepMillis != 0 || slidingMillis / stepMillis > MAX_SLIDING_BUCKETS) {
+            throw new IllegalArgumentException(String.format(
+                    "Sliding window of %d ms must be a multiple of its %d ms step and at most %d steps long",
+                    slidingMillis, stepMillis, MAX_SLIDING_BUCKETS));
+        }
+        this.tumblingMillis = tumblingMillis;
+        this.stepMillis = stepMillis;
+        this.slidingBuckets = (int) (slidingMillis / stepMillis);
+        this.topKeys = Math.max(0, topKeys);
+        this.listener = listener;
+    }
+
+    /**
+     * Starts closing windows once a second even when no events arrive.
+     */
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "window-aggregator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> tick(System.currentTimeMillis()), 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Counts one event.
+     *
+     * @param eventType   The event type (ACTION, PAYMENT, STATEMENT)
+     * @param action      The operation of the event (INSERT, UPDATE)
+     * @param key         The entity ID, or {@code null} if the event has none
+     * @param nowMillis   The processing time of the event, epoch milliseconds
+     */
+    public void record(String eventType, String action, String key, long nowMillis) {
+        TypeWindows typeWindows = windows.computeIfAbsent(eventType, type -> new TypeWindows(type, nowMillis));
+        List<WindowResult> closed = typeWindows.record(action, key, nowMillis);
+        emit(closed);
+    }
+
+    /**
+     * Closes every window that ended before {@code nowMillis}.
+     */
+    public void tick(long nowMillis) {
+        for (TypeWindows typeWindows : windows.values()) {
+            emit(typeWindows.advance(nowMillis));
+        }
+    }
+
+    /**
+     * Estimates how many events per second concerned an entity over the sliding window up to now.
+     * The estimate may be too high for rare entities, never too low.
+     *
+     * @param eventType The event type (ACTION, PAYMENT, STATEMENT)
+     * @param key       The entity ID
+     */
+    public double rate(String eventType, String key) {
+        return rate(eventType, key, System.currentTimeMillis());
+    }
+
+    /**
+     * Estimates how many events per second concerned an entity over the sliding window. Until the
+     * first event of the type is a whole window old, the count is divided by the time since that
+     * event rather than by the window length.
+     *
+     * @param nowMillis The current processing time, epoch milliseconds
+     */
+    public double rate(String eventType, String key, long nowMillis) {
+        TypeWindows typeWindows = windows.get(eventType);
+        return typeWindows != null ? typeWindows.rate(key, nowMillis) : 0;
+    }
+
+    /**
+     * @return The number of events per operation in the sliding window up to now
+     */
+    public Map<String, Long> slidingCounts(String eventType) {
+        TypeWindows typeWindows = windows.get(eventType);
+        return typeWindows != null ? typeWindows.slidingCounts() : Map.of();
+    }
+
+    /**
+     * Stops the tick and emits the open tumbling windows, truncated to the current time.
+     */
+    @Override
+    public void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        long now = System.currentTimeMillis();
+        for (TypeWindows typeWindows : windows.values()) {
+            emit(typeWindows.flush(now));
+        }
+    }
+
+    private void emit(List<WindowResult> closed) {
+        if (closed == null) {
+            return;
+        }
+        for (WindowResult result : closed) {
+            try {
+                listener.accept(result);
+            } catch (RuntimeException e) {
+                logger.error("Window result listener failed for {} {} window: {}",
+                        result.eventType(), result.kind(), e.getMessage());
+            }
+        }
+    }
+
+    static void logResult(WindowResult result) {
+        double seconds = (result.endMillis() - result.startMillis()) / 1000.0;
+        long total = result.totalCount();
+        StringBuilder hottest = new StringBuilder();
+        for (WindowResult.KeyRate keyRate : result.hottestKeys()) {
+            hottest.append(hottest.isEmpty() ? "" : ", ")
+                    .append(keyRate.key()).append('=').append(keyRate.count())
+                    .append(String.format(" (%.2f/s)", keyRate.ratePerSecond()));
+        }
+        logger.info("{} {} window [{}, {}): {} events {}, {}/s{}",
+                result.kind(), result.eventType(),
+                Instant.ofEpochMilli(result.startMillis()), Instant.ofEpochMilli(result.endMillis()),
+                total, result.countsByAction(), String.format("%.2f", seconds > 0 ? total / seconds : 0),
+                hottest.isEmpty() ? "" : "; hottest: " + hottest);
+    }
+
+    /**
+     * Windows of one event type. Access is serialized, since every event touches the same counters.
+     */
+    private final class TypeWindows {
+
+        private final String eventType;
+        /** Processing time of the first event; the sliding window covers nothing before it. */
+        private final long firstMillis;
+        /** Interned operation names; the index selects the counter. */
+        private final String[] actions = new String[MAX_ACTIONS];
+        private int actionCount;
+
+        private long tumblingStart;
+        private final long[] tumblingCounts = new long[MAX_ACTIONS];
+        private final CountMinSketch tumblingSketch = new CountMinSketch();
+        private final TopKeys tumblingTop = new TopKeys(topKeys);
+
+        /** Start of the current step; the ring's other buckets hold the steps before it. */
+        private long bucketStart;
+        private int currentBucket;
+        private final long[][] bucketCounts = new long[slidingBuckets][MAX_ACTIONS];
+        private final CountMinSketch[] bucketSketches = new CountMinSketch[slidingBuckets];
+        private final long[] slidingCounts = new long[MAX_ACTIONS];
+
+        TypeWindows(String eventType, long nowMillis) {
+            this.eventType = eventType;
+            this.firstMillis = nowMillis;
+            this.tumblingStart = align(nowMillis, tumblingMillis);
+            this.bucketStart = align(nowMillis, stepMillis);
+            for (int i = 0; i < slidingBuckets; i++) {
+                bucketSketches[i] = new CountMinSketch();
+            }
+        }
+
+        synchronized List<WindowResult> record(String action, String key, long nowMillis) {
+            List<WindowResult> closed = advance(nowMillis, null);
+            int index = actionIndex(action);
+            tumblingCounts[index]++;
+            bucketCounts[currentBucket][index]++;
+            slidingCounts[index]++;
+            if (key != null) {
+                long hash = JsonFieldScanner.hash64(key, 0, key.length());
+                bucketSketches[currentBucket].add(hash);
+                long estimate = tumblingSketch.add(hash);
+                tumblingTop.offer(key, estimate);
+            }
+            return closed;
+        }
+
+        synchronized List<WindowResult> advance(long nowMillis) {
+            return advance(nowMillis, null);
+        }
+
+        /**
+         * Closes the tumbling window and the sliding window steps that ended before {@code nowMillis}.
+         *
+         * @return The closed windows, or {@code closed} if none closed
+         */
+        private List<WindowResult> advance(long nowMillis, List<WindowResult> closed) {
+            if (nowMillis >= tumblingStart + tumblingMillis) {
+                closed = add(closed, closeTumbling(tumblingStart + tumblingMillis));
+                tumblingStart = align(nowMillis, tumblingMillis);
+            }
+
+            long steps = (nowMillis - bucketStart) / stepMillis;
+            // After a whole window of steps the ring is empty and the later windows have no events
+            long emittedSteps = Math.min(steps, slidingBuckets);
+            for (long s = 0; s < emittedSteps; s++) {
+                closed = add(closed, slidingResult(bucketStart + stepMillis));
+                currentBucket = (currentBucket + 1) % slidingBuckets;
+                clearBucket(currentBucket);
+                bucketStart += stepMillis;
+            }
+            if (steps > emittedSteps) {
+                bucketStart = align(nowMillis, stepMillis);
+            }
+            return closed;
+        }
+
+        synchronized List<WindowResult> flush(long nowMillis) {
+            List<WindowResult> closed = advance(nowMillis, null);
+            return add(closed, closeTumbling(Math.max(nowMillis, tumblingStart + 1)));
+        }
+
+        synchronized double rate(String key, long nowMillis) {
+            // The ring holds the current, partial step and the whole steps before it
+            long windowStart = bucketStart - (slidingBuckets - 1) * stepMillis;
+            long coveredMillis = Math.min(nowMillis, bucketStart + stepMillis) - Math.max(windowStart, firstMillis);
+            long hash = JsonFieldScanner.hash64(key, 0, key.length());
+            return CountMinSketch.estimate(bucketSketches, hash) / (Math.max(1, coveredMillis) / 1000.0);
+        }
+
+        synchronized Map<String, Long> slidingCounts() {
+            return counts(slidingCounts);
+        }
+
+        private WindowResult closeTumbling(long endMillis) {
+            WindowResult result = null;
+            if (sum(tumblingCounts) > 0) {
+                result = new WindowResult(eventType, WindowResult.Kind.TUMBLING, tumblingStart, endMillis,
+                        counts(tumblingCounts), tumblingTop.toKeyRates((endMillis - tumblingStart) / 1000.0));
+            }
+            Arrays.fill(tumblingCounts, 0);
+            tumblingSketch.clear();
+            tumblingTop.clear();
+            return result;
+        }
+
+        private WindowResult slidingResult(long endMillis) {
+            if (sum(slidingCounts) == 0) {
+                return null;
+            }
+            return new WindowResult(eventType, WindowResult.Kind.SLIDING, endMillis - slidingBuckets * stepMillis,
+                    endMillis, counts(slidingCounts), List.of());
+        }
+
+        private void clearBucket(int bucket) {
+            long[] counts = bucketCounts[bucket];
+            for (int i = 0; i < MAX_ACTIONS; i++) {
+                slidingCounts[i] -= counts[i];
+                counts[i] = 0;
+            }
+            bucketSketches[bucket].clear();
+        }
+
+        private int actionIndex(String action) {
+            String name = action != null ? action : UNKNOWN_ACTION;
+            for (int i = 0; i < actionCount; i++) {
+                if (actions[i].equals(name)) {
+                    return i;
+                }
+            }
+            if (actionCount < MAX_ACTIONS - 1) {
+                actions[actionCount] = name;
+                return actionCount++;
+            }
+            // The last counter collects operations beyond the expected few
+            actions[MAX_ACTIONS - 1] = "OTHER";
+            return MAX_ACTIONS - 1;
+        }
+
+        private Map<String, Long> counts(long[] values) {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (int i = 0; i < MAX_ACTIONS; i++) {
+                if (values[i] > 0) {
+                    counts.put(actions[i], values[i]);
+                }
+            }
+            return counts;
+        }
+    }
+
+    private static List<WindowResult> add(List<WindowResult> closed, WindowResult result) {
+        if (result == null) {
+            return closed;
+        }
+        if (closed == null) {
+            closed = new ArrayList<>(2);
+        }
+        closed.add(result);
+        return closed;
+    }
+
+    private static long sum(long[] values) {
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    private static long align(long millis, long length) {
+        return millis - Math.floorMod(millis, length);
+    }
+
+    /**
+     * Count-min sketch over 64-bit key hashes: a fixed number of counter rows, each indexed by a
+     * different hash, whose minimum bounds a key's count from above.
+     */
+    private static final class CountMinSketch {
+
+        private final int[] counters = new int[SKETCH_DEPTH * SKETCH_WIDTH];
+        private boolean empty = true;
+
+        /**
+         * @return The estimated count of the key including this occurrence
+         */
+        long add(long hash) {
+            empty = false;
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < SKETCH_DEPTH; row++) {
+                int slot = slot(hash, row);
+                estimate = Math.min(estimate, ++counters[slot]);
+            }
+            return estimate;
+        }
+
+        void clear() {
+            if (!empty) {
+                Arrays.fill(counters, 0);
+                empty = true;
+            }
+        }
+
+        /**
+         * Estimates the key's count summed over several sketches.
+         */
+        static long estimate(CountMinSketch[] sketches, long hash) {
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < SKETCH_DEPTH; row++) {
+                int slot = slot(hash, row);
+                long sum = 0;
+                for (CountMinSketch sketch : sketches) {
+                    sum += sketch.counters[slot];
+                }
+                estimate = Math.min(estimate, sum);
+            }
+            return estimate;
+        }
+
+        /**
+         * Double hashing: row k combines the hash's two halves, like the deduplication Bloom filter.
+         */
+        private static int slot(long hash, int row) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            return row * SKETCH_WIDTH + ((h1 + row * h2) & (SKETCH_WIDTH - 1));
+        }
+    }
+
+    /**
+     * Fixed-size list of the keys with the highest estimated counts seen so far. A key replaces the
+     * weakest candidate once its estimate exceeds the candidate's, so the cost per event is bounded
+     * by the list size.
+     */
+    private static final class TopKeys {
+
+        private final String[] keys;
+        private final long[] counts;
+        private int size;
+
+        TopKeys(int capacity) {
+            this.keys = new String[capacity];
+            this.counts = new long[capacity];
+        }
+
+        void offer(String key, long estimate) {
+            if (keys.length == 0) {
+                return;
+            }
+            int weakest = 0;
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    counts[i] = estimate;
+                    return;
+                }
+                if (counts[i] < counts[weakest]) {
+                    weakest = i;
+                }
+            }
+            if (size < keys.length) {
+                keys[size] = key;
+                counts[size++] = estimate;
+            } else if (estimate > counts[weakest]) {
+                keys[weakest] = key;
+                counts[weakest] = estimate;
+            }
+        }
+
+        List<WindowResult.KeyRate> toKeyRates(double seconds) {
+            List<WindowResult.KeyRate> rates = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                rates.add(new WindowResult.KeyRate(keys[i], counts[i], seconds > 0 ? counts[i] / seconds : 0));
+            }
+            rates.sort((a, b) -> Long.compare(b.count(), a.count()));
+            return rates;
+        }
+
+        void clear() {
+            Arrays.fill(keys, 0, size, null);
+            size = 0;
+        }
+    }
+}
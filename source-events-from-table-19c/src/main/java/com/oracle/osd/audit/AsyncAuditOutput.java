@@ -0,0 +1,97 @@
+package com.oracle.osd.audit;
+
+import com.oracle.osd.events.BaseEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves audit writes off the consuming threads. Records are queued in a bounded buffer and a
+ * single writer thread hands them to the delegate in batches. When the buffer is full records are
+ * dropped and counted rather than slowing down consumption.
+ */
+public class AsyncAuditOutput implements AuditOutput {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncAuditOutput.class);
+
+    private final AuditOutput delegate;
+    private final BlockingQueue<Runnable> buffer;
+    private final int batchSize;
+    private final Thread writer;
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running = true;
+
+    public AsyncAuditOutput(AuditOutput delegate, int capacity, int batchSize) {
+        this.delegate = delegate;
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.writer = Thread.ofPlatform().name("audit-writer").daemon().start(this::writeLoop);
+    }
+
+    @Override
+    public void consumed(String eventType, String subscriberName, String messageId, long jmsTimestamp,
+                         long consumedAt, String messageText) {
+        enqueue(() -> delegate.consumed(eventType, subscriberName, messageId, jmsTimestamp, consumedAt, messageText));
+    }
+
+    @Override
+    public void processed(String eventType, String idLabel, String id, BaseEvent event, String subscriberName) {
+        // The consumer may reuse the event instance once processing returns, so queue a copy
+        BaseEvent detached = event.copy();
+        enqueue(() -> delegate.processed(eventType, idLabel, id, detached, subscriberName));
+    }
+
+    private void enqueue(Runnable record) {
+        if (!buffer.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    private void writeLoop() {
+        List<Runnable> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                Runnable first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                for (Runnable record : batch) {
+                    record.run();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Audit writer failed: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (getDropped() > 0) {
+            logger.warn("Audit output dropped {} records because the buffer was full", getDropped());
+        }
+        delegate.close();
+    }
+}
@@ -0,0 +1,41 @@
+package com.oracle.osd.audit;
+
+import com.oracle.osd.events.BaseEvent;
+
+/**
+ * Destination for the per-event audit trail written by the consumer sessions and event processors.
+ * Implementations decide the format and how (or whether) each record is written.
+ */
+public interface AuditOutput extends AutoCloseable {
+
+    /**
+     * Records that a message was dequeued by a subscriber.
+     *
+     * @param eventType      The type of event (ACTION, PAYMENT, STATEMENT)
+     * @param subscriberName The subscriber that received the message
+     * @param messageId      The JMS message ID
+     * @param jmsTimestamp   The JMS enqueue timestamp in epoch millis
+     * @param consumedAt     The consume time in epoch millis
+     * @param messageText    The raw message payload
+     */
+    void consumed(String eventType, String subscriberName, String messageId, long jmsTimestamp,
+                  long consumedAt, String messageText);
+
+    /**
+     * Records that a parsed event was handled by its processor.
+     *
+     * @param eventType      The type of event (ACTION, PAYMENT, STATEMENT)
+     * @param idLabel        Display name of the event's business key
+     * @param id             The business key value
+     * @param event          The parsed event
+     * @param subscriberName The subscriber that received the message
+     */
+    void processed(String eventType, String idLabel, String id, BaseEvent event, String subscriberName);
+
+    /**
+     * Flushes pending records and releases resources.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,75 @@
+package com.oracle.osd.audit;
+
+import com.oracle.osd.processors.MessageHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures consumer-side throughput of the message handling hot path (audit of the consumed
+ * message, JSON parsing and processing) with each audit output option, without a database.
+ * <p>
+ * Results are printed to stderr; redirect stdout to discard the audit log itself, e.g.
+ * {@code mvn -q exec:java -Dexec.mainClass="com.oracle.osd.audit.AuditOutputBenchmark" -Dexec.args="200000 4" > /dev/null}
+ */
+public class AuditOutputBenchmark {
+
+    private static final int DEFAULT_MESSAGES = 200_000;
+    private static final int DEFAULT_THREADS = 4;
+
+    public static void main(String[] args) throws Exception {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MESSAGES;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_THREADS;
+
+        System.err.printf("Audit output benchmark: %d ACTION messages on %d threads%n", messages, threads);
+        // Warm up parsing and processing so the first measured option is not penalised by JIT compilation
+        run(null, new NoopAuditOutput(), messages, threads);
+        run("verbose", AuditOutputs.create("verbose", 1, false, 0, 0), messages, threads);
+        run("compact", AuditOutputs.create("compact", 1, false, 0, 0), messages, threads);
+        run("compact sampled 1/100", AuditOutputs.create("compact", 100, false, 0, 0), messages, threads);
+        run("verbose async", AuditOutputs.create("verbose", 1, true, 8192, 256), messages, threads);
+        run("compact async", AuditOutputs.create("compact", 1, true, 8192, 256), messages, threads);
+        run("none", AuditOutputs.create("none", 1, false, 0, 0), messages, threads);
+    }
+
+    private static void run(String name, AuditOutput auditOutput, int messages, int threads) throws Exception {
+        MessageHandler messageHandler = new MessageHandler(auditOutput);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int perThread = messages / threads;
+
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    long now = System.currentTimeMillis();
+                    String payload = "{ \"ActionId\": \"ACT-" + (thread * perThread + i) + "\", \"Notes\": \"Action entry: "
+                            + i + ", Timestamp: " + now + ", for action: ACT-" + i + "\",\"Timestamp\": \"" + now
+                            + "\", \"Action\": \"INSERT\" }";
+                    auditOutput.consumed("ACTION", "BenchmarkSubscriber", "ID:" + i, now, now, payload);
+                    messageHandler.processMessage(payload, "ACTION", "BenchmarkSubscriber");
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long consumedNanos = System.nanoTime() - start;
+        executor.shutdown();
+
+        auditOutput.close();
+        long drainedNanos = System.nanoTime() - start;
+
+        if (name == null) {
+            return;
+        }
+        long total = (long) perThread * threads;
+        String dropped = auditOutput instanceof AsyncAuditOutput async ? ", dropped " + async.getDropped() : "";
+        System.err.printf("%-24s %12.0f msgs/sec (all records written after %d ms%s)%n",
+                name, total / (consumedNanos / 1_000_000_000.0), drainedNanos / 1_000_000, dropped);
+    }
+}
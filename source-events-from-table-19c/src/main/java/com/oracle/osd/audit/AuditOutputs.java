@@ -0,0 +1,45 @@
+package com.oracle.osd.audit;
+
+import com.oracle.osd.config.ConsumerConfig;
+
+/**
+ * Builds the audit output chain selected in the consumer configuration.
+ */
+public class AuditOutputs {
+
+    private AuditOutputs() {
+    }
+
+    /**
+     * Creates the configured output: the base format, optionally sampled, optionally asynchronous.
+     */
+    public static AuditOutput create(ConsumerConfig config) {
+        return create(config.getAuditFormat(), config.getAuditSampleRate(), config.isAuditAsyncEnabled(),
+                config.getAuditAsyncBufferSize(), config.getAuditAsyncBatchSize());
+    }
+
+    /**
+     * @param format       verbose, compact or none
+     * @param sampleRate   Write the records of one message out of every {@code sampleRate}
+     * @param async        Whether records are written by a background thread
+     * @param bufferSize   Capacity of the asynchronous buffer
+     * @param batchSize    Maximum records written per batch by the background thread
+     */
+    public static AuditOutput create(String format, int sampleRate, boolean async, int bufferSize, int batchSize) {
+        AuditOutput output = switch (format.trim().toLowerCase()) {
+            case "none" -> new NoopAuditOutput();
+            case "compact" -> new LoggingAuditOutput(LoggingAuditOutput.Format.COMPACT);
+            default -> new LoggingAuditOutput(LoggingAuditOutput.Format.VERBOSE);
+        };
+        if (output instanceof NoopAuditOutput) {
+            return output;
+        }
+        if (sampleRate > 1) {
+            output = new SampledAuditOutput(output, sampleRate);
+        }
+        if (async) {
+            output = new AsyncAuditOutput(output, bufferSize, batchSize);
+        }
+        return output;
+    }
+}
@@ -0,0 +1,80 @@
+package com.oracle.osd.audit;
+
+import com.oracle.osd.events.ActionEvent;
+import com.oracle.osd.events.BaseEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Timestamp;
+
+/**
+ * Writes audit records through SLF4J, either as the original multi-line blocks or as a single
+ * structured key=value line per record.
+ */
+public class LoggingAuditOutput implements AuditOutput {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingAuditOutput.class);
+
+    /**
+     * Layout of the audit records.
+     */
+    public enum Format {
+        /** Multi-line blocks with human readable timestamps. */
+        VERBOSE,
+        /** One key=value line per record with raw epoch millis. */
+        COMPACT
+    }
+
+    private final Format format;
+
+    public LoggingAuditOutput(Format format) {
+        this.format = format;
+    }
+
+    @Override
+    public void consumed(String eventType, String subscriberName, String messageId, long jmsTimestamp,
+                         long consumedAt, String messageText) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        if (format == Format.COMPACT) {
+            logger.info("consumed type={} subscriber={} msgId={} jmsTs={} consumedAt={} payload={}",
+                    eventType, subscriberName, messageId, jmsTimestamp, consumedAt, messageText);
+            return;
+        }
+        logger.info("=== EVENT CONSUMED ===");
+        logger.info("Event Type: {}", eventType);
+        logger.info("Subscriber: {}", subscriberName);
+        logger.info("Message ID: {}", messageId);
+        logger.info("JMS Timestamp: {}", new Timestamp(jmsTimestamp));
+        logger.info("Consumed At: {}", new Timestamp(consumedAt));
+        logger.info("Message Content: {}", messageText);
+        logger.info("=====================");
+    }
+
+    @Override
+    public void processed(String eventType, String idLabel, String id, BaseEvent event, String subscriberName) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        String notesOld = event instanceof ActionEvent actionEvent ? actionEvent.getNotesOld() : null;
+        if (format == Format.COMPACT) {
+            logger.info("processed type={} {}={} op={} ts={} subscriber={} notes={}{}",
+                    eventType, idLabel, id, event.getAction(), event.getTimestamp(), subscriberName, event.getNotes(),
+                    notesOld != null && !notesOld.isEmpty() ? " notesOld=" + notesOld : "");
+            return;
+        }
+        logger.info("--- {} Event Details ---", eventType);
+        logger.info("{}: {}", idLabel, id);
+        logger.info("Operation: {}", event.getAction());
+        logger.info("Notes: {}", event.getNotes());
+        logger.info("Event Timestamp: {}", event.getTimestamp());
+
+        if (notesOld != null && !notesOld.isEmpty()) {
+            logger.info("Previous Notes: {}", notesOld);
+        }
+
+        logger.info("Processed by: {}", subscriberName);
+        logger.info("------------------------");
+    }
+}
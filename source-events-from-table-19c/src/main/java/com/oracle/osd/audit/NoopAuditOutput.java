@@ -0,0 +1,18 @@
+package com.oracle.osd.audit;
+
+import com.oracle.osd.events.BaseEvent;
+
+/**
+ * Discards all audit records.
+ */
+public class NoopAuditOutput implements AuditOutput {
+
+    @Override
+    public void consumed(String eventType, String subscriberName, String messageId, long jmsTimestamp,
+                         long consumedAt, String messageText) {
+    }
+
+    @Override
+    public void processed(String eventType, String idLabel, String id, BaseEvent event, String subscriberName) {
+    }
+}
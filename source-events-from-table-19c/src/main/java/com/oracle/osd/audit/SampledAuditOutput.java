@@ -0,0 +1,97 @@
+package com.oracle.osd.audit;
+
+import com.oracle.osd.events.BaseEvent;
+import com.oracle.osd.utils.JsonFieldScanner;
+
+/**
+ * Forwards the records of roughly one message out of every n to the delegate output.
+ * <p>
+ * The decision is made per message rather than per record, so a sampled message keeps both its
+ * consumed and its processed record and can be followed end to end. The processed record does not
+ * carry the JMS message ID, so messages are identified by their business key and source
+ * {@code Timestamp}, which the consumed record reads from the payload and the processed record
+ * from the parsed event.
+ */
+public class SampledAuditOutput implements AuditOutput {
+
+    private static final String TIMESTAMP_FIELD = "\"Timestamp\"";
+    private static final long EMPTY_HASH = JsonFieldScanner.hash64("", 0, 0);
+
+    private final AuditOutput delegate;
+    private final int sampleRate;
+
+    /**
+     * @param delegate   The output receiving the sampled records
+     * @param sampleRate Forward the records of one message out of every {@code sampleRate}
+     */
+    public SampledAuditOutput(AuditOutput delegate, int sampleRate) {
+        this.delegate = delegate;
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    @Override
+    public void consumed(String eventType, String subscriberName, String messageId, long jmsTimestamp,
+                         long consumedAt, String messageText) {
+        long idHash = idHash(eventType, messageText);
+        long timestamp = JsonFieldScanner.longValue(messageText, TIMESTAMP_FIELD, 0);
+        if (sampled(idHash, timestamp)) {
+            delegate.consumed(eventType, subscriberName, messageId, jmsTimestamp, consumedAt, messageText);
+        }
+    }
+
+    @Override
+    public void processed(String eventType, String idLabel, String id, BaseEvent event, String subscriberName) {
+        long idHash = id != null ? JsonFieldScanner.hash64(id, 0, id.length()) : 0;
+        if (sampled(idHash, leadingDigits(event.getTimestamp()))) {
+            delegate.processed(eventType, idLabel, id, event, subscriberName);
+        }
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private boolean sampled(long idHash, long timestamp) {
+        long key = JsonFieldScanner.mix64(idHash ^ timestamp * 0x9e3779b97f4a7c15L);
+        return Long.remainderUnsigned(key, sampleRate) == 0;
+    }
+
+    /**
+     * Hashes the business key the event's processor reports, as found in the raw payload.
+     */
+    private static long idHash(String eventType, String messageText) {
+        return switch (eventType) {
+            case "ACTION" -> JsonFieldScanner.valueHash64(messageText, "\"ActionId\"");
+            case "PAYMENT" -> JsonFieldScanner.valueHash64(messageText, "\"PaymentId\"");
+            case "STATEMENT" -> {
+                // Statements are keyed by StatementsId, or by TransactionId when it is empty
+                long statementsId = JsonFieldScanner.valueHash64(messageText, "\"StatementsId\"");
+                yield statementsId != 0 && statementsId != EMPTY_HASH
+                        ? statementsId
+                        : JsonFieldScanner.valueHash64(messageText, "\"TransactionId\"");
+            }
+            default -> 0;
+        };
+    }
+
+    /**
+     * Parses the leading digits of a decoded field value the way
+     * {@link JsonFieldScanner#longValue(String, String, long)} parses them from the payload.
+     */
+    private static long leadingDigits(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long parsed = 0;
+        int digits = 0;
+        for (int i = 0; i < value.length() && digits < 18; i++, digits++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            parsed = parsed * 10 + (c - '0');
+        }
+        return digits == 0 ? 0 : parsed;
+    }
+}
@@ -5,27 +5,346 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Configuration manager for EventConsumerApp.
  * Loads configuration from properties file and provides typed access to configuration values.
+ * <p>
+ * An instance is an immutable snapshot of the file: every value is parsed into a final field when
+ * the snapshot is created, so getters called in the receive loop only read a field. To change the
+ * configuration at runtime a new snapshot is loaded, validated and published, see
+ * {@link ConsumerConfigWatcher}. At startup an invalid value is logged and replaced by its default;
+ * a reloaded file with invalid values is rejected as a whole.
  */
 public class ConsumerConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(ConsumerConfig.class);
     private static final String CONFIG_FILE = "consumer-config.properties";
+    /**
+     * System property with the path of a configuration file to use instead of the classpath resource.
+     */
+    public static final String CONFIG_FILE_PROPERTY = "consumer.config.file";
+
+    /**
+     * Keys that running consumers apply when a new snapshot is published; all others take effect
+     * after a restart.
+     */
+    private static final List<String> LIVE_KEY_PREFIXES = List.of(
+            "consumer.threads", "consumer.action.sessions", "consumer.payment.sessions", "consumer.statement.sessions",
+            "consumer.receive.", "consumer.batch.", "consumer.error.retry.delay.seconds",
+            "consumer.max.delivery.count", "consumer.autoscale.min.sessions", "consumer.autoscale.max.sessions",
+            "consumer.autoscale.scale.");
 
     private final Properties properties;
+    /** Invalid values found while parsing, each replaced by its default. */
+    private final List<String> problems;
+
+    private final int consumerThreads;
+    private final boolean virtualThreadsEnabled;
+    private final long pinningThresholdMs;
+    private final int actionSessions;
+    private final int paymentSessions;
+    private final int statementSessions;
+    private final boolean autoscaleEnabled;
+    private final int autoscaleIntervalSeconds;
+    private final int autoscaleMinSessions;
+    private final int autoscaleMaxSessions;
+    private final long autoscaleScaleUpBacklog;
+    private final long autoscaleScaleDownBacklog;
+    private final ConsumerMode consumerMode;
+    private final long receiveTimeoutMs;
+    private final boolean adaptiveReceiveEnabled;
+    private final long adaptiveMinTimeoutMs;
+    private final long adaptiveMaxTimeoutMs;
+    private final int batchMaxMessages;
+    private final long batchMaxLingerMs;
+    private final boolean pipelineEnabled;
+    private final int pipelineWorkers;
+    private final int pipelineBufferSize;
+    private final String actionQueue;
+    private final String actionSubscriber;
+    private final String paymentQueue;
+    private final String paymentSubscriber;
+    private final String statementQueue;
+    private final String statementSubscriber;
+    private final int retryDelaySeconds;
+    private final int retryMaxAttempts;
+    private final int retryInitialBackoffSeconds;
+    private final int retryMaxBackoffSeconds;
+    private final int maxDeliveryCount;
+    private final String exceptionTopic;
+    private final int shutdownTimeoutSeconds;
+    private final int reportIntervalSeconds;
+    private final boolean configReloadEnabled;
+    private final int metricsHttpPort;
+    private final boolean latencyTrackingEnabled;
+    private final boolean decodeReuseEventsEnabled;
+    private final boolean stateViewEnabled;
+    private final int stateViewInitialCapacity;
+    private final boolean aggregationEnabled;
+    private final int aggregationTumblingWindowSeconds;
+    private final int aggregationSlidingWindowSeconds;
+    private final int aggregationSlidingStepSeconds;
+    private final int aggregationTopKeys;
+    private final boolean sinkEnabled;
+    private final String sinkActionTable;
+    private final String sinkPaymentTable;
+    private final String sinkStatementTable;
+    private final int sinkMaxRowsPerExecute;
+    private final boolean dedupEnabled;
+    private final int dedupMemoryLimitMb;
+    private final boolean dedupBloomFilterEnabled;
+    private final String auditFormat;
+    private final int auditSampleRate;
+    private final boolean auditAsyncEnabled;
+    private final int auditAsyncBufferSize;
+    private final int auditAsyncBatchSize;
+
+    /**
+     * How consumer sessions obtain messages from their subscriber.
+     */
+    public enum ConsumerMode {
+        /** Synchronous {@code receive(timeout)} loop with batched commits. */
+        POLL,
+        /** Asynchronous delivery through a registered {@code MessageListener}. */
+        LISTENER
+    }
 
     public ConsumerConfig() {
-        this.properties = loadProperties();
+        this(loadStartupProperties());
+        for (String problem : problems) {
+            logger.warn(problem);
+        }
+    }
+
+    private ConsumerConfig(Properties properties) {
+        this.properties = properties;
+        Values values = new Values(properties);
+
+        consumerThreads = values.getInt("consumer.threads", 3);
+        virtualThreadsEnabled = values.getBoolean("consumer.virtual.threads.enabled", false);
+        pinningThresholdMs = values.getLong("consumer.virtual.threads.pinning.threshold.ms", 20L);
+        int defaultSessions = Math.max(1, consumerThreads / 3);
+        actionSessions = Math.max(1, values.getInt("consumer.action.sessions", defaultSessions));
+        paymentSessions = Math.max(1, values.getInt("consumer.payment.sessions", defaultSessions));
+        statementSessions = Math.max(1, values.getInt("consumer.statement.sessions", defaultSessions));
+
+        autoscaleEnabled = values.getBoolean("consumer.autoscale.enabled", false);
+        autoscaleIntervalSeconds = Math.max(1, values.getInt("consumer.autoscale.interval.seconds", 30));
+        autoscaleMinSessions = Math.max(1, values.getInt("consumer.autoscale.min.sessions", 1));
+        autoscaleMaxSessions = values.getInt("consumer.autoscale.max.sessions", 4);
+        autoscaleScaleUpBacklog = values.getLong("consumer.autoscale.scale.up.backlog", 5000);
+        autoscaleScaleDownBacklog = values.getLong("consumer.autoscale.scale.down.backlog", 500);
+
+        consumerMode = values.getMode("consumer.mode", ConsumerMode.POLL);
+        receiveTimeoutMs = values.getLong("consumer.receive.timeout.ms", 1000L);
+        adaptiveReceiveEnabled = values.getBoolean("consumer.receive.adaptive.enabled", false);
+        adaptiveMinTimeoutMs = values.getLong("consumer.receive.adaptive.min.timeout.ms", 50L);
+        adaptiveMaxTimeoutMs = values.getLong("consumer.receive.adaptive.max.timeout.ms", 5000L);
+        batchMaxMessages = Math.max(1, values.getInt("consumer.batch.max.messages", 1));
+        batchMaxLingerMs = Math.max(0L, values.getLong("consumer.batch.max.linger.ms", 0L));
+
+        pipelineEnabled = values.getBoolean("consumer.pipeline.enabled", false);
+        pipelineWorkers = Math.max(1, values.getInt("consumer.pipeline.workers", 4));
+        pipelineBufferSize = Math.max(1, values.getInt("consumer.pipeline.buffer.size", 1024));
+
+        actionQueue = values.getString("consumer.action.queue", "ActionUpdatesTopic");
+        actionSubscriber = values.getString("consumer.action.subscriber", "ActionUpdatesSubscriber1");
+        paymentQueue = values.getString("consumer.payment.queue", "PaymentUpdatesTopic");
+        paymentSubscriber = values.getString("consumer.payment.subscriber", "PaymentUpdatesSubscriber1");
+        statementQueue = values.getString("consumer.statement.queue", "TransactionStatementTopic");
+        statementSubscriber = values.getString("consumer.statement.subscriber", "StatementsUpdatesSubscriber1");
+
+        retryDelaySeconds = values.getInt("consumer.error.retry.delay.seconds", 2);
+        retryMaxAttempts = values.getInt("consumer.retry.max.attempts", 3);
+        retryInitialBackoffSeconds = values.getInt("consumer.retry.backoff.initial.seconds", 1);
+        retryMaxBackoffSeconds = values.getInt("consumer.retry.backoff.max.seconds", 60);
+        maxDeliveryCount = values.getInt("consumer.max.delivery.count", 5);
+        exceptionTopic = values.getString("consumer.exception.topic", "").trim();
+        shutdownTimeoutSeconds = values.getInt("consumer.shutdown.timeout.seconds", 10);
+
+        reportIntervalSeconds = values.getInt("consumer.report.interval.seconds", 30);
+        configReloadEnabled = values.getBoolean("consumer.config.reload.enabled", true);
+        metricsHttpPort = values.getInt("consumer.metrics.http.port", 0);
+        latencyTrackingEnabled = values.getBoolean("consumer.latency.enabled", true);
+        decodeReuseEventsEnabled = values.getBoolean("consumer.decode.reuse.events", false);
+        stateViewEnabled = values.getBoolean("consumer.state.view.enabled", false);
+        stateViewInitialCapacity = values.getInt("consumer.state.view.initial.capacity", 65536);
+
+        aggregationEnabled = values.getBoolean("consumer.aggregation.enabled", false);
+        aggregationTumblingWindowSeconds = values.getInt("consumer.aggregation.tumbling.window.seconds", 60);
+        aggregationSlidingWindowSeconds = values.getInt("consumer.aggregation.sliding.window.seconds", 300);
+        aggregationSlidingStepSeconds = values.getInt("consumer.aggregation.sliding.step.seconds", 60);
+        aggregationTopKeys = values.getInt("consumer.aggregation.top.keys", 10);
+
+        sinkEnabled = values.getBoolean("consumer.sink.enabled", false);
+        sinkActionTable = values.getString("consumer.sink.action.table", "ActionEventSink");
+        sinkPaymentTable = values.getString("consumer.sink.payment.table", "PaymentEventSink");
+        sinkStatementTable = values.getString("consumer.sink.statement.table", "StatementEventSink");
+        sinkMaxRowsPerExecute = values.getInt("consumer.sink.max.rows.per.execute", 500);
+
+        dedupEnabled = values.getBoolean("consumer.dedup.enabled", false);
+        dedupMemoryLimitMb = values.getInt("consumer.dedup.memory.limit.mb", 16);
+        dedupBloomFilterEnabled = values.getBoolean("consumer.dedup.bloom.enabled", true);
+
+        auditFormat = values.getString("consumer.audit.format", "verbose");
+        auditSampleRate = Math.max(1, values.getInt("consumer.audit.sample.rate", 1));
+        auditAsyncEnabled = values.getBoolean("consumer.audit.async.enabled", false);
+        auditAsyncBufferSize = values.getInt("consumer.audit.async.buffer.size", 8192);
+        auditAsyncBatchSize = values.getInt("consumer.audit.async.batch.size", 256);
+
+        validate(values.problems);
+        this.problems = List.copyOf(values.problems);
+    }
+
+    /**
+     * Loads and validates a snapshot from a configuration file.
+     *
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if any value is invalid; the message lists all of them
+     */
+    public static ConsumerConfig load(Path file) throws IOException {
+        ConsumerConfig config = new ConsumerConfig(readProperties(file));
+        if (!config.problems.isEmpty()) {
+            throw new IllegalArgumentException("Invalid configuration in " + file + ": "
+                    + String.join("; ", config.problems));
+        }
+        return config;
+    }
+
+    /**
+     * Checks the values that are only valid in combination with others.
+     */
+    private void validate(List<String> problems) {
+        if (receiveTimeoutMs < 0) {
+            problems.add("consumer.receive.timeout.ms must not be negative");
+        }
+        if (adaptiveMinTimeoutMs > adaptiveMaxTimeoutMs) {
+            problems.add("consumer.receive.adaptive.min.timeout.ms exceeds consumer.receive.adaptive.max.timeout.ms");
+        }
+        if (autoscaleMinSessions > autoscaleMaxSessions) {
+            problems.add("consumer.autoscale.min.sessions exceeds consumer.autoscale.max.sessions");
+        }
+        if (retryInitialBackoffSeconds > retryMaxBackoffSeconds) {
+            problems.add("consumer.retry.backoff.initial.seconds exceeds consumer.retry.backoff.max.seconds");
+        }
+        if (aggregationSlidingStepSeconds <= 0 || aggregationSlidingWindowSeconds % aggregationSlidingStepSeconds != 0) {
+            problems.add("consumer.aggregation.sliding.window.seconds must be a multiple of consumer.aggregation.sliding.step.seconds");
+        }
+        if (metricsHttpPort < 0 || metricsHttpPort > 65535) {
+            problems.add("consumer.metrics.http.port must be between 0 and 65535");
+        }
+        if (!List.of("verbose", "compact", "none").contains(auditFormat.trim().toLowerCase())) {
+            problems.add("consumer.audit.format must be verbose, compact or none, not '" + auditFormat + "'");
+        }
+    }
+
+    private static Properties readProperties(Path file) throws IOException {
+        Properties props = new Properties();
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            props.load(inputStream);
+        }
+        return props;
+    }
+
+    private static Properties loadStartupProperties() {
+        Optional<Path> file = Optional.ofNullable(System.getProperty(CONFIG_FILE_PROPERTY)).map(Path::of);
+        return file.isPresent() ? loadProperties(file.get()) : loadProperties();
+    }
+
+    private static Properties loadProperties(Path file) {
+        try {
+            Properties props = readProperties(file);
+            logger.info("Loaded configuration from {}", file);
+            return props;
+        } catch (IOException e) {
+            logger.error("Failed to load configuration file {}, using defaults", file, e);
+            return getDefaultProperties();
+        }
+    }
+
+    /**
+     * @return The file this configuration is read from, if it is a file that can be watched for changes
+     */
+    public static Optional<Path> getConfigFile() {
+        String configured = System.getProperty(CONFIG_FILE_PROPERTY);
+        if (configured != null) {
+            return Optional.of(Path.of(configured));
+        }
+        URL resource = ConsumerConfig.class.getClassLoader().getResource(CONFIG_FILE);
+        if (resource == null || !"file".equals(resource.getProtocol())) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Path.of(resource.toURI()));
+        } catch (URISyntaxException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return The keys whose values differ between this snapshot and {@code other}
+     */
+    public Set<String> changedKeys(ConsumerConfig other) {
+        Set<String> changed = new TreeSet<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (!properties.getProperty(key).equals(other.properties.getProperty(key))) {
+                changed.add(key);
+            }
+        }
+        for (String key : other.properties.stringPropertyNames()) {
+            if (properties.getProperty(key) == null) {
+                changed.add(key);
+            }
+        }
+        return changed;
     }
 
-    private Properties loadProperties() {
+    /**
+     * Creates the snapshot running consumers switch to when a reloaded file is published: the live
+     * keys take their values from {@code reloaded}, every other key keeps its value from this
+     * snapshot. Sessions created after the reload, e.g. by the autoscaler, therefore keep the
+     * consumption mode, sink, exception topic and retry settings the consumer was started with.
+     *
+     * @param reloaded A validated snapshot of the reloaded file
+     */
+    public ConsumerConfig withLiveValues(ConsumerConfig reloaded) {
+        Properties merged = new Properties();
+        for (String key : properties.stringPropertyNames()) {
+            if (!isLiveReloadable(key)) {
+                merged.setProperty(key, properties.getProperty(key));
+            }
+        }
+        for (String key : reloaded.properties.stringPropertyNames()) {
+            if (isLiveReloadable(key)) {
+                merged.setProperty(key, reloaded.properties.getProperty(key));
+            }
+        }
+        // Invalid startup values were already logged and are replaced by the same defaults again
+        return new ConsumerConfig(merged);
+    }
+
+    /**
+     * @return Whether running consumers apply a change of the key without a restart
+     */
+    public static boolean isLiveReloadable(String key) {
+        return LIVE_KEY_PREFIXES.stream().anyMatch(key::startsWith);
+    }
+
+    private static Properties loadProperties() {
         Properties props = new Properties();
 
-        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+        try (InputStream inputStream = ConsumerConfig.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
             if (inputStream == null) {
                 logger.warn("Configuration file {} not found, using default values", CONFIG_FILE);
                 return getDefaultProperties();
@@ -42,85 +361,494 @@ public class ConsumerConfig {
         return props;
     }
 
-    private Properties getDefaultProperties() {
+    private static Properties getDefaultProperties() {
         Properties defaults = new Properties();
         defaults.setProperty("consumer.threads", "3");
+        defaults.setProperty("consumer.mode", "poll");
+        defaults.setProperty("consumer.virtual.threads.enabled", "false");
+        defaults.setProperty("consumer.virtual.threads.pinning.threshold.ms", "20");
         defaults.setProperty("consumer.receive.timeout.ms", "1000");
+        defaults.setProperty("consumer.receive.adaptive.enabled", "false");
+        defaults.setProperty("consumer.receive.adaptive.min.timeout.ms", "50");
+        defaults.setProperty("consumer.receive.adaptive.max.timeout.ms", "5000");
+        defaults.setProperty("consumer.batch.max.messages", "1");
+        defaults.setProperty("consumer.batch.max.linger.ms", "0");
         defaults.setProperty("consumer.action.queue", "ActionUpdatesTopic");
         defaults.setProperty("consumer.action.subscriber", "ActionUpdatesSubscriber1");
         defaults.setProperty("consumer.payment.queue", "PaymentUpdatesTopic");
         defaults.setProperty("consumer.payment.subscriber", "PaymentUpdatesSubscriber1");
         defaults.setProperty("consumer.statement.queue", "TransactionStatementTopic");
         defaults.setProperty("consumer.statement.subscriber", "StatementsUpdatesSubscriber1");
+        defaults.setProperty("consumer.pipeline.enabled", "false");
+        defaults.setProperty("consumer.pipeline.workers", "4");
+        defaults.setProperty("consumer.pipeline.buffer.size", "1024");
         defaults.setProperty("consumer.error.retry.delay.seconds", "2");
+        defaults.setProperty("consumer.retry.max.attempts", "3");
+        defaults.setProperty("consumer.retry.backoff.initial.seconds", "1");
+        defaults.setProperty("consumer.retry.backoff.max.seconds", "60");
+        defaults.setProperty("consumer.max.delivery.count", "5");
+        defaults.setProperty("consumer.exception.topic", "");
         defaults.setProperty("consumer.shutdown.timeout.seconds", "10");
+        defaults.setProperty("consumer.report.interval.seconds", "30");
+        defaults.setProperty("consumer.metrics.http.port", "0");
+        defaults.setProperty("consumer.config.reload.enabled", "true");
+        defaults.setProperty("consumer.autoscale.enabled", "false");
+        defaults.setProperty("consumer.autoscale.interval.seconds", "30");
+        defaults.setProperty("consumer.autoscale.min.sessions", "1");
+        defaults.setProperty("consumer.autoscale.max.sessions", "4");
+        defaults.setProperty("consumer.autoscale.scale.up.backlog", "5000");
+        defaults.setProperty("consumer.autoscale.scale.down.backlog", "500");
+        defaults.setProperty("consumer.latency.enabled", "true");
+        defaults.setProperty("consumer.decode.reuse.events", "false");
+        defaults.setProperty("consumer.state.view.enabled", "false");
+        defaults.setProperty("consumer.state.view.initial.capacity", "65536");
+        defaults.setProperty("consumer.aggregation.enabled", "false");
+        defaults.setProperty("consumer.aggregation.tumbling.window.seconds", "60");
+        defaults.setProperty("consumer.aggregation.sliding.window.seconds", "300");
+        defaults.setProperty("consumer.aggregation.sliding.step.seconds", "60");
+        defaults.setProperty("consumer.aggregation.top.keys", "10");
+        defaults.setProperty("consumer.sink.enabled", "false");
+        defaults.setProperty("consumer.sink.action.table", "ActionEventSink");
+        defaults.setProperty("consumer.sink.payment.table", "PaymentEventSink");
+        defaults.setProperty("consumer.sink.statement.table", "StatementEventSink");
+        defaults.setProperty("consumer.sink.max.rows.per.execute", "500");
+        defaults.setProperty("consumer.dedup.enabled", "false");
+        defaults.setProperty("consumer.dedup.memory.limit.mb", "16");
+        defaults.setProperty("consumer.dedup.bloom.enabled", "true");
+        defaults.setProperty("consumer.audit.format", "verbose");
+        defaults.setProperty("consumer.audit.sample.rate", "1");
+        defaults.setProperty("consumer.audit.async.enabled", "false");
+        defaults.setProperty("consumer.audit.async.buffer.size", "8192");
+        defaults.setProperty("consumer.audit.async.batch.size", "256");
         return defaults;
     }
 
     // Threading Configuration
     public int getConsumerThreads() {
-        return getIntProperty("consumer.threads", 3);
+        return consumerThreads;
+    }
+
+    /**
+     * Whether consumer sessions (and the event processing they run) execute on virtual threads
+     * instead of a fixed pool of platform threads.
+     */
+    public boolean isVirtualThreadsEnabled() {
+        return virtualThreadsEnabled;
+    }
+
+    /**
+     * Minimum duration for a virtual thread pinning event to be recorded and reported.
+     */
+    public long getPinningThresholdMs() {
+        return pinningThresholdMs;
+    }
+
+    /**
+     * Number of concurrent consumer sessions for the action subscriber.
+     * Defaults to an even share of {@code consumer.threads} across the three subscribers.
+     */
+    public int getActionSessions() {
+        return actionSessions;
+    }
+
+    public int getPaymentSessions() {
+        return paymentSessions;
+    }
+
+    public int getStatementSessions() {
+        return statementSessions;
+    }
+
+    /**
+     * Total number of consumer sessions across all subscribers.
+     */
+    public int getTotalSessions() {
+        return actionSessions + paymentSessions + statementSessions;
+    }
+
+    // Autoscaling Configuration
+    /**
+     * Whether the sessions of each subscriber are added and retired according to its backlog.
+     * The per-subscriber session counts are then only the initial sizes.
+     */
+    public boolean isAutoscaleEnabled() {
+        return autoscaleEnabled;
+    }
+
+    public int getAutoscaleIntervalSeconds() {
+        return autoscaleIntervalSeconds;
+    }
+
+    public int getAutoscaleMinSessions() {
+        return autoscaleMinSessions;
+    }
+
+    public int getAutoscaleMaxSessions() {
+        return autoscaleMaxSessions;
+    }
+
+    /**
+     * Backlog per session above which sessions are added to a subscriber.
+     */
+    public long getAutoscaleScaleUpBacklog() {
+        return autoscaleScaleUpBacklog;
+    }
+
+    /**
+     * Backlog per session below which a session of a subscriber is retired.
+     */
+    public long getAutoscaleScaleDownBacklog() {
+        return autoscaleScaleDownBacklog;
     }
 
     // Message Consumption Configuration
+    public ConsumerMode getConsumerMode() {
+        return consumerMode;
+    }
+
     public long getReceiveTimeoutMs() {
-        return getLongProperty("consumer.receive.timeout.ms", 1000L);
+        return receiveTimeoutMs;
+    }
+
+    /**
+     * Whether the receive timeout adapts to load (drain with receiveNoWait under backlog,
+     * exponential back-off when idle) instead of using the fixed receive timeout.
+     */
+    public boolean isAdaptiveReceiveEnabled() {
+        return adaptiveReceiveEnabled;
+    }
+
+    public long getAdaptiveMinTimeoutMs() {
+        return adaptiveMinTimeoutMs;
+    }
+
+    public long getAdaptiveMaxTimeoutMs() {
+        return adaptiveMaxTimeoutMs;
+    }
+
+    /**
+     * Maximum number of messages dequeued and processed within a single transaction.
+     * A value of 1 commits after every message.
+     */
+    public int getBatchMaxMessages() {
+        return batchMaxMessages;
+    }
+
+    /**
+     * Maximum time in milliseconds to keep a batch open waiting for further messages
+     * once the first message of the batch has been received.
+     */
+    public long getBatchMaxLingerMs() {
+        return batchMaxLingerMs;
+    }
+
+    // Processing Pipeline Configuration
+    /**
+     * Whether received messages are handed to a pool of pipeline workers instead of being
+     * processed on the receiving session's thread.
+     */
+    public boolean isPipelineEnabled() {
+        return pipelineEnabled;
+    }
+
+    public int getPipelineWorkers() {
+        return pipelineWorkers;
+    }
+
+    /**
+     * Total number of messages buffered between the receiving sessions and the pipeline workers.
+     */
+    public int getPipelineBufferSize() {
+        return pipelineBufferSize;
     }
 
     // Queue Configurations
     public String getActionQueue() {
-        return getProperty("consumer.action.queue", "ActionUpdatesTopic");
+        return actionQueue;
     }
 
     public String getActionSubscriber() {
-        return getProperty("consumer.action.subscriber", "ActionUpdatesSubscriber1");
+        return actionSubscriber;
     }
 
     public String getPaymentQueue() {
-        return getProperty("consumer.payment.queue", "PaymentUpdatesTopic");
+        return paymentQueue;
     }
 
     public String getPaymentSubscriber() {
-        return getProperty("consumer.payment.subscriber", "PaymentUpdatesSubscriber1");
+        return paymentSubscriber;
     }
 
     public String getStatementQueue() {
-        return getProperty("consumer.statement.queue", "TransactionStatementTopic");
+        return statementQueue;
     }
 
     public String getStatementSubscriber() {
-        return getProperty("consumer.statement.subscriber", "StatementsUpdatesSubscriber1");
+        return statementSubscriber;
     }
 
     // Error Handling Configuration
     public int getRetryDelaySeconds() {
-        return getIntProperty("consumer.error.retry.delay.seconds", 2);
+        return retryDelaySeconds;
+    }
+
+    /**
+     * How often a message whose processing failed is republished for a delayed retry before it is parked.
+     */
+    public int getRetryMaxAttempts() {
+        return retryMaxAttempts;
+    }
+
+    /**
+     * Delay before the first retry of a failed message; doubled for every further attempt.
+     */
+    public int getRetryInitialBackoffSeconds() {
+        return retryInitialBackoffSeconds;
+    }
+
+    public int getRetryMaxBackoffSeconds() {
+        return retryMaxBackoffSeconds;
+    }
+
+    /**
+     * Number of deliveries after which a message that keeps being rolled back is parked without
+     * being processed again (0 disables the check).
+     */
+    public int getMaxDeliveryCount() {
+        return maxDeliveryCount;
+    }
+
+    /**
+     * Topic that unprocessable messages are moved to. Empty to log and drop them instead.
+     */
+    public String getExceptionTopic() {
+        return exceptionTopic;
     }
 
     public int getShutdownTimeoutSeconds() {
-        return getIntProperty("consumer.shutdown.timeout.seconds", 10);
+        return shutdownTimeoutSeconds;
     }
 
-    // Helper methods
-    private String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+    // Reporting Configuration
+    public int getReportIntervalSeconds() {
+        return reportIntervalSeconds;
     }
 
-    private int getIntProperty(String key, int defaultValue) {
-        try {
-            return Integer.parseInt(properties.getProperty(key, String.valueOf(defaultValue)));
-        } catch (NumberFormatException e) {
-            logger.warn("Invalid integer value for property {}, using default: {}", key, defaultValue);
-            return defaultValue;
-        }
+    /**
+     * Whether the configuration file is watched and changes are applied to the running consumers.
+     */
+    public boolean isConfigReloadEnabled() {
+        return configReloadEnabled;
     }
 
-    private long getLongProperty(String key, long defaultValue) {
-        try {
-            return Long.parseLong(properties.getProperty(key, String.valueOf(defaultValue)));
-        } catch (NumberFormatException e) {
-            logger.warn("Invalid long value for property {}, using default: {}", key, defaultValue);
-            return defaultValue;
+    /**
+     * Port of the Prometheus metrics endpoint, 0 to disable it. Metrics are always available over JMX.
+     */
+    public int getMetricsHttpPort() {
+        return metricsHttpPort;
+    }
+
+    /**
+     * Whether insert-to-enqueue and enqueue-to-consume latency histograms are recorded and reported.
+     */
+    public boolean isLatencyTrackingEnabled() {
+        return latencyTrackingEnabled;
+    }
+
+    // Decoding Configuration
+    /**
+     * Whether messages are decoded into per-thread reusable event instances instead of a new
+     * event per message.
+     */
+    public boolean isDecodeReuseEventsEnabled() {
+        return decodeReuseEventsEnabled;
+    }
+
+    // Entity State View Configuration
+    /**
+     * Whether the latest state of every consumed entity is kept in memory.
+     */
+    public boolean isStateViewEnabled() {
+        return stateViewEnabled;
+    }
+
+    /**
+     * Number of entities per event type the state view is sized for before it has to grow.
+     */
+    public int getStateViewInitialCapacity() {
+        return stateViewInitialCapacity;
+    }
+
+    // Windowed Aggregation Configuration
+    /**
+     * Whether consumed events are counted in tumbling and sliding windows per event type and operation.
+     */
+    public boolean isAggregationEnabled() {
+        return aggregationEnabled;
+    }
+
+    public int getAggregationTumblingWindowSeconds() {
+        return aggregationTumblingWindowSeconds;
+    }
+
+    public int getAggregationSlidingWindowSeconds() {
+        return aggregationSlidingWindowSeconds;
+    }
+
+    /**
+     * How far the sliding window advances at a time; a sliding window result is emitted per step.
+     */
+    public int getAggregationSlidingStepSeconds() {
+        return aggregationSlidingStepSeconds;
+    }
+
+    /**
+     * Number of most active entities reported per tumbling window.
+     */
+    public int getAggregationTopKeys() {
+        return aggregationTopKeys;
+    }
+
+    // JDBC Sink Configuration
+    /**
+     * Whether consumed events are written to the sink tables in the dequeue transaction.
+     */
+    public boolean isSinkEnabled() {
+        return sinkEnabled;
+    }
+
+    public String getSinkActionTable() {
+        return sinkActionTable;
+    }
+
+    public String getSinkPaymentTable() {
+        return sinkPaymentTable;
+    }
+
+    public String getSinkStatementTable() {
+        return sinkStatementTable;
+    }
+
+    /**
+     * Largest number of sink rows sent to the database in one batch execution.
+     */
+    public int getSinkMaxRowsPerExecute() {
+        return sinkMaxRowsPerExecute;
+    }
+
+    // Deduplication Configuration
+    /**
+     * Whether messages redelivered after a rollback are recognised and skipped.
+     */
+    public boolean isDedupEnabled() {
+        return dedupEnabled;
+    }
+
+    /**
+     * Memory ceiling of the deduplication cache; more memory remembers more recent messages.
+     */
+    public int getDedupMemoryLimitMb() {
+        return dedupMemoryLimitMb;
+    }
+
+    public boolean isDedupBloomFilterEnabled() {
+        return dedupBloomFilterEnabled;
+    }
+
+    // Audit Output Configuration
+    /**
+     * Format of the per-event audit trail: verbose (multi-line blocks), compact (one line) or none.
+     */
+    public String getAuditFormat() {
+        return auditFormat;
+    }
+
+    /**
+     * Write one audit record out of every n.
+     */
+    public int getAuditSampleRate() {
+        return auditSampleRate;
+    }
+
+    public boolean isAuditAsyncEnabled() {
+        return auditAsyncEnabled;
+    }
+
+    public int getAuditAsyncBufferSize() {
+        return auditAsyncBufferSize;
+    }
+
+    public int getAuditAsyncBatchSize() {
+        return auditAsyncBatchSize;
+    }
+
+    /**
+     * Parses property values, recording every invalid one and using its default instead.
+     */
+    private static final class Values {
+
+        private final Properties properties;
+        private final List<String> problems = new ArrayList<>();
+
+        Values(Properties properties) {
+            this.properties = properties;
+        }
+
+        String getString(String key, String defaultValue) {
+            return properties.getProperty(key, defaultValue);
+        }
+
+        int getInt(String key, int defaultValue) {
+            String value = properties.getProperty(key);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                problems.add(String.format("Invalid integer value '%s' for property %s, using default: %d", value, key, defaultValue));
+                return defaultValue;
+            }
+        }
+
+        long getLong(String key, long defaultValue) {
+            String value = properties.getProperty(key);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                problems.add(String.format("Invalid long value '%s' for property %s, using default: %d", value, key, defaultValue));
+                return defaultValue;
+            }
+        }
+
+        boolean getBoolean(String key, boolean defaultValue) {
+            String value = properties.getProperty(key);
+            if (value == null) {
+                return defaultValue;
+            }
+            String trimmed = value.trim();
+            if (!trimmed.equalsIgnoreCase("true") && !trimmed.equalsIgnoreCase("false")) {
+                problems.add(String.format("Invalid boolean value '%s' for property %s, using default: %b", value, key, defaultValue));
+                return defaultValue;
+            }
+            return Boolean.parseBoolean(trimmed);
+        }
+
+        ConsumerMode getMode(String key, ConsumerMode defaultValue) {
+            String value = properties.getProperty(key);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return ConsumerMode.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                problems.add(String.format("Invalid value '%s' for property %s, using default: %s",
+                        value, key, defaultValue.name().toLowerCase()));
+                return defaultValue;
+            }
         }
     }
 
@@ -130,12 +858,44 @@ public class ConsumerConfig {
     public void logConfiguration() {
         logger.info("=== Consumer Configuration ===");
         logger.info("Consumer Threads: {}", getConsumerThreads());
+        logger.info("Consumer Mode: {}", getConsumerMode());
+        logger.info("Virtual Threads: {}", isVirtualThreadsEnabled());
         logger.info("Receive Timeout (ms): {}", getReceiveTimeoutMs());
-        logger.info("Action Queue: {} -> Subscriber: {}", getActionQueue(), getActionSubscriber());
-        logger.info("Payment Queue: {} -> Subscriber: {}", getPaymentQueue(), getPaymentSubscriber());
-        logger.info("Statement Queue: {} -> Subscriber: {}", getStatementQueue(), getStatementSubscriber());
+        logger.info("Adaptive Receive: {} ({}-{} ms)",
+                isAdaptiveReceiveEnabled(), getAdaptiveMinTimeoutMs(), getAdaptiveMaxTimeoutMs());
+        logger.info("Batch Max Messages: {}", getBatchMaxMessages());
+        logger.info("Batch Max Linger (ms): {}", getBatchMaxLingerMs());
+        logger.info("Pipeline: {} ({} workers, buffer size {})",
+                isPipelineEnabled(), getPipelineWorkers(), getPipelineBufferSize());
+        logger.info("Action Queue: {} -> Subscriber: {} ({} sessions)",
+                getActionQueue(), getActionSubscriber(), getActionSessions());
+        logger.info("Payment Queue: {} -> Subscriber: {} ({} sessions)",
+                getPaymentQueue(), getPaymentSubscriber(), getPaymentSessions());
+        logger.info("Statement Queue: {} -> Subscriber: {} ({} sessions)",
+                getStatementQueue(), getStatementSubscriber(), getStatementSessions());
+        logger.info("Autoscaling: {} ({} to {} sessions per subscriber every {}s, scale up above {} / down below {} messages per session)",
+                isAutoscaleEnabled(), getAutoscaleMinSessions(), getAutoscaleMaxSessions(), getAutoscaleIntervalSeconds(),
+                getAutoscaleScaleUpBacklog(), getAutoscaleScaleDownBacklog());
         logger.info("Retry Delay (seconds): {}", getRetryDelaySeconds());
+        logger.info("Failed Message Retries: {} (backoff {}s to {}s), Max Delivery Count: {}",
+                getRetryMaxAttempts(), getRetryInitialBackoffSeconds(), getRetryMaxBackoffSeconds(), getMaxDeliveryCount());
+        logger.info("Exception Topic: {}", getExceptionTopic().isEmpty() ? "(none, unprocessable messages are dropped)" : getExceptionTopic());
         logger.info("Shutdown Timeout (seconds): {}", getShutdownTimeoutSeconds());
+        logger.info("Report Interval (seconds): {}", getReportIntervalSeconds());
+        logger.info("Config Hot Reload: {}", isConfigReloadEnabled());
+        logger.info("Metrics HTTP Port: {}", getMetricsHttpPort() > 0 ? getMetricsHttpPort() : "disabled");
+        logger.info("Latency Tracking: {}", isLatencyTrackingEnabled());
+        logger.info("Reuse Decoded Events: {}", isDecodeReuseEventsEnabled());
+        logger.info("Entity State View: {} (initial capacity {})", isStateViewEnabled(), getStateViewInitialCapacity());
+        logger.info("Windowed Aggregation: {} (tumbling {}s, sliding {}s every {}s, top {} keys)",
+                isAggregationEnabled(), getAggregationTumblingWindowSeconds(), getAggregationSlidingWindowSeconds(),
+                getAggregationSlidingStepSeconds(), getAggregationTopKeys());
+        logger.info("JDBC Sink: {} (tables {}, {}, {})", isSinkEnabled(),
+                getSinkActionTable(), getSinkPaymentTable(), getSinkStatementTable());
+        logger.info("Deduplication: {} ({} MB, Bloom filter: {})",
+                isDedupEnabled(), getDedupMemoryLimitMb(), isDedupBloomFilterEnabled());
+        logger.info("Audit Output: {} (sample 1/{}, async: {})",
+                getAuditFormat(), getAuditSampleRate(), isAuditAsyncEnabled());
         logger.info("===============================");
     }
 }
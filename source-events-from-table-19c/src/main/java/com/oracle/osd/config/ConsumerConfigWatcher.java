@@ -0,0 +1,149 @@
+package com.oracle.osd.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Watches the configuration file and publishes a new {@link ConsumerConfig} snapshot whenever
+ * a live key changes. The published snapshot only takes the live keys from the file and keeps the
+ * startup values of all others, see {@link ConsumerConfig#withLiveValues(ConsumerConfig)}; changes
+ * to the other keys are logged as waiting for a restart. The current snapshot is swapped
+ * atomically, so readers always see one consistent configuration; listeners are then called with
+ * the previous and the new snapshot on the watcher thread. A file that cannot be read, e.g. halfway
+ * through being rewritten, or that holds an invalid value leaves the current snapshot in place
+ * until the next change.
+ */
+public class ConsumerConfigWatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsumerConfigWatcher.class);
+    /** Editors often write a file in several steps; changes are applied once it has been quiet this long. */
+    private static final long SETTLE_MILLIS = 250;
+
+    private final Path file;
+    private final AtomicReference<ConsumerConfig> current;
+    private final List<BiConsumer<ConsumerConfig, ConsumerConfig>> listeners = new CopyOnWriteArrayList<>();
+    private WatchService watchService;
+    private Thread thread;
+
+    public ConsumerConfigWatcher(Path file, ConsumerConfig initial) {
+        this.file = file.toAbsolutePath();
+        this.current = new AtomicReference<>(initial);
+    }
+
+    /**
+     * Registers a listener called with the previous and the new snapshot after every change.
+     */
+    public void addListener(BiConsumer<ConsumerConfig, ConsumerConfig> listener) {
+        listeners.add(listener);
+    }
+
+    public ConsumerConfig getCurrent() {
+        return current.get();
+    }
+
+    /**
+     * Starts watching the file's directory on a daemon thread.
+     *
+     * @throws IOException if the directory cannot be watched
+     */
+    public void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+        thread = new Thread(this::watch, "config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Watching {} for configuration changes", file);
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean changed = concernsFile(key);
+                // Collapse the burst of events of a single save into one reload
+                while ((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= concernsFile(key);
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    private boolean concernsFile(WatchKey key) {
+        boolean concerns = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path changed && file.getFileName().equals(changed)) {
+                concerns = true;
+            }
+        }
+        key.reset();
+        return concerns;
+    }
+
+    /**
+     * Loads and validates the file and publishes a new snapshot if any live value changed.
+     */
+    public void reload() {
+        ConsumerConfig reloaded;
+        try {
+            reloaded = ConsumerConfig.load(file);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Failed to reload configuration from {}, keeping the current one: {}", file, e.getMessage());
+            return;
+        }
+        ConsumerConfig previous = current.get();
+        List<String> restartKeys = previous.changedKeys(reloaded).stream()
+                .filter(key -> !ConsumerConfig.isLiveReloadable(key)).toList();
+        if (!restartKeys.isEmpty()) {
+            logger.warn("Changes to {} take effect after a restart", restartKeys);
+        }
+        ConsumerConfig next = previous.withLiveValues(reloaded);
+        Set<String> changedKeys = previous.changedKeys(next);
+        if (changedKeys.isEmpty()) {
+            return;
+        }
+        current.set(next);
+        logger.info("Configuration reloaded from {}, changed: {}", file, changedKeys);
+        for (BiConsumer<ConsumerConfig, ConsumerConfig> listener : listeners) {
+            try {
+                listener.accept(previous, next);
+            } catch (RuntimeException e) {
+                logger.error("Failed to apply reloaded configuration", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close config watch service: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.oracle.osd.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Configuration for the load generator that inserts rows into the source tables.
+ * Loads configuration from properties file and provides typed access to configuration values.
+ */
+public class GeneratorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeneratorConfig.class);
+    private static final String CONFIG_FILE = "generator.properties";
+
+    private final Properties properties;
+
+    public GeneratorConfig() {
+        this.properties = loadProperties();
+    }
+
+    private Properties loadProperties() {
+        Properties props = new Properties();
+
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+            if (inputStream == null) {
+                logger.warn("Configuration file {} not found, using default values", CONFIG_FILE);
+                return props;
+            }
+
+            props.load(inputStream);
+            logger.info("Loaded configuration from {}", CONFIG_FILE);
+
+        } catch (IOException e) {
+            logger.error("Failed to load configuration file {}, using defaults", CONFIG_FILE, e);
+        }
+
+        return props;
+    }
+
+    /**
+     * Tables loaded when none are given on the command line, see {@code TableSpec.forName}.
+     */
+    public List<String> getTables() {
+        return Arrays.stream(properties.getProperty("generator.tables", "actions,payments,statements,transactions").split(","))
+                .map(String::trim)
+                .filter(table -> !table.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Rows per table when no count is given on the command line.
+     */
+    public long getRowsPerTable() {
+        return getLongProperty("generator.rows.per.table", 200);
+    }
+
+    /**
+     * Rows added to a JDBC batch before it is executed and committed.
+     */
+    public int getBatchSize() {
+        return Math.max(1, getIntProperty("generator.batch.size", 5000));
+    }
+
+    /**
+     * Rows executed before a commit, rounded up to whole batches; 0 commits after every batch.
+     */
+    public int getCommitInterval() {
+        return Math.max(0, getIntProperty("generator.commit.interval", 0));
+    }
+
+    /**
+     * Whether the batch size is searched for at runtime, starting from {@link #getBatchSize()}.
+     */
+    public boolean isAdaptiveBatchSize() {
+        return Boolean.parseBoolean(properties.getProperty("generator.batch.adaptive.enabled", "false").trim());
+    }
+
+    public int getAdaptiveMinBatchSize() {
+        return Math.max(1, getIntProperty("generator.batch.adaptive.min.size", 100));
+    }
+
+    public int getAdaptiveMaxBatchSize() {
+        return Math.max(1, getIntProperty("generator.batch.adaptive.max.size", 50_000));
+    }
+
+    /**
+     * Rows added to the batch size after a batch executed within the latency bound.
+     */
+    public int getAdaptiveStep() {
+        return Math.max(1, getIntProperty("generator.batch.adaptive.step", 500));
+    }
+
+    /**
+     * Longest acceptable {@code executeBatch} call; slower batches halve the batch size.
+     */
+    public long getAdaptiveLatencyBoundMillis() {
+        return Math.max(1, getLongProperty("generator.batch.adaptive.latency.bound.millis", 500));
+    }
+
+    /**
+     * Entity IDs are drawn from 0 (inclusive) to this value (exclusive), e.g. ACT-0 to ACT-999999.
+     */
+    public int getKeySpace() {
+        return Math.max(1, getIntProperty("generator.key.space", 1_000_000));
+    }
+
+    /**
+     * Concurrent workers per table. Each worker inserts its share of the rows over its own pooled
+     * connection, drawing IDs from a disjoint slice of the key space.
+     */
+    public int getWorkersPerTable() {
+        return Math.max(1, getIntProperty("generator.workers.per.table", 1));
+    }
+
+    /**
+     * Seconds between progress reports while loading, 0 to only report when the load finishes.
+     */
+    public int getProgressIntervalSeconds() {
+        return Math.max(0, getIntProperty("generator.progress.interval.seconds", 10));
+    }
+
+    /**
+     * Share of the rows that update an existing row instead of inserting one, between 0 and 1.
+     */
+    public double getUpdateRatio() {
+        return Math.clamp(getDoubleProperty("generator.update.ratio", 0), 0, 1);
+    }
+
+    /**
+     * Distribution of the entity IDs: uniform, zipfian or hotspot.
+     */
+    public String getKeyDistribution() {
+        return properties.getProperty("generator.key.distribution", "uniform").trim();
+    }
+
+    /**
+     * Skew of the zipfian distribution; the k-th hottest ID is drawn with a probability proportional to 1 / k^exponent.
+     */
+    public double getZipfianExponent() {
+        return Math.max(0.01, getDoubleProperty("generator.key.zipfian.exponent", 0.99));
+    }
+
+    /**
+     * Share of the IDs that are hot in the hotspot distribution.
+     */
+    public double getHotspotKeyFraction() {
+        return Math.clamp(getDoubleProperty("generator.key.hotspot.key.fraction", 0.01), 0, 1);
+    }
+
+    /**
+     * Share of the draws that pick a hot ID in the hotspot distribution.
+     */
+    public double getHotspotAccessFraction() {
+        return Math.clamp(getDoubleProperty("generator.key.hotspot.access.fraction", 0.9), 0, 1);
+    }
+
+    /**
+     * Target rows per second per table for the rate-controlled mode; 0 inserts as fast as possible.
+     */
+    public double getTargetRowsPerSecond() {
+        return Math.max(0, getDoubleProperty("generator.rate.rows.per.second", 0));
+    }
+
+    public boolean isRateControlled() {
+        return getTargetRowsPerSecond() > 0;
+    }
+
+    /**
+     * Seconds the rate-controlled mode keeps inserting, including the ramp-up.
+     */
+    public long getRateDurationSeconds() {
+        return Math.max(1, getLongProperty("generator.rate.duration.seconds", 60));
+    }
+
+    /**
+     * Number of equal steps to reach the target rate; 1 starts at the target rate.
+     */
+    public int getRateRampSteps() {
+        return Math.max(1, getIntProperty("generator.rate.ramp.steps", 1));
+    }
+
+    public long getRateRampStepSeconds() {
+        return Math.max(1, getLongProperty("generator.rate.ramp.step.seconds", 10));
+    }
+
+    private int getIntProperty(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid integer value for property {}, using default: {}", key, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private double getDoubleProperty(String key, double defaultValue) {
+        try {
+            return Double.parseDouble(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid number for property {}, using default: {}", key, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private long getLongProperty(String key, long defaultValue) {
+        try {
+            return Long.parseLong(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid long value for property {}, using default: {}", key, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Logs the current configuration values for debugging purposes.
+     */
+    public void logConfiguration() {
+        logger.info("=== Load Generator Configuration ===");
+        logger.info("Tables: {}", getTables());
+        logger.info("Rows Per Table: {}", getRowsPerTable());
+        logger.info("Batch Size: {}", getBatchSize());
+        logger.info("Commit Interval: {}", getCommitInterval() > 0 ? getCommitInterval() + " rows" : "every batch");
+        if (isAdaptiveBatchSize()) {
+            logger.info("Adaptive Batch Size (min/max/step): {}/{}/{}, latency bound {} ms", getAdaptiveMinBatchSize(),
+                    getAdaptiveMaxBatchSize(), getAdaptiveStep(), getAdaptiveLatencyBoundMillis());
+        }
+        logger.info("Key Space: {}", getKeySpace());
+        logger.info("Key Distribution: {}", getKeyDistribution());
+        logger.info("Update Ratio: {}", getUpdateRatio());
+        if (isRateControlled()) {
+            logger.info("Target Rate: {} rows/sec per table for {} seconds, ramp-up in {} steps of {} seconds",
+                    getTargetRowsPerSecond(), getRateDurationSeconds(), getRateRampSteps(), getRateRampStepSeconds());
+        }
+        logger.info("Workers Per Table: {}", getWorkersPerTable());
+        logger.info("Progress Interval (seconds): {}", getProgressIntervalSeconds());
+        logger.info("====================================");
+    }
+}
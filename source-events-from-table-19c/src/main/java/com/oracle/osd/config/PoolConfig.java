@@ -0,0 +1,101 @@
+package com.oracle.osd.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Configuration for the shared database connection pool.
+ * Loads configuration from properties file and provides typed access to configuration values.
+ */
+public class PoolConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(PoolConfig.class);
+    private static final String CONFIG_FILE = "database-pool.properties";
+
+    private final Properties properties;
+
+    public PoolConfig() {
+        this.properties = loadProperties();
+    }
+
+    private Properties loadProperties() {
+        Properties props = new Properties();
+
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+            if (inputStream == null) {
+                logger.warn("Configuration file {} not found, using default values", CONFIG_FILE);
+                return props;
+            }
+
+            props.load(inputStream);
+            logger.info("Loaded configuration from {}", CONFIG_FILE);
+
+        } catch (IOException e) {
+            logger.error("Failed to load configuration file {}, using defaults", CONFIG_FILE, e);
+        }
+
+        return props;
+    }
+
+    // Pool Sizing
+    public int getInitialPoolSize() {
+        return getIntProperty("pool.initial.size", 4);
+    }
+
+    public int getMinPoolSize() {
+        return getIntProperty("pool.min.size", 4);
+    }
+
+    public int getMaxPoolSize() {
+        return getIntProperty("pool.max.size", 32);
+    }
+
+    // Timeouts
+    public int getConnectionWaitTimeoutSeconds() {
+        return getIntProperty("pool.connection.wait.timeout.seconds", 30);
+    }
+
+    public int getInactiveConnectionTimeoutSeconds() {
+        return getIntProperty("pool.inactive.timeout.seconds", 300);
+    }
+
+    // Statement Caching
+    public int getMaxStatements() {
+        return getIntProperty("pool.max.statements", 50);
+    }
+
+    // Connection Validation
+    public boolean isValidateOnBorrow() {
+        return Boolean.parseBoolean(properties.getProperty("pool.validate.on.borrow", "true").trim());
+    }
+
+    public String getValidationSql() {
+        return properties.getProperty("pool.validation.sql", "SELECT 1 FROM DUAL");
+    }
+
+    private int getIntProperty(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid integer value for property {}, using default: {}", key, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Logs the current configuration values for debugging purposes.
+     */
+    public void logConfiguration() {
+        logger.info("=== Connection Pool Configuration ===");
+        logger.info("Pool Size (initial/min/max): {}/{}/{}", getInitialPoolSize(), getMinPoolSize(), getMaxPoolSize());
+        logger.info("Connection Wait Timeout (seconds): {}", getConnectionWaitTimeoutSeconds());
+        logger.info("Inactive Connection Timeout (seconds): {}", getInactiveConnectionTimeoutSeconds());
+        logger.info("Statement Cache Size: {}", getMaxStatements());
+        logger.info("Validate On Borrow: {} ({})", isValidateOnBorrow(), getValidationSql());
+        logger.info("=====================================");
+    }
+}
@@ -0,0 +1,78 @@
+package com.oracle.osd.consumers;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+
+/**
+ * Chooses how a consumer session waits for the first message of each batch.
+ * <ul>
+ *   <li>After a full batch the subscriber is assumed to have a backlog and is drained with
+ *   {@code receiveNoWait()}, avoiding any timeout handling.</li>
+ *   <li>After a message arrives the wait timeout drops back to the minimum.</li>
+ *   <li>Every empty wait doubles the timeout up to the ceiling, so quiet topics cost fewer round trips.</li>
+ * </ul>
+ * With adaptation disabled the poller always waits for the fixed receive timeout.
+ * Instances are owned by a single session and are not thread-safe.
+ */
+public class AdaptivePoller {
+
+    private final ConsumerStats stats;
+    private final boolean adaptive;
+    private final long minTimeoutMs;
+    private final long maxTimeoutMs;
+
+    private long currentTimeoutMs;
+    private boolean draining;
+
+    public AdaptivePoller(ConsumerStats stats, boolean adaptive, long minTimeoutMs, long maxTimeoutMs) {
+        this.stats = stats;
+        this.adaptive = adaptive;
+        this.minTimeoutMs = Math.max(1L, minTimeoutMs);
+        this.maxTimeoutMs = Math.max(this.minTimeoutMs, maxTimeoutMs);
+        this.currentTimeoutMs = adaptive ? this.minTimeoutMs : this.maxTimeoutMs;
+    }
+
+    /**
+     * Receives the first message of a batch.
+     *
+     * @return The message, or {@code null} if none arrived
+     */
+    public Message poll(MessageConsumer consumer) throws JMSException {
+        if (draining) {
+            Message message = consumer.receiveNoWait();
+            if (message != null) {
+                stats.recordFullPoll(true);
+                return message;
+            }
+            stats.recordEmptyPoll();
+            draining = false;
+        }
+
+        Message message = consumer.receive(currentTimeoutMs);
+        if (message != null) {
+            stats.recordFullPoll(false);
+            if (adaptive) {
+                currentTimeoutMs = minTimeoutMs;
+            }
+            return message;
+        }
+
+        stats.recordEmptyPoll();
+        if (adaptive) {
+            currentTimeoutMs = Math.min(maxTimeoutMs, currentTimeoutMs * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Informs the poller how the last batch filled, switching to drain mode after a full batch.
+     */
+    public void onBatchReceived(int received, int maxMessages) {
+        draining = adaptive && received >= maxMessages;
+    }
+
+    public long getCurrentTimeoutMs() {
+        return currentTimeoutMs;
+    }
+}
@@ -0,0 +1,73 @@
+package com.oracle.osd.consumers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads the backlog of every subscriber of the user's sharded queues, i.e. the messages enqueued
+ * for it but not yet dequeued, summed over all instances. Uses the same query as
+ * {@code analysis-scripts/subscriber-analysis.sql}, which needs SELECT privilege on
+ * {@code gv$aq_sharded_subscriber_stat}.
+ */
+public class BacklogMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BacklogMonitor.class);
+
+    private static final String BACKLOG_QUERY = """
+            SELECT dbqs.QUEUE_NAME,
+                   dbqs.CONSUMER_NAME,
+                   (gvsss.enqueued_msgs - gvsss.dequeued_msgs) backlog
+            from (select QUEUE_NAME, CONSUMER_NAME, SUBSCRIBER_ID
+                  from user_queue_subscribers) dbqs,
+                 (select NAME, QID from user_queues) dbq,
+                 (select QUEUE_ID,
+                         SUBSCRIBER_ID,
+                         sum(ENQUEUED_MSGS) enqueued_msgs,
+                         sum(DEQUEUED_MSGS) dequeued_msgs
+                  from gv$aq_sharded_subscriber_stat
+                  group by QUEUE_ID, SUBSCRIBER_ID) gvsss
+            where dbqs.QUEUE_NAME = dbq.NAME
+              and dbq.QID = gvsss.QUEUE_ID
+              and dbqs.SUBSCRIBER_ID = gvsss.SUBSCRIBER_ID""";
+
+    private final DataSource dataSource;
+
+    public BacklogMonitor(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Queries the current backlog of all subscribers on a connection borrowed for the duration of the query.
+     *
+     * @return The backlog per {@link #key(String, String)} of queue and subscriber
+     * @throws SQLException if the query fails, e.g. for lack of privileges on the gv$ view
+     */
+    public Map<String, Long> readBacklogs() throws SQLException {
+        Map<String, Long> backlogs = new HashMap<>();
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pstmt = con.prepareStatement(BACKLOG_QUERY);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                backlogs.put(key(rs.getString(1), rs.getString(2)), Math.max(0, rs.getLong(3)));
+            }
+        }
+        logger.debug("Subscriber backlogs: {}", backlogs);
+        return backlogs;
+    }
+
+    /**
+     * Dictionary names are upper case unless quoted, so keys are compared upper case.
+     */
+    public static String key(String queueName, String subscriberName) {
+        return queueName.toUpperCase(Locale.ROOT) + "/" + subscriberName.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,115 @@
+package com.oracle.osd.consumers;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks which messages of a transaction have been processed by pipeline workers.
+ * The watermark is the length of the contiguous prefix of processed messages; the owning
+ * session only commits once it covers every message received in the transaction.
+ * <p>
+ * A session creates a new instance for every batch, so a worker still holding a task of an
+ * earlier, rolled back batch can never mark a message of the current one.
+ */
+public class CommitWatermark {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition progressed = lock.newCondition();
+
+    private final boolean[] processed;
+    private final int size;
+    private int completed;
+    private int watermark;
+    private Throwable failure;
+
+    /**
+     * Starts tracking a batch of {@code batchSize} messages.
+     */
+    public CommitWatermark(int batchSize) {
+        this.processed = new boolean[batchSize];
+        this.size = batchSize;
+    }
+
+    public void markProcessed(int index) {
+        lock.lock();
+        try {
+            processed[index] = true;
+            completed++;
+            while (watermark < size && processed[watermark]) {
+                watermark++;
+            }
+            progressed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void markFailed(int index, Throwable cause) {
+        lock.lock();
+        try {
+            if (failure == null) {
+                failure = cause;
+            }
+            completed++;
+            progressed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks the messages from {@code fromIndex} on as failed without processing them, for a batch
+     * abandoned before they were dispatched, so {@link #awaitCompletion()} only waits for the
+     * messages already handed to the workers.
+     */
+    public void abandon(int fromIndex, Throwable cause) {
+        lock.lock();
+        try {
+            if (failure == null) {
+                failure = cause;
+            }
+            completed += Math.max(0, size - fromIndex);
+            progressed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every message of the batch has either been processed or failed.
+     *
+     * @return The contiguous processed watermark
+     */
+    public int awaitCompletion() throws InterruptedException {
+        lock.lock();
+        try {
+            while (completed < size) {
+                progressed.await();
+            }
+            return watermark;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWatermark() {
+        lock.lock();
+        try {
+            return watermark;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The first processing failure of the batch, or {@code null} if none occurred
+     */
+    public Throwable getFailure() {
+        lock.lock();
+        try {
+            return failure;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
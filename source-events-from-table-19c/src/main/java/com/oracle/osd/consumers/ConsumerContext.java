@@ -0,0 +1,78 @@
+package com.oracle.osd.consumers;
+
+import com.oracle.osd.audit.AuditOutput;
+import com.oracle.osd.config.ConsumerConfig;
+import com.oracle.osd.processors.MessageHandler;
+
+/**
+ * Collaborators shared by every consumer session of the application.
+ */
+public class ConsumerContext {
+
+    private volatile ConsumerConfig config;
+    private final MessageHandler messageHandler;
+    private final ConsumerStats stats;
+    private final ProcessingPipeline pipeline;
+    private final LatencyRecorder latencyRecorder;
+    private final AuditOutput auditOutput;
+    private final DeduplicationCache deduplicationCache;
+
+    public ConsumerContext(ConsumerConfig config, MessageHandler messageHandler, ConsumerStats stats,
+                           ProcessingPipeline pipeline, LatencyRecorder latencyRecorder, AuditOutput auditOutput,
+                           DeduplicationCache deduplicationCache) {
+        this.config = config;
+        this.deduplicationCache = deduplicationCache;
+        this.auditOutput = auditOutput;
+        this.messageHandler = messageHandler;
+        this.stats = stats;
+        this.pipeline = pipeline;
+        this.latencyRecorder = latencyRecorder;
+    }
+
+    /**
+     * @return The current configuration snapshot
+     */
+    public ConsumerConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Publishes a new configuration snapshot; sessions pick it up at their next batch.
+     */
+    public void updateConfig(ConsumerConfig config) {
+        this.config = config;
+    }
+
+    public MessageHandler getMessageHandler() {
+        return messageHandler;
+    }
+
+    public ConsumerStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @return The shared processing pipeline, or {@code null} when messages are processed on the receiving thread
+     */
+    public ProcessingPipeline getPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * @return The end-to-end latency recorder, or {@code null} when latency tracking is disabled
+     */
+    public LatencyRecorder getLatencyRecorder() {
+        return latencyRecorder;
+    }
+
+    public AuditOutput getAuditOutput() {
+        return auditOutput;
+    }
+
+    /**
+     * @return The cache of already processed messages, or {@code null} when deduplication is disabled
+     */
+    public DeduplicationCache getDeduplicationCache() {
+        return deduplicationCache;
+    }
+}
@@ -0,0 +1,398 @@
+package com.oracle.osd.consumers;
+
+import com.oracle.osd.config.ConsumerConfig;
+import com.oracle.osd.processors.MessageHandler;
+import com.oracle.osd.processors.ProcessingOutcome;
+import com.oracle.osd.processors.SinkBatch;
+import com.oracle.osd.utils.DatabaseUtils;
+import jakarta.jms.JMSException;
+import jakarta.jms.Session;
+import jakarta.jms.Topic;
+import jakarta.jms.TopicConnection;
+import jakarta.jms.TopicSession;
+import oracle.jakarta.jms.AQjmsFactory;
+import oracle.jakarta.jms.AQjmsSession;
+import oracle.jakarta.jms.AQjmsTextMessage;
+import oracle.jakarta.jms.AQjmsTopicSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A single transacted JMS session consuming from one durable TxEventQ subscriber.
+ * Owns the connection lifecycle and the shared process/commit logic; subclasses decide
+ * how messages are obtained from the subscriber.
+ */
+public abstract class ConsumerSession implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsumerSession.class);
+
+    protected final ConsumerContext context;
+    /** The configuration snapshot the session currently works with, see {@link #refreshConfig()}. */
+    protected ConsumerConfig config;
+    protected final MessageHandler messageHandler;
+    protected final ConsumerStats stats;
+    protected final String queueName;
+    protected final String subscriberName;
+    protected final String eventType;
+    protected final int sessionNumber;
+
+    private final LatencyRecorder.SubscriberLatency latency;
+    private final DeduplicationCache deduplicationCache;
+    private final SinkBatch sinkBatch;
+    private FailedMessageHandler failedMessages;
+
+    protected volatile boolean running = true;
+
+    protected ConsumerSession(ConsumerContext context,
+                              String queueName, String subscriberName, String eventType, int sessionNumber) {
+        this.context = context;
+        this.config = context.getConfig();
+        this.messageHandler = context.getMessageHandler();
+        this.stats = context.getStats();
+        this.queueName = queueName;
+        this.subscriberName = subscriberName;
+        this.eventType = eventType;
+        this.sessionNumber = sessionNumber;
+        this.latency = context.getLatencyRecorder() != null
+                ? context.getLatencyRecorder().forSubscriber(eventType, subscriberName)
+                : null;
+        this.deduplicationCache = context.getDeduplicationCache();
+        this.sinkBatch = config.isSinkEnabled() ? new SinkBatch(config.getSinkMaxRowsPerExecute()) : null;
+    }
+
+    /**
+     * Creates a consumer session using the consumption mode selected in the configuration.
+     */
+    public static ConsumerSession create(ConsumerContext context,
+                                         String queueName, String subscriberName, String eventType, int sessionNumber) {
+        if (context.getConfig().getConsumerMode() == ConsumerConfig.ConsumerMode.LISTENER) {
+            return new ListenerConsumerSession(context, queueName, subscriberName, eventType, sessionNumber);
+        }
+        return new PollingConsumerSession(context, queueName, subscriberName, eventType, sessionNumber);
+    }
+
+    @Override
+    public void run() {
+        logger.info("Starting consumer session {} for queue: {}, subscriber: {}, type: {}",
+                sessionNumber, queueName, subscriberName, eventType);
+
+        try {
+            var dataSource = DatabaseUtils.getPooledDataSource();
+
+            try (TopicConnection conn = AQjmsFactory.getTopicConnectionFactory(dataSource).createTopicConnection()) {
+                // Create TRANSACTED session (like the working example)
+                TopicSession session = conn.createTopicSession(true, Session.AUTO_ACKNOWLEDGE);
+                Topic topic = ((AQjmsSession) session).getTopic(dataSource.getUser(), queueName);
+                conn.start();
+
+                // Create durable subscriber
+                AQjmsTopicSubscriber subscriber = (AQjmsTopicSubscriber) session.createDurableSubscriber(topic, subscriberName);
+                failedMessages = new FailedMessageHandler(config, stats, session, topic, dataSource.getUser(),
+                        queueName, subscriberName);
+
+                logger.info("Consumer session {} connected to queue: {} with subscriber: {}",
+                        sessionNumber, queueName, subscriberName);
+                logger.info("Starting to check for messages on {} with subscriber {}...", queueName, subscriberName);
+
+                consume(session, subscriber);
+
+            } catch (JMSException e) {
+                if (running) {
+                    logger.error("JMS connection error for queue: {}, subscriber: {}: {}", queueName, subscriberName, e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            if (running) {
+                logger.error("Unexpected error for queue: {}, subscriber: {}: {}", queueName, subscriberName, e.getMessage());
+            }
+        }
+
+        logger.info("Consumer session {} stopped for queue: {}, subscriber: {}", sessionNumber, queueName, subscriberName);
+    }
+
+    /**
+     * Consumes messages from the subscriber until {@link #stop()} is called.
+     */
+    protected abstract void consume(TopicSession session, AQjmsTopicSubscriber subscriber)
+            throws JMSException, InterruptedException;
+
+    /**
+     * Switches to the latest configuration snapshot published in the context. Listener sessions
+     * call it for every message, polling sessions before every batch.
+     *
+     * @return Whether the snapshot changed since the previous call
+     */
+    protected boolean refreshConfig() {
+        ConsumerConfig latest = context.getConfig();
+        if (latest == config) {
+            return false;
+        }
+        config = latest;
+        if (failedMessages != null) {
+            failedMessages.setMaxDeliveryCount(config.getMaxDeliveryCount());
+        }
+        return true;
+    }
+
+    /**
+     * Signals the session to stop consuming.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Processes every message of the batch and commits the dequeue of all of them at once.
+     * Without a processing pipeline the whole batch is handed to the event processor in one call.
+     * With a processing pipeline the messages are processed by the pipeline workers and the
+     * commit waits until the processed watermark covers the whole batch. Messages that could not
+     * be processed are scheduled for retry or parked in the same transaction, so they never hold
+     * back the rest of the batch. Rows buffered by sink processors are written on the JMS session's
+     * own database connection just before the commit, so they commit atomically with the dequeue.
+     */
+    protected void processAndCommit(TopicSession session, List<AQjmsTextMessage> batch)
+            throws JMSException, InterruptedException {
+        ProcessingPipeline pipeline = context.getPipeline();
+        ProcessingOutcome[] outcomes = pipeline == null
+                ? processAsBatch(batch)
+                : processInPipeline(pipeline, batch);
+        handleUnprocessed(batch, outcomes);
+        long commitStart = System.nanoTime();
+        flushSink(session);
+        session.commit();
+        stats.recordCommit(batch.size(), System.nanoTime() - commitStart);
+        logger.debug("Committed batch of {} messages from queue: {}, subscriber: {}",
+                batch.size(), queueName, subscriberName);
+    }
+
+    /**
+     * @return The outcome of each message of the batch; {@code null} for messages that were skipped
+     */
+    private ProcessingOutcome[] processAsBatch(List<AQjmsTextMessage> batch) throws JMSException {
+        ProcessingOutcome[] outcomes = new ProcessingOutcome[batch.size()];
+        long[] fingerprints = deduplicationCache != null ? new long[batch.size()] : null;
+        int[] positions = new int[batch.size()];
+        List<String> messageTexts = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            AQjmsTextMessage message = batch.get(i);
+            String messageText = Objects.requireNonNullElse(message.getText(), "");
+            if (shouldProcess(message, messageText, fingerprints, i)) {
+                recordConsumed(message, messageText);
+                positions[messageTexts.size()] = i;
+                messageTexts.add(messageText);
+            }
+        }
+        if (messageTexts.isEmpty()) {
+            return outcomes;
+        }
+
+        ProcessingOutcome[] processed;
+        bindSink();
+        try {
+            processed = messageHandler.processBatch(messageTexts, eventType, subscriberName);
+        } finally {
+            unbindSink();
+        }
+        for (int j = 0; j < processed.length; j++) {
+            int i = positions[j];
+            outcomes[i] = processed[j];
+            if (fingerprints != null && processed[j] == ProcessingOutcome.PROCESSED) {
+                deduplicationCache.markProcessed(fingerprints[i]);
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * @return The outcome of each message of the batch; {@code null} for messages that were skipped
+     */
+    private ProcessingOutcome[] processInPipeline(ProcessingPipeline pipeline, List<AQjmsTextMessage> batch)
+            throws JMSException, InterruptedException {
+        ProcessingOutcome[] outcomes = new ProcessingOutcome[batch.size()];
+        long[] fingerprints = deduplicationCache != null ? new long[batch.size()] : null;
+        CommitWatermark watermark = new CommitWatermark(batch.size());
+        int next = 0;
+        try {
+            for (; next < batch.size(); next++) {
+                AQjmsTextMessage message = batch.get(next);
+                String messageText = Objects.requireNonNullElse(message.getText(), "");
+                if (!shouldProcess(message, messageText, fingerprints, next)) {
+                    watermark.markProcessed(next);
+                    continue;
+                }
+                int index = next;
+                pipeline.dispatch(eventType, messageText, index, watermark,
+                        () -> outcomes[index] = processMessage(message, messageText, fingerprints, index));
+            }
+        } catch (JMSException | InterruptedException | RuntimeException e) {
+            // Let the dispatched messages finish before the batch is rolled back, so no worker
+            // processes a message of the rolled back transaction after its redelivery
+            watermark.abandon(next, e);
+            awaitDispatched(watermark);
+            throw e;
+        }
+
+        // The watermark's lock makes the workers' outcomes visible to this thread
+        int processedThrough = watermark.awaitCompletion();
+        if (processedThrough < batch.size()) {
+            Throwable failure = watermark.getFailure();
+            throw new JMSException(String.format("Pipeline processed %d of %d messages: %s",
+                    processedThrough, batch.size(), failure != null ? failure.getMessage() : "unknown failure"));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Waits for the workers to finish the messages of an abandoned batch, even if interrupted.
+     */
+    private static void awaitDispatched(CommitWatermark watermark) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                watermark.awaitCompletion();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ProcessingOutcome processMessage(AQjmsTextMessage message, String messageText,
+                                             long[] fingerprints, int index) throws JMSException {
+        recordConsumed(message, messageText);
+        ProcessingOutcome outcome;
+        bindSink();
+        try {
+            outcome = messageHandler.processMessage(messageText, eventType, subscriberName);
+        } finally {
+            unbindSink();
+        }
+        if (fingerprints != null && outcome == ProcessingOutcome.PROCESSED) {
+            deduplicationCache.markProcessed(fingerprints[index]);
+        }
+        return outcome;
+    }
+
+    /**
+     * Decides on the receiving thread whether a message is handed to processing. Empty messages
+     * and already processed redeliveries are skipped; messages redelivered too often are parked.
+     */
+    private boolean shouldProcess(AQjmsTextMessage message, String messageText, long[] fingerprints, int index)
+            throws JMSException {
+        if (messageText.isEmpty()) {
+            logger.warn("Received empty message from subscriber: {}", subscriberName);
+            return false;
+        }
+        if (failedMessages.isDeliveryCountExceeded(message)) {
+            failedMessages.park(message, messageText,
+                    "Delivered more than " + config.getMaxDeliveryCount() + " times");
+            return false;
+        }
+        if (fingerprints != null) {
+            fingerprints[index] = DeduplicationCache.fingerprint(eventType, message.getJMSMessageID(), messageText);
+            return !isAlreadyProcessed(fingerprints[index]);
+        }
+        return true;
+    }
+
+    /**
+     * Checks the deduplication cache for a message processed before its transaction was rolled back.
+     */
+    private boolean isAlreadyProcessed(long fingerprint) {
+        if (deduplicationCache.isDuplicate(fingerprint)) {
+            logger.debug("Skipping already processed {} message redelivered to subscriber {}", eventType, subscriberName);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parks messages that can never be processed and schedules a retry of the ones that failed.
+     */
+    private void handleUnprocessed(List<AQjmsTextMessage> batch, ProcessingOutcome[] outcomes) throws JMSException {
+        for (int i = 0; i < outcomes.length; i++) {
+            ProcessingOutcome outcome = outcomes[i];
+            if (outcome == null || outcome == ProcessingOutcome.PROCESSED) {
+                continue;
+            }
+            AQjmsTextMessage message = batch.get(i);
+            String messageText = Objects.requireNonNullElse(message.getText(), "");
+            if (outcome == ProcessingOutcome.REJECTED) {
+                failedMessages.park(message, messageText, "Invalid " + eventType + " event");
+            } else {
+                failedMessages.retry(message, messageText, "Processing of " + eventType + " event failed");
+            }
+        }
+    }
+
+    private void bindSink() {
+        if (sinkBatch != null) {
+            sinkBatch.bind();
+        }
+    }
+
+    private void unbindSink() {
+        if (sinkBatch != null) {
+            SinkBatch.unbind();
+        }
+    }
+
+    /**
+     * Writes the rows buffered by sink processors in the session's transaction.
+     */
+    private void flushSink(TopicSession session) throws JMSException {
+        if (sinkBatch == null || sinkBatch.isEmpty()) {
+            return;
+        }
+        try {
+            int rows = sinkBatch.flush(((AQjmsSession) session).getDBConnection());
+            logger.debug("Wrote {} sink rows for subscriber {}", rows, subscriberName);
+        } catch (SQLException e) {
+            JMSException jmsException = new JMSException("Failed to write sink rows: " + e.getMessage());
+            jmsException.setLinkedException(e);
+            throw jmsException;
+        }
+    }
+
+    /**
+     * Rolls back the current transaction so every message of the batch is redelivered.
+     */
+    protected void rollback(TopicSession session, int batchSize, Exception cause) {
+        logger.error("JMS error receiving message from queue: {}, subscriber: {}: {}",
+                queueName, subscriberName, cause.getMessage());
+        if (sinkBatch != null) {
+            sinkBatch.clear();
+        }
+        try {
+            session.rollback();
+            stats.recordRollback(batchSize);
+            logger.warn("Rolled back batch of {} messages from subscriber: {}", batchSize, subscriberName);
+        } catch (JMSException rollbackEx) {
+            logger.error("Failed to rollback transaction: {}", rollbackEx.getMessage());
+        }
+    }
+
+    /**
+     * Records the consume latency and the audit record of a received message.
+     */
+    private void recordConsumed(AQjmsTextMessage message, String messageText) throws JMSException {
+        String messageId = message.getJMSMessageID();
+        long timestamp = message.getJMSTimestamp();
+        long currentTimestamp = System.currentTimeMillis();
+
+        if (latency != null) {
+            latency.record(messageText, timestamp, currentTimestamp);
+        }
+
+        context.getAuditOutput().consumed(eventType, subscriberName, messageId, timestamp,
+                currentTimestamp, messageText);
+    }
+}
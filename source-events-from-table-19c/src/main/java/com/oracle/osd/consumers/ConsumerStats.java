@@ -0,0 +1,183 @@
+package com.oracle.osd.consumers;
+
+import com.oracle.osd.metrics.Histogram;
+import com.oracle.osd.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput and CPU counters shared by all consumer sessions of the application.
+ * Periodic reports make the polling and listener consumption modes directly comparable:
+ * run each mode against the same load (or an idle topic) and compare msgs/sec and CPU usage.
+ * The counters and the commit latency are also exposed through the {@link MetricsRegistry}.
+ */
+public class ConsumerStats {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsumerStats.class);
+
+    private final LongAdder messagesCommitted = new LongAdder();
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder messagesRolledBack = new LongAdder();
+    private final LongAdder emptyPolls = new LongAdder();
+    private final LongAdder fullPolls = new LongAdder();
+    private final LongAdder drainPolls = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder parked = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Histogram commitLatency;
+
+    private final com.sun.management.OperatingSystemMXBean osBean =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    private final int processors = Runtime.getRuntime().availableProcessors();
+
+    private long lastReportNanos = System.nanoTime();
+    private long lastCpuNanos = osBean.getProcessCpuTime();
+    private long lastMessages;
+    private long lastCommits;
+    private long lastEmptyPolls;
+    private long lastFullPolls;
+
+    public ConsumerStats() {
+        this(MetricsRegistry.global());
+    }
+
+    public ConsumerStats(MetricsRegistry registry) {
+        registry.functionCounter("consumer_messages_committed_total", "Messages dequeued and committed", messagesCommitted::sum);
+        registry.functionCounter("consumer_commits_total", "Dequeue transactions committed", commits::sum);
+        registry.functionCounter("consumer_messages_rolled_back_total", "Messages of rolled back transactions", messagesRolledBack::sum);
+        registry.functionCounter("consumer_polls_total", "Receive calls", fullPolls::sum, "result", "message");
+        registry.functionCounter("consumer_polls_total", "Receive calls", emptyPolls::sum, "result", "empty");
+        registry.functionCounter("consumer_retries_total", "Failed messages republished for a delayed retry", retries::sum);
+        registry.functionCounter("consumer_parked_total", "Messages moved to the exception topic", parked::sum);
+        registry.functionCounter("consumer_dropped_total", "Unprocessable messages dropped without an exception topic", dropped::sum);
+        this.commitLatency = registry.histogram("consumer_commit_seconds",
+                "Time to write buffered sink rows and commit the dequeue transaction");
+    }
+
+    /**
+     * @param messageCount The number of messages of the committed transaction
+     * @param commitNanos  The time the commit took, including writing the sink rows
+     */
+    public void recordCommit(int messageCount, long commitNanos) {
+        messagesCommitted.add(messageCount);
+        commits.increment();
+        commitLatency.recordNanos(commitNanos);
+    }
+
+    public void recordRollback(int messageCount) {
+        messagesRolledBack.add(messageCount);
+    }
+
+    /**
+     * Records a receive call that returned no message.
+     */
+    public void recordEmptyPoll() {
+        emptyPolls.increment();
+    }
+
+    /**
+     * Records a receive call that returned a message.
+     *
+     * @param noWait Whether the message was drained with {@code receiveNoWait()}
+     */
+    public void recordFullPoll(boolean noWait) {
+        fullPolls.increment();
+        if (noWait) {
+            drainPolls.increment();
+        }
+    }
+
+    /**
+     * Records a failed message republished for a delayed retry.
+     */
+    public void recordRetry() {
+        retries.increment();
+    }
+
+    /**
+     * Records a message moved to the exception topic.
+     */
+    public void recordParked() {
+        parked.increment();
+    }
+
+    /**
+     * Records an unprocessable message discarded because no exception topic is configured.
+     */
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    public long getMessagesCommitted() {
+        return messagesCommitted.sum();
+    }
+
+    public long getCommits() {
+        return commits.sum();
+    }
+
+    public long getMessagesRolledBack() {
+        return messagesRolledBack.sum();
+    }
+
+    public long getEmptyPolls() {
+        return emptyPolls.sum();
+    }
+
+    public long getFullPolls() {
+        return fullPolls.sum();
+    }
+
+    public long getDrainPolls() {
+        return drainPolls.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    public long getParked() {
+        return parked.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Logs throughput and process CPU usage accumulated since the previous report.
+     *
+     * @param mode The consumption mode, included so reports from different runs can be compared
+     */
+    public synchronized void logReport(String mode) {
+        long now = System.nanoTime();
+        long cpu = osBean.getProcessCpuTime();
+        long messages = getMessagesCommitted();
+        long commitCount = getCommits();
+        long empty = getEmptyPolls();
+        long full = getFullPolls();
+
+        double elapsedSeconds = (now - lastReportNanos) / 1_000_000_000.0;
+        if (elapsedSeconds <= 0) {
+            return;
+        }
+        double messagesPerSecond = (messages - lastMessages) / elapsedSeconds;
+        double cpuPercent = (cpu - lastCpuNanos) * 100.0 / (now - lastReportNanos) / processors;
+
+        logger.info("[{}] {} msgs/sec, {} commits, {} full / {} empty polls, process CPU {}% over {}s (total committed: {}, rolled back: {}, drained without wait: {}, retried: {}, parked: {}, dropped: {})",
+                mode, String.format("%.2f", messagesPerSecond), commitCount - lastCommits,
+                full - lastFullPolls, empty - lastEmptyPolls,
+                String.format("%.2f", cpuPercent), String.format("%.1f", elapsedSeconds),
+                messages, getMessagesRolledBack(), getDrainPolls(), getRetries(), getParked(), getDropped());
+
+        lastReportNanos = now;
+        lastCpuNanos = cpu;
+        lastMessages = messages;
+        lastCommits = commitCount;
+        lastEmptyPolls = empty;
+        lastFullPolls = full;
+    }
+}
@@ -0,0 +1,212 @@
+package com.oracle.osd.consumers;
+
+import com.oracle.osd.utils.JsonFieldScanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers which messages have already been processed, so messages redelivered after a rollback
+ * are skipped instead of being processed again.
+ * <p>
+ * Messages are identified by a 64-bit fingerprint of the JMS message ID, which is stable across
+ * redeliveries. Fingerprints are kept in primitive open-addressing tables split into two
+ * generations: once the current generation is full it becomes the previous one and the oldest
+ * generation is discarded, so memory stays within the configured limit while the most recent
+ * messages are always remembered. An optional Bloom filter per generation answers most lookups for
+ * new messages without probing the table. The cache is striped by fingerprint so sessions rarely
+ * contend.
+ */
+public class DeduplicationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeduplicationCache.class);
+
+    private static final int STRIPES = 16;
+    private static final int BLOOM_BITS_PER_ENTRY = 10;
+    private static final int BLOOM_HASHES = 7;
+
+    private final Stripe[] stripes;
+    private final int entriesPerGeneration;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rotations = new LongAdder();
+
+    /**
+     * @param memoryLimitBytes Upper bound of the memory held by all fingerprint tables and filters
+     * @param bloomFilter      Whether to check a Bloom filter before probing a generation's table
+     */
+    public DeduplicationCache(long memoryLimitBytes, boolean bloomFilter) {
+        // Each stripe holds two generations; a table slot is 8 bytes at a load factor of 1/2
+        long bytesPerGeneration = Math.max(1024, memoryLimitBytes / (STRIPES * 2L));
+        long bytesPerEntry = 16 + (bloomFilter ? BLOOM_BITS_PER_ENTRY / 8 + 1 : 0);
+        int tableCapacity = (int) Math.min(1 << 30, Long.highestOneBit(bytesPerGeneration / bytesPerEntry * 2));
+        this.entriesPerGeneration = tableCapacity / 2;
+
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(tableCapacity, bloomFilter ? entriesPerGeneration * BLOOM_BITS_PER_ENTRY : 0);
+        }
+        logger.info("Deduplication cache remembers the last {} to {} messages (Bloom filter: {})",
+                (long) entriesPerGeneration * STRIPES, (long) entriesPerGeneration * STRIPES * 2, bloomFilter);
+    }
+
+    /**
+     * Computes the identity of a message: its JMS message ID, which stays the same across
+     * redeliveries, qualified by the event type. Without a message ID the whole payload is hashed.
+     * The source row {@code Id} is deliberately not used: the INSERT and UPDATE events of a row
+     * share it, so every update would be skipped as a duplicate of the first event.
+     */
+    public static long fingerprint(String eventType, String messageId, String messageText) {
+        long hash = messageId != null && !messageId.isEmpty()
+                ? JsonFieldScanner.hash64(messageId, 0, messageId.length())
+                : JsonFieldScanner.hash64(messageText, 0, messageText.length());
+        hash ^= eventType.hashCode() * 0x9e3779b97f4a7c15L;
+        // FNV-1a leaves the high bits of similar IDs nearly equal, but they select the stripe
+        hash = JsonFieldScanner.mix64(hash);
+        // 0 marks an empty table slot
+        return hash != 0 ? hash : 1;
+    }
+
+    /**
+     * Checks whether a message with this fingerprint has already been processed, counting a hit or
+     * a miss.
+     */
+    public boolean isDuplicate(long fingerprint) {
+        boolean duplicate = stripe(fingerprint).contains(fingerprint);
+        (duplicate ? hits : misses).increment();
+        return duplicate;
+    }
+
+    /**
+     * Remembers that the message with this fingerprint has been processed.
+     */
+    public void markProcessed(long fingerprint) {
+        stripe(fingerprint).add(fingerprint);
+    }
+
+    private Stripe stripe(long fingerprint) {
+        return stripes[(int) (fingerprint >>> 60) & (STRIPES - 1)];
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public void logReport() {
+        logger.info("Deduplication: {} duplicates skipped, {} new messages, {} generations evicted",
+                getHits(), getMisses(), rotations.sum());
+    }
+
+    private final class Stripe {
+
+        private Generation current;
+        private Generation previous;
+
+        Stripe(int tableCapacity, int bloomBits) {
+            this.current = new Generation(tableCapacity, bloomBits);
+            this.previous = new Generation(tableCapacity, bloomBits);
+        }
+
+        synchronized boolean contains(long fingerprint) {
+            return current.contains(fingerprint) || previous.contains(fingerprint);
+        }
+
+        synchronized void add(long fingerprint) {
+            if (current.contains(fingerprint)) {
+                return;
+            }
+            if (current.size >= entriesPerGeneration) {
+                // Reuse the oldest generation's arrays for the new one
+                Generation evicted = previous;
+                evicted.clear();
+                previous = current;
+                current = evicted;
+                rotations.increment();
+            }
+            current.add(fingerprint);
+        }
+    }
+
+    private static final class Generation {
+
+        private final long[] table;
+        private final long[] bloom;
+        private final int bloomBits;
+        private int size;
+
+        Generation(int tableCapacity, int bloomBits) {
+            this.table = new long[tableCapacity];
+            this.bloomBits = bloomBits;
+            this.bloom = bloomBits > 0 ? new long[(bloomBits + 63) / 64] : null;
+        }
+
+        boolean contains(long fingerprint) {
+            if (size == 0 || (bloom != null && !bloomMightContain(fingerprint))) {
+                return false;
+            }
+            int mask = table.length - 1;
+            for (int i = slot(fingerprint, mask); ; i = (i + 1) & mask) {
+                long entry = table[i];
+                if (entry == fingerprint) {
+                    return true;
+                }
+                if (entry == 0) {
+                    return false;
+                }
+            }
+        }
+
+        void add(long fingerprint) {
+            int mask = table.length - 1;
+            int i = slot(fingerprint, mask);
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = fingerprint;
+            size++;
+            if (bloom != null) {
+                for (int k = 0; k < BLOOM_HASHES; k++) {
+                    int bit = bloomBit(fingerprint, k);
+                    bloom[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+
+        void clear() {
+            Arrays.fill(table, 0);
+            if (bloom != null) {
+                Arrays.fill(bloom, 0);
+            }
+            size = 0;
+        }
+
+        private boolean bloomMightContain(long fingerprint) {
+            for (int k = 0; k < BLOOM_HASHES; k++) {
+                int bit = bloomBit(fingerprint, k);
+                if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Double hashing: the k-th probe combines the fingerprint's two halves.
+         */
+        private int bloomBit(long fingerprint, int k) {
+            int h1 = (int) fingerprint;
+            int h2 = (int) (fingerprint >>> 32) | 1;
+            return Math.floorMod(h1 + k * h2, bloomBits);
+        }
+
+        private static int slot(long fingerprint, int mask) {
+            return (int) (fingerprint ^ (fingerprint >>> 29)) & mask;
+        }
+    }
+}
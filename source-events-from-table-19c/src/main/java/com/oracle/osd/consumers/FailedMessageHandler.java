@@ -0,0 +1,170 @@
+package com.oracle.osd.consumers;
+
+import com.oracle.osd.config.ConsumerConfig;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.TextMessage;
+import jakarta.jms.Topic;
+import jakarta.jms.TopicSession;
+import oracle.jakarta.jms.AQjmsAgent;
+import oracle.jakarta.jms.AQjmsSession;
+import oracle.jakarta.jms.AQjmsTopicPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deals with messages of a consumer session that could not be processed, without rolling back the
+ * transaction and blocking the healthy messages received with them.
+ * <p>
+ * A message whose processing failed is republished to the same topic for this subscriber only,
+ * with a delivery delay that grows with every attempt, and the original is committed with the
+ * rest of the batch. Messages that can never be processed, ran out of retries or kept being
+ * redelivered after rollbacks are parked on the exception topic. Both happen in the session's
+ * transaction, so the failed message is either moved or redelivered, never lost.
+ * Bound to a single JMS session and must only be used from the thread that owns it.
+ */
+public class FailedMessageHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(FailedMessageHandler.class);
+
+    /**
+     * Number of times the message has already been republished for retry.
+     */
+    static final String RETRY_ATTEMPT_PROPERTY = "RetryAttempt";
+    static final String ORIGINAL_MESSAGE_ID_PROPERTY = "OriginalMessageId";
+    /**
+     * Oracle AQ message property holding the delay in seconds before a message becomes visible.
+     */
+    private static final String DELAY_PROPERTY = "JMS_OracleDelay";
+    private static final String DELIVERY_COUNT_PROPERTY = "JMSXDeliveryCount";
+
+    private final TopicSession session;
+    private final Topic topic;
+    private final String queueName;
+    private final String subscriberName;
+    private final ConsumerStats stats;
+    private final int maxRetries;
+    private final int initialBackoffSeconds;
+    private final int maxBackoffSeconds;
+    private int maxDeliveryCount;
+
+    private final AQjmsAgent[] retryRecipients;
+    private AQjmsTopicPublisher retryPublisher;
+    private AQjmsTopicPublisher exceptionPublisher;
+    private Topic exceptionTopic;
+
+    public FailedMessageHandler(ConsumerConfig config, ConsumerStats stats, TopicSession session, Topic topic,
+                                String owner, String queueName, String subscriberName) throws JMSException {
+        this.session = session;
+        this.topic = topic;
+        this.queueName = queueName;
+        this.subscriberName = subscriberName;
+        this.stats = stats;
+        this.maxRetries = config.getRetryMaxAttempts();
+        this.initialBackoffSeconds = config.getRetryInitialBackoffSeconds();
+        this.maxBackoffSeconds = config.getRetryMaxBackoffSeconds();
+        this.maxDeliveryCount = config.getMaxDeliveryCount();
+        this.retryRecipients = new AQjmsAgent[]{createAgent(subscriberName)};
+
+        String exceptionTopicName = config.getExceptionTopic();
+        if (!exceptionTopicName.isEmpty()) {
+            this.exceptionTopic = ((AQjmsSession) session).getTopic(owner, exceptionTopicName);
+        }
+    }
+
+    /**
+     * Checks whether the message has been redelivered after rollbacks so often that it must not
+     * be processed again, e.g. because processing it takes down the whole transaction.
+     */
+    public boolean isDeliveryCountExceeded(Message message) throws JMSException {
+        return maxDeliveryCount > 0
+                && message.propertyExists(DELIVERY_COUNT_PROPERTY)
+                && message.getIntProperty(DELIVERY_COUNT_PROPERTY) > maxDeliveryCount;
+    }
+
+    /**
+     * Applies the maximum delivery count of a reloaded configuration.
+     */
+    public void setMaxDeliveryCount(int maxDeliveryCount) {
+        this.maxDeliveryCount = maxDeliveryCount;
+    }
+
+    /**
+     * Schedules a delayed retry of a message whose processing failed, or parks it once its
+     * retries are used up.
+     */
+    public void retry(Message message, String messageText, String reason) throws JMSException {
+        int attempt = message.propertyExists(RETRY_ATTEMPT_PROPERTY) ? message.getIntProperty(RETRY_ATTEMPT_PROPERTY) : 0;
+        if (attempt >= maxRetries) {
+            park(message, messageText, String.format("%s (gave up after %d retries)", reason, attempt));
+            return;
+        }
+
+        int delaySeconds = backoffSeconds(attempt);
+        TextMessage retry = session.createTextMessage(messageText);
+        copyIdentity(message, retry);
+        retry.setIntProperty(RETRY_ATTEMPT_PROPERTY, attempt + 1);
+        retry.setIntProperty(DELAY_PROPERTY, delaySeconds);
+        if (retryPublisher == null) {
+            retryPublisher = (AQjmsTopicPublisher) session.createPublisher(topic);
+        }
+        retryPublisher.publish(topic, retry, retryRecipients);
+        stats.recordRetry();
+        logger.warn("Retry {} of {} for message {} from subscriber {} scheduled in {}s: {}",
+                attempt + 1, maxRetries, message.getJMSMessageID(), subscriberName, delaySeconds, reason);
+    }
+
+    /**
+     * Moves a message that cannot be processed to the exception topic. Without an exception topic
+     * the message is logged and dropped.
+     */
+    public void park(Message message, String messageText, String reason) throws JMSException {
+        if (exceptionTopic == null) {
+            stats.recordDropped();
+            logger.error("Dropping message {} from subscriber {} ({}), no exception topic configured: {}",
+                    message.getJMSMessageID(), subscriberName, reason, messageText);
+            return;
+        }
+
+        TextMessage parked = session.createTextMessage(messageText);
+        copyIdentity(message, parked);
+        parked.setStringProperty("OriginalQueue", queueName);
+        parked.setStringProperty("OriginalSubscriber", subscriberName);
+        parked.setStringProperty("FailureReason", reason);
+        if (exceptionPublisher == null) {
+            exceptionPublisher = (AQjmsTopicPublisher) session.createPublisher(exceptionTopic);
+        }
+        exceptionPublisher.publish(parked);
+        stats.recordParked();
+        logger.error("Parked message {} from subscriber {} on the exception topic: {}",
+                message.getJMSMessageID(), subscriberName, reason);
+    }
+
+    int backoffSeconds(int attempt) {
+        long delay = (long) initialBackoffSeconds << Math.min(attempt, 30);
+        return (int) Math.min(delay, maxBackoffSeconds);
+    }
+
+    /**
+     * Keeps the ID of the first delivery, so retries and parked copies can be traced back to it.
+     */
+    private static void copyIdentity(Message from, Message to) throws JMSException {
+        String originalId = from.propertyExists(ORIGINAL_MESSAGE_ID_PROPERTY)
+                ? from.getStringProperty(ORIGINAL_MESSAGE_ID_PROPERTY)
+                : from.getJMSMessageID();
+        to.setStringProperty(ORIGINAL_MESSAGE_ID_PROPERTY, originalId);
+        if (from.getJMSCorrelationID() != null) {
+            to.setJMSCorrelationID(from.getJMSCorrelationID());
+        }
+    }
+
+    private static AQjmsAgent createAgent(String subscriberName) throws JMSException {
+        try {
+            return new AQjmsAgent(subscriberName, null);
+        } catch (Exception e) {
+            JMSException jmsException = new JMSException("Failed to create agent for subscriber " + subscriberName);
+            jmsException.setLinkedException(e);
+            throw jmsException;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.oracle.osd.consumers;
+
+import com.oracle.osd.metrics.LatencyHistogram;
+import com.oracle.osd.utils.JsonFieldScanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * End-to-end latency histograms per event type and subscriber:
+ * <ul>
+ *   <li><b>insert to enqueue</b>: source-row {@code Timestamp} in the payload to {@code JMSTimestamp}</li>
+ *   <li><b>enqueue to consume</b>: {@code JMSTimestamp} to the moment the session processes the message</li>
+ * </ul>
+ * Sessions look up their {@link SubscriberLatency} once at startup, so recording a message only
+ * scans the payload for the timestamp and increments two histogram buckets.
+ */
+public class LatencyRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyRecorder.class);
+    private static final String TIMESTAMP_FIELD = "\"Timestamp\"";
+
+    private final Map<String, SubscriberLatency> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the latency histograms shared by all sessions of the given subscriber.
+     */
+    public SubscriberLatency forSubscriber(String eventType, String subscriberName) {
+        return subscribers.computeIfAbsent(eventType + "/" + subscriberName, SubscriberLatency::new);
+    }
+
+    /**
+     * Logs p50/p99/p99.9/max of both latencies for every subscriber, covering the period since the last report.
+     */
+    public void logReport() {
+        subscribers.values().forEach(SubscriberLatency::logReport);
+    }
+
+    /**
+     * Latency histograms for one event type and subscriber.
+     */
+    public static final class SubscriberLatency {
+        private final String name;
+        private final LatencyHistogram insertToEnqueue = new LatencyHistogram();
+        private final LatencyHistogram enqueueToConsume = new LatencyHistogram();
+
+        private SubscriberLatency(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Records both latencies of a consumed message.
+         *
+         * @param messageText  The raw JSON payload carrying the source-row Timestamp
+         * @param jmsTimestamp The JMS enqueue timestamp in epoch millis
+         * @param consumedAt   The consume time in epoch millis
+         */
+        public void record(String messageText, long jmsTimestamp, long consumedAt) {
+            long sourceTimestamp = JsonFieldScanner.longValue(messageText, TIMESTAMP_FIELD, -1L);
+            if (sourceTimestamp > 0) {
+                insertToEnqueue.record(jmsTimestamp - sourceTimestamp);
+            }
+            enqueueToConsume.record(consumedAt - jmsTimestamp);
+        }
+
+        private void logReport() {
+            log("insert->enqueue", insertToEnqueue.snapshotInterval());
+            log("enqueue->consume", enqueueToConsume.snapshotInterval());
+        }
+
+        private void log(String stage, LatencyHistogram.Snapshot snapshot) {
+            if (snapshot.getTotalCount() == 0) {
+                return;
+            }
+            logger.info("Latency {} {} (ms): count={} p50={} p99={} p99.9={} max={}", name, stage,
+                    snapshot.getTotalCount(), snapshot.getValueAtPercentile(50), snapshot.getValueAtPercentile(99),
+                    snapshot.getValueAtPercentile(99.9), snapshot.getMax());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.oracle.osd.consumers;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageListener;
+import jakarta.jms.TopicSession;
+import oracle.jakarta.jms.AQjmsTextMessage;
+import oracle.jakarta.jms.AQjmsTopicSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Consumer session that registers a {@link MessageListener} and lets the JMS provider push
+ * messages asynchronously instead of polling with {@code receive(timeout)}.
+ * <p>
+ * A JMS session may only be used from its delivery thread once a listener is registered, so
+ * there is no safe place to flush a partially filled batch when the stream goes quiet.
+ * Each delivered message is therefore processed and committed as its own transaction.
+ * Stopping closes the connection, which waits for the message being processed to be committed.
+ */
+public class ListenerConsumerSession extends ConsumerSession implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListenerConsumerSession.class);
+
+    private final CountDownLatch stopSignal = new CountDownLatch(1);
+    private TopicSession session;
+
+    public ListenerConsumerSession(ConsumerContext context,
+                                   String queueName, String subscriberName, String eventType, int sessionNumber) {
+        super(context, queueName, subscriberName, eventType, sessionNumber);
+    }
+
+    @Override
+    protected void consume(TopicSession session, AQjmsTopicSubscriber subscriber)
+            throws JMSException, InterruptedException {
+        this.session = session;
+        subscriber.setMessageListener(this);
+        logger.info("Message listener registered for queue: {}, subscriber: {}", queueName, subscriberName);
+
+        // Keep the connection open until the session is stopped; delivery happens on the provider's thread.
+        // The listener is not unregistered here: only close() may be called from outside the delivery
+        // thread, and closing the connection on return waits for an onMessage call in progress.
+        stopSignal.await();
+    }
+
+    /**
+     * Processes and commits a delivered message, also while the session is stopping: a message that
+     * was delivered but not committed would be rolled back and count towards its delivery limit.
+     */
+    @Override
+    public void onMessage(Message message) {
+        try {
+            refreshConfig();
+            processAndCommit(session, List.of((AQjmsTextMessage) message));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rollback(session, 1, e);
+        } catch (JMSException | RuntimeException e) {
+            rollback(session, 1, e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        stopSignal.countDown();
+    }
+}
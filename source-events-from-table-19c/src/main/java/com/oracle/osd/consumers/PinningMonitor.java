@@ -0,0 +1,101 @@
+package com.oracle.osd.consumers;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records {@code jdk.VirtualThreadPinned} JFR events and aggregates them by the frame that
+ * pinned the carrier thread, so it is visible which driver code paths (for example synchronized
+ * blocks in AQjms or JDBC) prevent virtual threads from unmounting while blocked.
+ */
+public class PinningMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int TOP_SITES = 5;
+
+    private final Map<String, PinningSite> sites = new ConcurrentHashMap<>();
+    private final LongAdder pinnedEvents = new LongAdder();
+    private final RecordingStream recordingStream;
+
+    public PinningMonitor(long thresholdMs) {
+        this.recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::recordPinning);
+    }
+
+    public void start() {
+        recordingStream.startAsync();
+        logger.info("Virtual thread pinning monitor started");
+    }
+
+    private void recordPinning(RecordedEvent event) {
+        pinnedEvents.increment();
+        sites.computeIfAbsent(pinningSite(event.getStackTrace()), key -> new PinningSite())
+                .record(event.getDuration());
+    }
+
+    /**
+     * Picks the first frame outside the JDK, which is where the pinning monitor was entered.
+     */
+    private static String pinningSite(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "<unknown>";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (RecordedFrame frame : frames) {
+            String className = frame.getMethod().getType().getName();
+            if (!className.startsWith("java.") && !className.startsWith("jdk.") && !className.startsWith("sun.")) {
+                return className + "." + frame.getMethod().getName();
+            }
+        }
+        return frames.isEmpty() ? "<unknown>" : frames.get(0).getMethod().getType().getName();
+    }
+
+    public long getPinnedEvents() {
+        return pinnedEvents.sum();
+    }
+
+    /**
+     * Logs the total pinning count and the code locations that pinned carriers the longest.
+     */
+    public void logReport() {
+        long total = getPinnedEvents();
+        if (total == 0) {
+            logger.info("Virtual thread pinning: no pinned events recorded");
+            return;
+        }
+        logger.info("Virtual thread pinning: {} pinned events at {} sites", total, sites.size());
+        sites.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, PinningSite> e) -> e.getValue().totalNanos.sum()).reversed())
+                .limit(TOP_SITES)
+                .forEach(e -> logger.info("  {}: {} events, {} ms pinned in total", e.getKey(),
+                        e.getValue().count.sum(), e.getValue().totalNanos.sum() / 1_000_000));
+    }
+
+    @Override
+    public void close() {
+        recordingStream.close();
+    }
+
+    private static final class PinningSite {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        private void record(Duration duration) {
+            count.increment();
+            totalNanos.add(duration.toNanos());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.oracle.osd.consumers;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.TopicSession;
+import oracle.jakarta.jms.AQjmsTextMessage;
+import oracle.jakarta.jms.AQjmsTopicSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumer session that polls the subscriber with synchronous {@code receive(timeout)} calls
+ * and commits once per batch.
+ * <p>
+ * On {@link #stop()} a session that is waiting for the first message of a batch, and so holds no
+ * uncommitted messages, has its subscriber closed, which ends the blocked receive at once. A session
+ * with a batch in hand stops fetching, then processes and commits the batch before it exits.
+ */
+public class PollingConsumerSession extends ConsumerSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(PollingConsumerSession.class);
+
+    private final Object receiveLock = new Object();
+    /** The subscriber while the session waits for the first message of a batch, otherwise null. */
+    private MessageConsumer idleSubscriber;
+
+    public PollingConsumerSession(ConsumerContext context,
+                                  String queueName, String subscriberName, String eventType, int sessionNumber) {
+        super(context, queueName, subscriberName, eventType, sessionNumber);
+    }
+
+    @Override
+    protected void consume(TopicSession session, AQjmsTopicSubscriber subscriber)
+            throws JMSException, InterruptedException {
+        int batchMaxMessages = config.getBatchMaxMessages();
+        long batchMaxLingerMs = config.getBatchMaxLingerMs();
+        List<AQjmsTextMessage> batch = new ArrayList<>(batchMaxMessages);
+        AdaptivePoller poller = createPoller();
+
+        // Use synchronous receive() with configurable timeout, committing once per batch
+        while (running) {
+            if (refreshConfig()) {
+                // Batches and timeouts follow a reloaded configuration from the next batch on
+                batchMaxMessages = config.getBatchMaxMessages();
+                batchMaxLingerMs = config.getBatchMaxLingerMs();
+                poller = createPoller();
+                logger.debug("Session {} of subscriber {} now receives batches of up to {} messages",
+                        sessionNumber, subscriberName, batchMaxMessages);
+            }
+            try {
+                if (!receiveBatch(poller, subscriber, batch, batchMaxMessages, batchMaxLingerMs)) {
+                    break;
+                }
+                poller.onBatchReceived(batch.size(), batchMaxMessages);
+
+                if (!batch.isEmpty()) {
+                    processAndCommit(session, batch);
+                } else {
+                    logger.debug("No messages received from queue: {}, subscriber: {}", queueName, subscriberName);
+                }
+
+            } catch (JMSException e) {
+                if (running) {
+                    // Only session-level failures end up here; messages that fail processing are
+                    // retried or parked individually. Rolling back returns the whole batch for redelivery
+                    rollback(session, batch.size(), e);
+                    TimeUnit.SECONDS.sleep(config.getRetryDelaySeconds());
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private AdaptivePoller createPoller() {
+        return config.isAdaptiveReceiveEnabled()
+                ? new AdaptivePoller(stats, true, config.getAdaptiveMinTimeoutMs(), config.getAdaptiveMaxTimeoutMs())
+                : new AdaptivePoller(stats, false, config.getReceiveTimeoutMs(), config.getReceiveTimeoutMs());
+    }
+
+    /**
+     * Receives up to {@code maxMessages} messages into {@code batch}. The poller decides how long
+     * to wait for the first message; the batch then stays open for at most {@code maxLingerMs}
+     * while more messages are available.
+     *
+     * @return {@code false} if the session was stopped before a message was received
+     */
+    private boolean receiveBatch(AdaptivePoller poller, AQjmsTopicSubscriber subscriber, List<AQjmsTextMessage> batch,
+                                 int maxMessages, long maxLingerMs) throws JMSException {
+        AQjmsTextMessage first = receiveFirst(poller, subscriber);
+        if (first == null) {
+            return running;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxLingerMs);
+        while (running && batch.size() < maxMessages) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            AQjmsTextMessage next = (AQjmsTextMessage) (remainingMs > 0
+                    ? subscriber.receive(remainingMs)
+                    : subscriber.receiveNoWait());
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return true;
+    }
+
+    /**
+     * Waits for the first message of a batch, unless the session has been stopped.
+     */
+    private AQjmsTextMessage receiveFirst(AdaptivePoller poller, AQjmsTopicSubscriber subscriber) throws JMSException {
+        synchronized (receiveLock) {
+            if (!running) {
+                return null;
+            }
+            idleSubscriber = subscriber;
+        }
+        try {
+            return (AQjmsTextMessage) poller.poll(subscriber);
+        } catch (JMSException e) {
+            if (!running) {
+                // The subscriber was closed by stop() while nothing was received
+                return null;
+            }
+            throw e;
+        } finally {
+            synchronized (receiveLock) {
+                idleSubscriber = null;
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        MessageConsumer subscriber;
+        synchronized (receiveLock) {
+            subscriber = idleSubscriber;
+        }
+        if (subscriber != null) {
+            // Closing a consumer is allowed from any thread and makes a blocked receive return
+            Thread.ofVirtual().name("stop-" + subscriberName + "-" + sessionNumber).start(() -> {
+                try {
+                    subscriber.close();
+                } catch (JMSException e) {
+                    logger.debug("Failed to close subscriber {} of session {}: {}", subscriberName, sessionNumber, e.getMessage());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.oracle.osd.consumers;
+
+import com.oracle.osd.utils.JsonFieldScanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Staged processing pipeline that decouples dequeueing from parsing and processing.
+ * Receiving sessions hand raw messages to a pool of workers, each fed by its own bounded ring
+ * buffer. The worker is chosen by a hash of the event's business key, so events for the same
+ * entity are processed in the order they were received. A full buffer blocks the receiving
+ * session, which stops it from fetching further messages until the worker catches up.
+ */
+public class ProcessingPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessingPipeline.class);
+
+    private final BlockingQueue<Task>[] buffers;
+    private final Thread[] workers;
+    private final LongAdder backpressureWaits = new LongAdder();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ProcessingPipeline(int workerCount, int bufferSize, boolean virtualThreads) {
+        int perWorkerCapacity = Math.max(1, bufferSize / workerCount);
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("pipeline-worker-", 1).factory()
+                : Thread.ofPlatform().name("pipeline-worker-", 1).daemon().factory();
+
+        this.buffers = new BlockingQueue[workerCount];
+        this.workers = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            BlockingQueue<Task> buffer = new ArrayBlockingQueue<>(perWorkerCapacity);
+            buffers[i] = buffer;
+            workers[i] = threadFactory.newThread(() -> runWorker(buffer));
+        }
+        logger.info("Processing pipeline created with {} workers, {} buffered messages per worker",
+                workerCount, perWorkerCapacity);
+    }
+
+    public void start() {
+        for (Thread worker : workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Hands a received message to the worker owning its business key. Blocks while that worker's
+     * buffer is full.
+     *
+     * @param eventType   The event type, used to locate the business key in the payload
+     * @param messageText The raw message payload
+     * @param index       Position of the message within the current transaction
+     * @param watermark   Watermark of the transaction the message belongs to
+     * @param work        The processing to run on the worker
+     */
+    public void dispatch(String eventType, String messageText, int index, CommitWatermark watermark, Work work)
+            throws InterruptedException {
+        BlockingQueue<Task> buffer = buffers[Math.floorMod(businessKeyHash(eventType, messageText), buffers.length)];
+        Task task = new Task(work, index, watermark);
+        if (!buffer.offer(task)) {
+            backpressureWaits.increment();
+            buffer.put(task);
+        }
+    }
+
+    private void runWorker(BlockingQueue<Task> buffer) {
+        while (!Thread.currentThread().isInterrupted()) {
+            Task task;
+            try {
+                task = buffer.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            try {
+                task.work().process();
+                task.watermark().markProcessed(task.index());
+            } catch (Exception e) {
+                logger.error("Pipeline worker failed to process message: {}", e.getMessage());
+                task.watermark().markFailed(task.index(), e);
+            }
+        }
+    }
+
+    /**
+     * Hashes the value of the event's business key field (ActionId, PaymentId, StatementsId or
+     * TransactionId) straight from the raw JSON, without parsing or copying the payload.
+     * Payloads without a recognisable key are hashed as a whole.
+     */
+    static int businessKeyHash(String eventType, String messageText) {
+        int hash = switch (eventType) {
+            case "ACTION" -> JsonFieldScanner.valueHash(messageText, "\"ActionId\"");
+            case "PAYMENT" -> JsonFieldScanner.valueHash(messageText, "\"PaymentId\"");
+            case "STATEMENT" -> {
+                int statementHash = JsonFieldScanner.valueHash(messageText, "\"StatementsId\"");
+                yield statementHash != 0 ? statementHash : JsonFieldScanner.valueHash(messageText, "\"TransactionId\"");
+            }
+            default -> 0;
+        };
+        return hash != 0 ? hash : messageText.hashCode();
+    }
+
+    public int getBufferedMessages() {
+        int buffered = 0;
+        for (BlockingQueue<Task> buffer : buffers) {
+            buffered += buffer.size();
+        }
+        return buffered;
+    }
+
+    public long getBackpressureWaits() {
+        return backpressureWaits.sum();
+    }
+
+    public void logReport() {
+        logger.info("Pipeline: {} messages buffered, {} backpressure waits", getBufferedMessages(), getBackpressureWaits());
+    }
+
+    /**
+     * Stops the workers. Must only be called once no session is waiting on a watermark.
+     */
+    public void shutdown() {
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Processing of a single message, run on a pipeline worker.
+     */
+    @FunctionalInterface
+    public interface Work {
+        void process() throws Exception;
+    }
+
+    private record Task(Work work, int index, CommitWatermark watermark) {
+    }
+}
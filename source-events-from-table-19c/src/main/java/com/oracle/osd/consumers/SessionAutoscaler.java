@@ -0,0 +1,147 @@
+package com.oracle.osd.consumers;
+
+import com.oracle.osd.config.ConsumerConfig;
+import com.oracle.osd.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sizes the consumer sessions of every subscriber to its backlog, so sessions are only held while
+ * there is work for them.
+ * <p>
+ * At a fixed interval the backlog of all subscribers is read with the {@link BacklogMonitor}.
+ * A subscriber whose backlog exceeds {@code consumer.autoscale.scale.up.backlog} per session and
+ * is not shrinking gets as many sessions as the backlog calls for at once. One whose backlog is
+ * below {@code consumer.autoscale.scale.down.backlog} per session loses one session per interval.
+ * Both stay within the configured minimum and maximum. The gap between the two thresholds keeps
+ * the session count from flapping. Sessions that stopped on their own are replaced up to the
+ * minimum. If the backlog cannot be read, the sessions are left as they are.
+ */
+public class SessionAutoscaler implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionAutoscaler.class);
+
+    private final BacklogMonitor monitor;
+    private final int intervalSeconds;
+    private volatile Limits limits;
+    private final List<SubscriberSessions> subscribers = new CopyOnWriteArrayList<>();
+    private final Map<SubscriberSessions, Long> lastBacklogs = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    public SessionAutoscaler(ConsumerConfig config, BacklogMonitor monitor) {
+        this.monitor = monitor;
+        this.intervalSeconds = config.getAutoscaleIntervalSeconds();
+        this.limits = Limits.of(config);
+    }
+
+    /**
+     * Applies the session bounds and thresholds of a reloaded configuration from the next interval on.
+     */
+    public void updateConfig(ConsumerConfig config) {
+        limits = Limits.of(config);
+    }
+
+    /**
+     * Places the sessions of a subscriber under the autoscaler's control.
+     */
+    public void manage(SubscriberSessions sessions) {
+        subscribers.add(sessions);
+        MetricsRegistry.global().gauge("consumer_sessions", "Running consumer sessions",
+                sessions::size, "subscriber", sessions.getSubscriberName());
+        MetricsRegistry.global().gauge("consumer_backlog_messages", "Messages enqueued but not yet dequeued",
+                () -> lastBacklogs.getOrDefault(sessions, -1L), "subscriber", sessions.getSubscriberName());
+    }
+
+    /**
+     * Clamps a configured session count to the autoscaling bounds.
+     */
+    public int initialSessions(int configured) {
+        Limits current = limits;
+        return Math.min(current.maxSessions(), Math.max(current.minSessions(), configured));
+    }
+
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-autoscaler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::rescale, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        logger.info("Autoscaling {} subscribers every {}s between {} and {} sessions each",
+                subscribers.size(), intervalSeconds, limits.minSessions(), limits.maxSessions());
+    }
+
+    void rescale() {
+        Map<String, Long> backlogs;
+        try {
+            backlogs = monitor.readBacklogs();
+        } catch (SQLException e) {
+            logger.warn("Failed to read subscriber backlogs, keeping current sessions: {}", e.getMessage());
+            return;
+        } catch (RuntimeException e) {
+            logger.error("Unexpected error reading subscriber backlogs", e);
+            return;
+        }
+        for (SubscriberSessions sessions : subscribers) {
+            Long backlog = backlogs.get(BacklogMonitor.key(sessions.getQueueName(), sessions.getSubscriberName()));
+            if (backlog == null) {
+                logger.warn("No backlog found for subscriber {} of queue {}", sessions.getSubscriberName(), sessions.getQueueName());
+                continue;
+            }
+            Long previous = lastBacklogs.put(sessions, backlog);
+            rescale(sessions, limits, backlog, previous != null ? previous : backlog);
+        }
+    }
+
+    private void rescale(SubscriberSessions sessions, Limits limits, long backlog, long previousBacklog) {
+        int current = sessions.size();
+        int target = current;
+        if (current < limits.minSessions()) {
+            target = limits.minSessions();
+        } else if (current > limits.maxSessions()) {
+            target = limits.maxSessions();
+        } else if (backlog > limits.scaleUpBacklog() * current && backlog >= previousBacklog) {
+            target = (int) Math.min(limits.maxSessions(), (backlog + limits.scaleUpBacklog() - 1) / limits.scaleUpBacklog());
+        } else if (current > limits.minSessions() && backlog < limits.scaleDownBacklog() * current) {
+            target = current - 1;
+        }
+        if (target == current) {
+            return;
+        }
+
+        logger.info("Scaling subscriber {} from {} to {} sessions (backlog {}, previously {})",
+                sessions.getSubscriberName(), current, target, backlog, previousBacklog);
+        for (int i = current; i < target; i++) {
+            sessions.add();
+        }
+        for (int i = current; i > target; i--) {
+            sessions.retire();
+        }
+    }
+
+    private record Limits(int minSessions, int maxSessions, long scaleUpBacklog, long scaleDownBacklog) {
+
+        static Limits of(ConsumerConfig config) {
+            int min = config.getAutoscaleMinSessions();
+            long scaleUp = Math.max(1, config.getAutoscaleScaleUpBacklog());
+            return new Limits(min, Math.max(min, config.getAutoscaleMaxSessions()),
+                    scaleUp, Math.min(config.getAutoscaleScaleDownBacklog(), scaleUp - 1));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.oracle.osd.consumers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The consumer sessions of one durable subscriber. Sessions can be added and retired while the
+ * application runs; a retired session finishes and commits its current batch before it stops.
+ */
+public class SubscriberSessions {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscriberSessions.class);
+
+    private final ConsumerContext context;
+    private final String queueName;
+    private final String subscriberName;
+    private final String eventType;
+    private final Consumer<Runnable> launcher;
+    private final List<ConsumerSession> sessions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger nextSessionNumber = new AtomicInteger(1);
+
+    /**
+     * @param launcher Runs a session task, e.g. by submitting it to the application's executor
+     */
+    public SubscriberSessions(ConsumerContext context, String queueName, String subscriberName, String eventType,
+                              Consumer<Runnable> launcher) {
+        this.context = context;
+        this.queueName = queueName;
+        this.subscriberName = subscriberName;
+        this.eventType = eventType;
+        this.launcher = launcher;
+    }
+
+    /**
+     * Starts one more session for the subscriber.
+     */
+    public synchronized void add() {
+        ConsumerSession session = ConsumerSession.create(context, queueName, subscriberName, eventType,
+                nextSessionNumber.getAndIncrement());
+        sessions.add(session);
+        launcher.accept(() -> {
+            try {
+                session.run();
+            } finally {
+                remove(session);
+            }
+        });
+    }
+
+    /**
+     * Stops the most recently added session.
+     *
+     * @return Whether a session was stopped
+     */
+    public synchronized boolean retire() {
+        if (sessions.isEmpty()) {
+            return false;
+        }
+        ConsumerSession session = sessions.remove(sessions.size() - 1);
+        session.stop();
+        logger.debug("Retired a session of subscriber {}", subscriberName);
+        return true;
+    }
+
+    private synchronized void remove(ConsumerSession session) {
+        sessions.remove(session);
+    }
+
+    /**
+     * Adds or retires sessions until the subscriber has {@code target} sessions.
+     */
+    public synchronized void resize(int target) {
+        while (sessions.size() < target) {
+            add();
+        }
+        while (sessions.size() > target && retire()) {
+            // Retired sessions finish their current batch in the background
+        }
+    }
+
+    public void stopAll() {
+        sessions.forEach(ConsumerSession::stop);
+    }
+
+    /**
+     * @return The number of sessions that are running and not retired
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    public String getQueueName() {
+        return queueName;
+    }
+
+    public String getSubscriberName() {
+        return subscriberName;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+}
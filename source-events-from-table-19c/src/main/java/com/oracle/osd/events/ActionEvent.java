@@ -42,6 +42,18 @@ public class ActionEvent extends BaseEvent {
         this.notesOld = notesOld;
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        this.actionId = null;
+        this.notesOld = null;
+    }
+
+    @Override
+    public ActionEvent copy() {
+        return new ActionEvent(actionId, getAction(), getNotes(), notesOld, getTimestamp());
+    }
+
     @Override
     public String toString() {
         return String.format("ActionEvent{actionId='%s', %s, notesOld='%s'}",
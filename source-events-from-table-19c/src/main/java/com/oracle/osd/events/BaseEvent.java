@@ -53,6 +53,23 @@ public abstract class BaseEvent {
         this.timestamp = timestamp;
     }
 
+    /**
+     * Clears all fields so the instance can be decoded into again.
+     */
+    public void reset() {
+        this.action = null;
+        this.notes = null;
+        this.timestamp = null;
+    }
+
+    /**
+     * Creates a detached copy of this event, for consumers that hold on to an event after
+     * processing returns while the original instance is reused.
+     *
+     * @return A new event with the same field values
+     */
+    public abstract BaseEvent copy();
+
     @Override
     public String toString() {
         return String.format("Action: %s, Notes: %s, Timestamp: %s", action, notes, timestamp);
@@ -30,6 +30,17 @@ public class PaymentEvent extends BaseEvent {
         this.paymentId = paymentId;
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        this.paymentId = null;
+    }
+
+    @Override
+    public PaymentEvent copy() {
+        return new PaymentEvent(paymentId, getAction(), getNotes(), getTimestamp());
+    }
+
     @Override
     public String toString() {
         return String.format("PaymentEvent{paymentId='%s', %s}", paymentId, super.toString());
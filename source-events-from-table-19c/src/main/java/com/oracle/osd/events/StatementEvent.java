@@ -42,13 +42,27 @@ public class StatementEvent extends BaseEvent {
         this.transactionId = transactionId;
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        this.statementsId = null;
+        this.transactionId = null;
+    }
+
+    @Override
+    public StatementEvent copy() {
+        StatementEvent copy = new StatementEvent(statementsId, getAction(), getNotes(), getTimestamp());
+        copy.setTransactionId(transactionId);
+        return copy;
+    }
+
     /**
      * Get the primary ID field, checking both StatementsId and TransactionId.
      *
      * @return The primary ID value
      */
     public String getPrimaryId() {
-        if (statementsId != null && !statementsId.trim().isEmpty()) {
+        if (statementsId != null && !statementsId.isBlank()) {
             return statementsId;
         }
         return transactionId;
@@ -60,7 +74,7 @@ public class StatementEvent extends BaseEvent {
      * @return The field name
      */
     public String getIdFieldName() {
-        if (statementsId != null && !statementsId.trim().isEmpty()) {
+        if (statementsId != null && !statementsId.isBlank()) {
             return "StatementsId";
         }
         return "TransactionId";
@@ -0,0 +1,21 @@
+package com.oracle.osd.generator;
+
+/**
+ * One row produced by the load generator.
+ *
+ * @param id          The entity ID, e.g. {@code ACT-4711}
+ * @param entryNumber The position of the row among the entries of its entity, starting at 1, or
+ *                    the number of the update for {@link Operation#UPDATE}
+ * @param operation   Whether the row is inserted or updates an existing row of the entity
+ */
+public record GeneratedRow(String id, int entryNumber, Operation operation) {
+
+    public GeneratedRow(String id, int entryNumber) {
+        this(id, entryNumber, Operation.INSERT);
+    }
+
+    public enum Operation {
+        INSERT,
+        UPDATE
+    }
+}
@@ -0,0 +1,151 @@
+package com.oracle.osd.generator;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Draws entity ID numbers from a range of the key space. Skewed distributions favour the lowest
+ * numbers of the range, so e.g. {@code ACT-0} is the hottest action.
+ */
+public abstract class KeyDistribution {
+
+    protected final int firstKey;
+    protected final int keyCount;
+
+    protected KeyDistribution(int firstKey, int keyCount) {
+        this.firstKey = firstKey;
+        this.keyCount = Math.max(1, keyCount);
+    }
+
+    /**
+     * @return An ID number from {@code [firstKey, firstKey + keyCount)}
+     */
+    public abstract int nextKey(SplittableRandom random);
+
+    /**
+     * Every ID is equally likely.
+     */
+    public static KeyDistribution uniform(int firstKey, int keyCount) {
+        return new Uniform(firstKey, keyCount);
+    }
+
+    /**
+     * The {@code k}-th ID is drawn with a probability proportional to {@code 1 / k^exponent}.
+     */
+    public static KeyDistribution zipfian(int firstKey, int keyCount, double exponent) {
+        return new Zipfian(firstKey, keyCount, exponent);
+    }
+
+    /**
+     * A share of the draws goes to a small set of hot IDs at the start of the range, the rest to
+     * the other IDs; both uniformly.
+     *
+     * @param hotKeyFraction    Share of the IDs that are hot, e.g. 0.01
+     * @param hotAccessFraction Share of the draws that pick a hot ID, e.g. 0.9
+     */
+    public static KeyDistribution hotspot(int firstKey, int keyCount, double hotKeyFraction, double hotAccessFraction) {
+        return new Hotspot(firstKey, keyCount, hotKeyFraction, hotAccessFraction);
+    }
+
+    /**
+     * Creates a distribution by name, as configured by {@code generator.key.distribution}.
+     *
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static KeyDistribution forName(String name, int firstKey, int keyCount, double zipfianExponent,
+                                          double hotKeyFraction, double hotAccessFraction) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "uniform" -> uniform(firstKey, keyCount);
+            case "zipfian" -> zipfian(firstKey, keyCount, zipfianExponent);
+            case "hotspot" -> hotspot(firstKey, keyCount, hotKeyFraction, hotAccessFraction);
+            default -> throw new IllegalArgumentException("Unknown key distribution: " + name
+                    + ", expected one of uniform, zipfian, hotspot");
+        };
+    }
+
+    private static final class Uniform extends KeyDistribution {
+
+        Uniform(int firstKey, int keyCount) {
+            super(firstKey, keyCount);
+        }
+
+        @Override
+        public int nextKey(SplittableRandom random) {
+            return firstKey + random.nextInt(keyCount);
+        }
+    }
+
+    /**
+     * Rejection-inversion sampling (Hörmann and Derflinger, 1996): constant time per draw and no
+     * table of probabilities, so the setup costs the same for any key space.
+     */
+    private static final class Zipfian extends KeyDistribution {
+
+        private final double exponent;
+        private final double hIntegralX1;
+        private final double hIntegralKeyCount;
+        private final double s;
+
+        Zipfian(int firstKey, int keyCount, double exponent) {
+            super(firstKey, keyCount);
+            this.exponent = Math.max(1e-6, exponent);
+            this.hIntegralX1 = hIntegral(1.5) - 1.0;
+            this.hIntegralKeyCount = hIntegral(this.keyCount + 0.5);
+            this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+        }
+
+        @Override
+        public int nextKey(SplittableRandom random) {
+            while (true) {
+                double u = hIntegralKeyCount + random.nextDouble() * (hIntegralX1 - hIntegralKeyCount);
+                double x = hIntegralInverse(u);
+                int k = (int) Math.clamp(x + 0.5, 1, keyCount);
+                if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                    return firstKey + k - 1;
+                }
+            }
+        }
+
+        private double h(double x) {
+            return Math.exp(-exponent * Math.log(x));
+        }
+
+        private double hIntegral(double x) {
+            double logX = Math.log(x);
+            return expm1OverX((1 - exponent) * logX) * logX;
+        }
+
+        private double hIntegralInverse(double x) {
+            double t = Math.max(-1, x * (1 - exponent));
+            return Math.exp(log1pOverX(t) * x);
+        }
+
+        private static double log1pOverX(double x) {
+            return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+        }
+
+        private static double expm1OverX(double x) {
+            return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+        }
+    }
+
+    private static final class Hotspot extends KeyDistribution {
+
+        private final int hotKeys;
+        private final double hotAccessFraction;
+
+        Hotspot(int firstKey, int keyCount, double hotKeyFraction, double hotAccessFraction) {
+            super(firstKey, keyCount);
+            this.hotKeys = Math.clamp(Math.round(this.keyCount * hotKeyFraction), 1, this.keyCount);
+            this.hotAccessFraction = hotAccessFraction;
+        }
+
+        @Override
+        public int nextKey(SplittableRandom random) {
+            if (hotKeys == keyCount || random.nextDouble() < hotAccessFraction) {
+                return firstKey + random.nextInt(hotKeys);
+            }
+            return firstKey + hotKeys + random.nextInt(keyCount - hotKeys);
+        }
+    }
+}
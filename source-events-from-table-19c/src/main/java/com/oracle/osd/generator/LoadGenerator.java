@@ -0,0 +1,336 @@
+package com.oracle.osd.generator;
+
+import com.oracle.osd.config.GeneratorConfig;
+import com.oracle.osd.metrics.Histogram;
+import com.oracle.osd.metrics.MetricsRegistry;
+import com.oracle.osd.utils.BatchPolicy;
+import com.oracle.osd.utils.DatabaseUtils;
+import com.oracle.osd.utils.PerformanceUtils;
+import oracle.ucp.jdbc.PoolDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts generated rows into the source tables, driven by a {@link TableSpec} per table.
+ * Rows are produced lazily by a {@link RowSource} and bound straight into JDBC batches, so memory
+ * use does not grow with the number of rows, and any mix of tables can be loaded from one process.
+ * <p>
+ * Each table can be loaded by several workers, each with its own pooled connection, its share of
+ * the rows and a disjoint slice of the key space, so several batches per table are in flight at
+ * once. Progress and throughput are reported while loading.
+ * <p>
+ * With {@code generator.update.ratio} above 0, a share of the rows update an existing row of an
+ * entity the same worker inserted before, firing the UPDATE branch of the table's trigger. Entity IDs
+ * are drawn from the distribution set by {@code generator.key.distribution}: uniform, zipfian or
+ * hotspot. The share of updates that matched a row is logged when the table is loaded.
+ * <p>
+ * With {@code generator.rate.rows.per.second} set, rows are inserted at that rate per table rather
+ * than as fast as possible, paced by a {@link TokenBucket} for {@code generator.rate.duration.seconds},
+ * and the latency of every batch is measured from the time its first row was due.
+ * <p>
+ * Usage: {@code LoadGenerator [rows per table] [tables] [workers per table]},
+ * e.g. {@code LoadGenerator 100000000 actions,payments 8}. Without arguments, the values from
+ * generator.properties are used, as for blank arguments; in the rate-controlled mode a row count
+ * of 0 means no limit.
+ */
+public class LoadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+    /**
+     * Longest time a batch may take to fill in the rate-controlled mode, which caps the batch size.
+     */
+    private static final long MAX_BATCH_FILL_MILLIS = 100;
+
+    private final GeneratorConfig config;
+    private final DataSource dataSource;
+    private final int workersPerTable;
+
+    public LoadGenerator(GeneratorConfig config, DataSource dataSource) {
+        this(config, dataSource, config.getWorkersPerTable());
+    }
+
+    /**
+     * @param workersPerTable Concurrent workers per table, overriding generator.workers.per.table
+     */
+    public LoadGenerator(GeneratorConfig config, DataSource dataSource, int workersPerTable) {
+        this.config = config;
+        this.dataSource = dataSource;
+        this.workersPerTable = Math.max(1, Math.min(workersPerTable, config.getKeySpace()));
+    }
+
+    public static void main(String[] args) {
+        GeneratorConfig config = new GeneratorConfig();
+        config.logConfiguration();
+
+        long rows = hasArg(args, 0) ? Long.parseLong(args[0].trim()) : config.isRateControlled() ? 0 : config.getRowsPerTable();
+        if (rows <= 0 && config.isRateControlled()) {
+            // Rate-controlled loads without a row count run for the configured duration
+            rows = Long.MAX_VALUE;
+        }
+        List<TableSpec> specs = parseTables(hasArg(args, 1) ? List.of(args[1].split(",")) : config.getTables());
+        int workers = hasArg(args, 2) ? Integer.parseInt(args[2].trim()) : config.getWorkersPerTable();
+
+        new LoadGenerator(config, DatabaseUtils.getPooledDataSource(), workers).insertAll(specs, rows, true);
+        DatabaseUtils.logPoolStatistics();
+    }
+
+    /**
+     * Builds the {@link #main} arguments that load a single table, turning {@code [rows] [workers]}
+     * into {@code [rows] [table] [workers]}.
+     */
+    public static String[] tableArgs(TableSpec spec, String[] args) {
+        String rows = args.length > 0 ? args[0] : "";
+        return args.length > 1 ? new String[] {rows, spec.name(), args[1]} : new String[] {rows, spec.name()};
+    }
+
+    private static boolean hasArg(String[] args, int index) {
+        return args.length > index && !args[index].isBlank();
+    }
+
+    /**
+     * Resolves table names such as {@code actions} or {@code PaymentUpdatesTable} to their specs.
+     *
+     * @throws IllegalArgumentException if a name does not match any table
+     */
+    public static List<TableSpec> parseTables(List<String> names) {
+        List<TableSpec> specs = new ArrayList<>();
+        for (String name : names) {
+            if (!name.isBlank()) {
+                specs.add(TableSpec.forName(name.trim()));
+            }
+        }
+        return specs;
+    }
+
+    /**
+     * Inserts rows into one table.
+     *
+     * @param spec The table to load
+     * @param rows Number of rows to insert
+     * @return The number of rows inserted
+     * @throws RuntimeException if the rows could not be inserted
+     */
+    public long insert(TableSpec spec, long rows) {
+        return insertAll(List.of(spec), rows, false);
+    }
+
+    /**
+     * Inserts the same number of rows into each of the tables.
+     *
+     * @param specs    The tables to load
+     * @param rows     Number of rows to insert per table
+     * @param parallel Whether the tables are loaded concurrently, or one table after the other
+     * @return The number of rows inserted across all tables
+     * @throws RuntimeException if the rows of any table could not be inserted
+     */
+    public long insertAll(List<TableSpec> specs, long rows, boolean parallel) {
+        logger.info("Loading {} rows into each of {} table(s) {}, {} worker(s) per table",
+                rows < Long.MAX_VALUE ? rows : "unlimited", specs.size(),
+                parallel ? "in parallel" : "sequentially", workersPerTable);
+
+        Map<TableSpec, Long> targets = new LinkedHashMap<>();
+        specs.forEach(spec -> targets.put(spec, rows));
+        int concurrentWorkers = (parallel ? specs.size() : 1) * workersPerTable;
+        ensurePoolCapacity(concurrentWorkers);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrentWorkers, r -> {
+            Thread t = new Thread(r, "load-worker");
+            t.setDaemon(true);
+            return t;
+        });
+
+        try (LoadProgress progress = new LoadProgress(targets).start(config.getProgressIntervalSeconds())) {
+            if (!parallel) {
+                long inserted = 0;
+                for (TableSpec spec : specs) {
+                    inserted += insertTable(spec, rows, executor, progress).join();
+                }
+                return inserted;
+            }
+            List<CompletableFuture<Long>> loads = new ArrayList<>();
+            for (TableSpec spec : specs) {
+                loads.add(insertTable(spec, rows, executor, progress));
+            }
+            CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0])).join();
+            return loads.stream().mapToLong(CompletableFuture::join).sum();
+        } finally {
+            shutdown(executor);
+        }
+    }
+
+    /**
+     * Splits the rows and the key space of a table among the workers and starts them.
+     */
+    private CompletableFuture<Long> insertTable(TableSpec spec, long rows, ExecutorService executor,
+                                                LoadProgress progress) {
+        int keySpace = config.getKeySpace();
+        PerformanceUtils.Timer timer = new PerformanceUtils.Timer(spec.entityLabel() + " entries insertion", logger);
+        if (config.isRateControlled()) {
+            logger.info("Inserting into {} at {} rows/sec for {} seconds, ramped up in {} step(s) of {} seconds",
+                    spec.tableName(), config.getTargetRowsPerSecond(), config.getRateDurationSeconds(),
+                    config.getRateRampSteps(), config.getRateRampStepSeconds());
+        }
+        logger.info("Starting to insert {} rows into {} in batches of {} ({} entries per {}, {} worker(s))",
+                rows < Long.MAX_VALUE ? rows : "unlimited", spec.tableName(), config.isAdaptiveBatchSize() ? "adaptive size" : config.getBatchSize(), spec.entriesPerKey(),
+                spec.entityLabel().toLowerCase(Locale.ROOT), workersPerTable);
+
+        boolean mixed = config.getUpdateRatio() > 0;
+        List<String> statements = mixed ? List.of(spec.insertSql(), spec.updateSql()) : List.of(spec.insertSql());
+        if (mixed) {
+            logger.info("Mixed workload for {}: {}% updates of existing rows, {} key distribution",
+                    spec.tableName(), String.format("%.1f", config.getUpdateRatio() * 100), config.getKeyDistribution());
+        }
+        SplittableRandom seed = new SplittableRandom();
+        Histogram scheduleLatency = MetricsRegistry.global().histogram("generator_schedule_latency_seconds",
+                "Time from when the first row of an insert batch was due until the batch was executed", "table", spec.tableName());
+        long unchangedBefore = DatabaseUtils.getUnchangedStatements(spec.tableName());
+        long startNanos = System.nanoTime();
+        List<RowSource> rowSources = new ArrayList<>();
+        List<CompletableFuture<Long>> workers = new ArrayList<>();
+        for (int w = 0; w < workersPerTable; w++) {
+            long workerRows = rows / workersPerTable + (w < rows % workersPerTable ? 1 : 0);
+            int firstKey = (int) ((long) keySpace * w / workersPerTable);
+            int keyCount = (int) ((long) keySpace * (w + 1) / workersPerTable) - firstKey;
+            // Updates draw ranks among the entities the worker has inserted, which its own transaction can see
+            RowSource rowSource = new RowSource(spec, workerRows, keyDistribution(firstKey, keyCount),
+                    mixed ? keyDistribution(0, keyCount) : null, config.getUpdateRatio(), seed.split());
+            rowSources.add(rowSource);
+            PacedRowSource paced = config.isRateControlled() ? pacedRows(rowSource, startNanos) : null;
+            Iterator<GeneratedRow> source = paced != null ? paced : rowSource;
+            BatchPolicy policy = batchPolicy();
+            int worker = w + 1;
+            ScheduleLatency schedule = paced != null ? new ScheduleLatency(paced, scheduleLatency, progress, spec) : null;
+            workers.add(CompletableFuture.supplyAsync(() -> {
+                long inserted = DatabaseUtils.processRecordsInBatches(dataSource, source, statements, policy,
+                        spec::addToBatch, committed -> progress.recordCommitted(spec, committed), schedule);
+                logger.debug("Worker {}/{} inserted {} rows into {} with IDs {}{} to {}{}", worker, workersPerTable,
+                        inserted, spec.tableName(), spec.idPrefix(), firstKey, spec.idPrefix(), firstKey + keyCount - 1);
+                return inserted;
+            }, executor));
+        }
+
+        return CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> workers.stream().mapToLong(CompletableFuture::join).sum())
+                .whenComplete((inserted, error) -> {
+                    timer.logCompletion();
+                    if (mixed && error == null) {
+                        logMatchedUpdates(spec, rowSources, DatabaseUtils.getUnchangedStatements(spec.tableName()) - unchangedBefore);
+                    }
+                });
+    }
+
+    /**
+     * Logs the share of updates that found their row. Every update targets an entity inserted
+     * before it, so anything well below 100% means the generated rows and the table disagree.
+     */
+    private static void logMatchedUpdates(TableSpec spec, List<RowSource> rowSources, long unchanged) {
+        long updates = rowSources.stream().mapToLong(RowSource::getUpdates).sum();
+        if (updates == 0) {
+            return;
+        }
+        double matched = 100.0 * Math.max(0, updates - unchanged) / updates;
+        if (matched < 99) {
+            logger.warn("Only {}% of {} updates of {} matched a row, {} statements changed nothing",
+                    String.format("%.1f", matched), updates, spec.tableName(), unchanged);
+        } else {
+            logger.info("{}% of {} updates of {} matched a row", String.format("%.1f", matched), updates, spec.tableName());
+        }
+    }
+
+    /**
+     * Every worker holds its pooled connection for its whole load, so a worker beyond the pool's
+     * maximum would wait for a connection until the pool's wait timeout and then fail. The pool is
+     * grown to one connection per worker instead.
+     *
+     * @throws RuntimeException if the pool cannot be resized
+     */
+    private void ensurePoolCapacity(int concurrentWorkers) {
+        if (!(dataSource instanceof PoolDataSource pds) || concurrentWorkers <= pds.getMaxPoolSize()) {
+            return;
+        }
+        logger.info("Raising the connection pool's maximum from {} to {} for {} concurrent workers",
+                pds.getMaxPoolSize(), concurrentWorkers, concurrentWorkers);
+        try {
+            pds.setMaxPoolSize(concurrentWorkers);
+        } catch (SQLException e) {
+            throw new RuntimeException(String.format(
+                    "%d concurrent workers need %d pooled connections, but the pool's maximum of %d cannot be raised",
+                    concurrentWorkers, concurrentWorkers, pds.getMaxPoolSize()), e);
+        }
+    }
+
+    private KeyDistribution keyDistribution(int firstKey, int keyCount) {
+        return KeyDistribution.forName(config.getKeyDistribution(), firstKey, keyCount, config.getZipfianExponent(),
+                config.getHotspotKeyFraction(), config.getHotspotAccessFraction());
+    }
+
+    /**
+     * Paces the rows of one worker at its share of the target rate until the end of the load.
+     */
+    private PacedRowSource pacedRows(RowSource rows, long startNanos) {
+        TokenBucket bucket = new TokenBucket(config.getTargetRowsPerSecond() / workersPerTable,
+                config.getRateRampSteps(), config.getRateRampStepSeconds(), startNanos);
+        return new PacedRowSource(rows, bucket, startNanos + TimeUnit.SECONDS.toNanos(config.getRateDurationSeconds()));
+    }
+
+    /**
+     * Creates the batch policy of one worker, so adaptive workers search independently.
+     */
+    private BatchPolicy batchPolicy() {
+        int maxBatchSize = Integer.MAX_VALUE;
+        if (config.isRateControlled()) {
+            // Keep the rows flowing steadily rather than in large batches that take seconds to fill at the target rate
+            maxBatchSize = (int) Math.max(1, config.getTargetRowsPerSecond() / workersPerTable * MAX_BATCH_FILL_MILLIS / 1000);
+        }
+        // A commit interval of 0 rounds up to a single batch, i.e. a commit after every batch
+        if (!config.isAdaptiveBatchSize()) {
+            return BatchPolicy.fixed(Math.min(config.getBatchSize(), maxBatchSize), config.getCommitInterval());
+        }
+        return BatchPolicy.adaptive(config.getBatchSize(), config.getAdaptiveMinBatchSize(),
+                Math.min(config.getAdaptiveMaxBatchSize(), maxBatchSize), config.getAdaptiveStep(),
+                config.getAdaptiveLatencyBoundMillis(), config.getCommitInterval());
+    }
+
+    /**
+     * Records the latency of every batch of a paced worker, from when its first row was due.
+     */
+    private record ScheduleLatency(PacedRowSource rows, Histogram histogram, LoadProgress progress, TableSpec spec)
+            implements DatabaseUtils.BatchSchedule {
+
+        @Override
+        public long lastDueNanos() {
+            return rows.getLastDueNanos();
+        }
+
+        @Override
+        public void batchExecuted(int records, long latencyNanos) {
+            histogram.recordNanos(latencyNanos);
+            progress.recordScheduleLatency(spec, latencyNanos);
+        }
+    }
+
+    private static void shutdown(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.oracle.osd.generator;
+
+import com.oracle.osd.metrics.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the committed rows of a load across all tables and workers, and periodically logs the
+ * progress per table with the current and average throughput. For rate-controlled loads it also
+ * reports the latency of batches measured from the time their first row was due.
+ */
+public class LoadProgress implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadProgress.class);
+
+    private final Map<TableSpec, Table> tables = new LinkedHashMap<>();
+    private final long startNanos = System.nanoTime();
+    private ScheduledExecutorService reporter;
+    private long lastReportNanos = startNanos;
+    private long lastReportRows;
+
+    /**
+     * @param targets The number of rows to insert per table
+     */
+    public LoadProgress(Map<TableSpec, Long> targets) {
+        targets.forEach((spec, rows) -> tables.put(spec, new Table(rows)));
+    }
+
+    /**
+     * Starts logging the progress at a fixed interval until the load is closed.
+     *
+     * @param intervalSeconds Seconds between reports, 0 to only log the summary
+     */
+    public LoadProgress start(int intervalSeconds) {
+        if (intervalSeconds > 0) {
+            reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "load-progress");
+                t.setDaemon(true);
+                return t;
+            });
+            reporter.scheduleAtFixedRate(this::logProgress, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * Records rows of a table that have been committed.
+     */
+    public void recordCommitted(TableSpec spec, long rows) {
+        tables.get(spec).committed.add(rows);
+    }
+
+    /**
+     * Records the time from when the first row of a batch was due until the batch was executed.
+     */
+    public void recordScheduleLatency(TableSpec spec, long nanos) {
+        Table table = tables.get(spec);
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        table.intervalLatency.record(micros);
+        table.totalLatency.record(micros);
+    }
+
+    public long getCommittedRows() {
+        return tables.values().stream().mapToLong(table -> table.committed.sum()).sum();
+    }
+
+    synchronized void logProgress() {
+        long now = System.nanoTime();
+        long rows = getCommittedRows();
+        double currentRate = ratePerSecond(rows - lastReportRows, now - lastReportNanos);
+        lastReportNanos = now;
+        lastReportRows = rows;
+
+        StringBuilder perTable = new StringBuilder();
+        tables.forEach((spec, table) -> {
+            long committed = table.committed.sum();
+            perTable.append(perTable.isEmpty() ? "" : ", ").append(spec.name()).append(' ').append(committed);
+            if (table.target < Long.MAX_VALUE) {
+                perTable.append('/').append(table.target)
+                        .append(String.format(" (%.1f%%)", table.target > 0 ? committed * 100.0 / table.target : 100.0));
+            }
+            appendLatency(perTable, table.intervalLatency.snapshotInterval());
+        });
+        logger.info("Load progress: {} | {} rows/sec now, {} rows/sec average", perTable,
+                String.format("%.0f", currentRate), String.format("%.0f", ratePerSecond(rows, now - startNanos)));
+    }
+
+    /**
+     * Stops the periodic reports and logs the rows and throughput of the whole load.
+     */
+    @Override
+    public void close() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long rows = getCommittedRows();
+        logger.info("Load finished: {} rows into {} table(s) in {} ms ({} rows/sec)", rows, tables.size(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), String.format("%.2f", ratePerSecond(rows, elapsedNanos)));
+        tables.forEach((spec, table) -> {
+            LatencyHistogram.Snapshot latency = table.totalLatency.snapshotInterval();
+            if (latency.getTotalCount() > 0) {
+                logger.info("{} batch latency from schedule over {} batches: p50 {} ms, p99 {} ms, p99.9 {} ms, max {} ms",
+                        spec.tableName(), latency.getTotalCount(), millis(latency.getValueAtPercentile(50)),
+                        millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                        millis(latency.getMax()));
+            }
+        });
+    }
+
+    private static void appendLatency(StringBuilder line, LatencyHistogram.Snapshot latency) {
+        if (latency.getTotalCount() > 0) {
+            line.append(" [latency p50 ").append(millis(latency.getValueAtPercentile(50)))
+                    .append(" ms, p99 ").append(millis(latency.getValueAtPercentile(99)))
+                    .append(" ms, max ").append(millis(latency.getMax())).append(" ms]");
+        }
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+
+    private static double ratePerSecond(long rows, long nanos) {
+        return nanos > 0 ? rows * 1e9 / nanos : 0;
+    }
+
+    private static final class Table {
+
+        final long target;
+        final LongAdder committed = new LongAdder();
+        final LatencyHistogram intervalLatency = new LatencyHistogram();
+        final LatencyHistogram totalLatency = new LatencyHistogram();
+
+        Table(long target) {
+            this.target = target;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.oracle.osd.generator;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Releases the rows of another source no faster than a {@link TokenBucket} allows, until the load's
+ * deadline. Used by the rate-controlled mode of the {@link LoadGenerator}.
+ */
+public class PacedRowSource implements Iterator<GeneratedRow> {
+
+    private final Iterator<GeneratedRow> rows;
+    private final TokenBucket bucket;
+    private final long deadlineNanos;
+    private long released;
+    private volatile long lastDueNanos;
+
+    /**
+     * @param deadlineNanos {@link System#nanoTime()} after which no more rows are released
+     */
+    public PacedRowSource(Iterator<GeneratedRow> rows, TokenBucket bucket, long deadlineNanos) {
+        this.rows = rows;
+        this.bucket = bucket;
+        this.deadlineNanos = deadlineNanos;
+        this.lastDueNanos = bucket.dueNanos(0);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return rows.hasNext() && bucket.dueNanos(released) < deadlineNanos && !Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Waits until the next row is due and returns it.
+     */
+    @Override
+    public GeneratedRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        long due = bucket.dueNanos(released++);
+        for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+            LockSupport.parkNanos(wait);
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        lastDueNanos = due;
+        return rows.next();
+    }
+
+    /**
+     * The time the most recently released row was due. Read after releasing the first row of a
+     * batch, it is the time the batch was meant to start, which its latency is measured from.
+     */
+    public long getLastDueNanos() {
+        return lastDueNanos;
+    }
+}
@@ -0,0 +1,125 @@
+package com.oracle.osd.generator;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Produces the rows of a table load lazily, so any number of rows can be generated in constant
+ * memory. Inserted rows come in runs of {@link TableSpec#entriesPerKey()} entries for an entity ID
+ * drawn from the insert key distribution, the same shape the per-table inserters used to prepare
+ * up front.
+ * <p>
+ * In a mixed workload a share of the rows are updates of existing rows instead, interleaved with
+ * the runs of inserts. Updates only target entities this source has already inserted, so every
+ * update matches a row: the update key distribution draws a rank, and rank {@code k} is mapped to
+ * the {@code k}-th distinct entity inserted, wrapping around while fewer have been inserted. The
+ * first entities inserted are therefore the hottest ones under a skewed distribution. Until the
+ * first entity is inserted, rows are inserts.
+ */
+public class RowSource implements Iterator<GeneratedRow> {
+
+    private final TableSpec spec;
+    private final long rows;
+    private final KeyDistribution insertKeys;
+    private final KeyDistribution updateKeys;
+    private final double updateRatio;
+    private final SplittableRandom random;
+
+    private long produced;
+    private String currentId;
+    private int entryNumber;
+    private int updates;
+    /** Distinct insert key numbers in the order they were first inserted; only kept for updates. */
+    private final BitSet insertedKeys;
+    private int[] insertOrder;
+    private int insertedCount;
+
+    /**
+     * @param rows     Number of rows to produce
+     * @param keySpace Entity IDs are drawn from {@code [0, keySpace)}
+     */
+    public RowSource(TableSpec spec, long rows, int keySpace) {
+        this(spec, rows, 0, keySpace, new SplittableRandom());
+    }
+
+    /**
+     * @param rows     Number of rows to produce
+     * @param firstKey First entity ID number of the slice the IDs are drawn from
+     * @param keyCount Number of entity IDs in the slice, so IDs are drawn from {@code [firstKey, firstKey + keyCount)}
+     */
+    public RowSource(TableSpec spec, long rows, int firstKey, int keyCount, SplittableRandom random) {
+        this(spec, rows, KeyDistribution.uniform(firstKey, keyCount), null, 0, random);
+    }
+
+    /**
+     * @param rows        Number of rows to produce, inserts and updates together
+     * @param insertKeys  Distribution of the entity IDs of inserted rows
+     * @param updateKeys  Distribution of the ranks of updated entities among the inserted ones, or
+     *                    null without updates
+     * @param updateRatio Share of the rows that are updates, between 0 and 1
+     */
+    public RowSource(TableSpec spec, long rows, KeyDistribution insertKeys, KeyDistribution updateKeys,
+                     double updateRatio, SplittableRandom random) {
+        this.spec = spec;
+        this.rows = rows;
+        this.insertKeys = insertKeys;
+        this.updateKeys = updateKeys;
+        this.updateRatio = updateKeys != null ? Math.clamp(updateRatio, 0, 1) : 0;
+        this.random = random;
+        this.entryNumber = spec.entriesPerKey();
+        this.insertedKeys = this.updateRatio > 0 ? new BitSet(insertKeys.keyCount) : null;
+        this.insertOrder = this.updateRatio > 0 ? new int[Math.min(insertKeys.keyCount, 1024)] : null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return produced < rows;
+    }
+
+    @Override
+    public GeneratedRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        produced++;
+        if (insertedCount > 0 && random.nextDouble() < updateRatio) {
+            int rank = updateKeys.nextKey(random) - updateKeys.firstKey;
+            return new GeneratedRow(spec.idPrefix() + insertOrder[rank % insertedCount], ++updates,
+                    GeneratedRow.Operation.UPDATE);
+        }
+        if (entryNumber >= spec.entriesPerKey()) {
+            int key = insertKeys.nextKey(random);
+            if (insertedKeys != null) {
+                recordInserted(key);
+            }
+            currentId = spec.idPrefix() + key;
+            entryNumber = 0;
+        }
+        return new GeneratedRow(currentId, ++entryNumber);
+    }
+
+    private void recordInserted(int key) {
+        if (insertedKeys.get(key - insertKeys.firstKey)) {
+            return;
+        }
+        insertedKeys.set(key - insertKeys.firstKey);
+        if (insertedCount == insertOrder.length) {
+            insertOrder = Arrays.copyOf(insertOrder, Math.min(insertKeys.keyCount, insertOrder.length * 2));
+        }
+        insertOrder[insertedCount++] = key;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * @return The number of update rows produced so far
+     */
+    public int getUpdates() {
+        return updates;
+    }
+}
@@ -0,0 +1,114 @@
+package com.oracle.osd.generator;
+
+import com.oracle.osd.utils.DataGenerationUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Describes a source table the load generator writes to. Every table has the same shape: an
+ * entity ID column, Notes and Timestamp, and each generated entity ID receives a fixed number of
+ * consecutive entries, like a series of updates to the same action or payment.
+ *
+ * @param name          Short name used on the command line, e.g. {@code actions}
+ * @param tableName     The table, e.g. {@code ActionUpdatesTable}
+ * @param idColumn      The entity ID column, e.g. {@code ActionId}
+ * @param idPrefix      Prefix of the generated IDs, e.g. {@code ACT-}
+ * @param entriesPerKey Number of rows generated per entity ID
+ * @param entityLabel   Name of the entity in the generated notes, e.g. {@code Action}
+ */
+public record TableSpec(String name, String tableName, String idColumn, String idPrefix,
+                        int entriesPerKey, String entityLabel) {
+
+    public static final TableSpec ACTIONS =
+            new TableSpec("actions", "ActionUpdatesTable", "ActionId", "ACT-", 5, "Action");
+    public static final TableSpec PAYMENTS =
+            new TableSpec("payments", "PaymentUpdatesTable", "PaymentId", "PAY-", 5, "Payment");
+    public static final TableSpec STATEMENTS =
+            new TableSpec("statements", "StatementsUpdatesTable", "StatementsId", "STMT-", 5, "Statement");
+    public static final TableSpec TRANSACTIONS =
+            new TableSpec("transactions", "TransactionUpdatesTable", "TransactionId", "TXN-", 5, "Transaction");
+
+    public static final List<TableSpec> ALL = List.of(ACTIONS, PAYMENTS, STATEMENTS, TRANSACTIONS);
+
+    /**
+     * Looks up a table by its short name or table name, ignoring case.
+     *
+     * @throws IllegalArgumentException if no table matches
+     */
+    public static TableSpec forName(String name) {
+        for (TableSpec spec : ALL) {
+            if (spec.name().equalsIgnoreCase(name) || spec.tableName().equalsIgnoreCase(name)) {
+                return spec;
+            }
+        }
+        throw new IllegalArgumentException("Unknown table: " + name + ", expected one of actions, payments, statements, transactions");
+    }
+
+    public String insertSql() {
+        return String.format("INSERT INTO %s (%s, Notes, Timestamp) VALUES (?, ?, ?)", tableName, idColumn);
+    }
+
+    /**
+     * Updates one existing row of an entity; the table's trigger enqueues an UPDATE event carrying
+     * the previous notes. Without an index on the ID column every update scans the table.
+     */
+    public String updateSql() {
+        return String.format("UPDATE %s SET Notes = ?, Timestamp = ? WHERE %s = ? AND ROWNUM = 1", tableName, idColumn);
+    }
+
+    /**
+     * Adds a generated row to the batch of the {@link #insertSql()} statement, or of the
+     * {@link #updateSql()} statement for updates.
+     *
+     * @param statements The insert statement, followed by the update statement for mixed workloads
+     */
+    public void addToBatch(PreparedStatement[] statements, GeneratedRow row) throws SQLException {
+        if (row.operation() == GeneratedRow.Operation.UPDATE) {
+            addUpdateToBatch(statements[1], row);
+        } else {
+            addInsertToBatch(statements[0], row);
+        }
+    }
+
+    /**
+     * Binds a generated row to the {@link #insertSql()} statement and adds it to the batch.
+     */
+    public void addInsertToBatch(PreparedStatement pstmt, GeneratedRow row) throws SQLException {
+        long currentTimestamp = System.currentTimeMillis();
+        pstmt.setString(1, row.id());
+        pstmt.setString(2, notes(row, currentTimestamp));
+        pstmt.setLong(3, currentTimestamp);
+        pstmt.addBatch();
+    }
+
+    /**
+     * Binds a generated row to the {@link #updateSql()} statement and adds it to the batch.
+     */
+    public void addUpdateToBatch(PreparedStatement pstmt, GeneratedRow row) throws SQLException {
+        long currentTimestamp = System.currentTimeMillis();
+        pstmt.setString(1, notes(row, currentTimestamp));
+        pstmt.setLong(2, currentTimestamp);
+        pstmt.setString(3, row.id());
+        pstmt.addBatch();
+    }
+
+    String notes(GeneratedRow row, long timestamp) {
+        if (row.operation() == GeneratedRow.Operation.UPDATE) {
+            return DataGenerationUtils.createTimestampedMessage(
+                    entityLabel + " update: {0}, Timestamp: {timestamp}, for " + entityLabel.toLowerCase(Locale.ROOT) + ": {1}",
+                    timestamp,
+                    row.entryNumber(),
+                    row.id()
+            );
+        }
+        return DataGenerationUtils.createTimestampedMessage(
+                entityLabel + " entry: {0}, Timestamp: {timestamp}, for " + entityLabel.toLowerCase(Locale.ROOT) + ": {1}",
+                timestamp,
+                row.entryNumber(),
+                row.id()
+        );
+    }
+}
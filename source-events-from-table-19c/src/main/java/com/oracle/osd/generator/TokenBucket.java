@@ -0,0 +1,64 @@
+package com.oracle.osd.generator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket releasing one token per row at a target rate, optionally ramped up in equal steps:
+ * with {@code n} steps the rate is {@code target * k / n} during step {@code k}, and the target
+ * from the last step on.
+ * <p>
+ * The bucket is open-loop: the time each token is due depends only on the schedule, never on how
+ * long earlier rows took to insert. Tokens that were due while the inserter was stalled are
+ * released immediately afterwards instead of being dropped, so measuring latency from
+ * {@link #dueNanos(long)} includes the time spent behind schedule and a stall cannot hide itself
+ * by delaying the rows that would have observed it (coordinated omission).
+ */
+public class TokenBucket {
+
+    private final long startNanos;
+    private final long stepNanos;
+    /** Tokens per nanosecond in each ramp step. */
+    private final double[] stepRates;
+    /** Tokens released before each ramp step starts. */
+    private final double[] stepStartTokens;
+
+    /**
+     * @param rowsPerSecond   The target rate
+     * @param rampSteps       Number of equal steps to reach the target rate, 1 to start at the target
+     * @param rampStepSeconds Duration of each ramp step
+     * @param startNanos      {@link System#nanoTime()} at which the first token is due
+     */
+    public TokenBucket(double rowsPerSecond, int rampSteps, long rampStepSeconds, long startNanos) {
+        int steps = Math.max(1, rampSteps);
+        this.startNanos = startNanos;
+        this.stepNanos = TimeUnit.SECONDS.toNanos(Math.max(1, rampStepSeconds));
+        this.stepRates = new double[steps];
+        this.stepStartTokens = new double[steps];
+        double tokens = 0;
+        for (int i = 0; i < steps; i++) {
+            stepRates[i] = rowsPerSecond * (i + 1) / steps / 1e9;
+            stepStartTokens[i] = tokens;
+            tokens += stepRates[i] * stepNanos;
+        }
+    }
+
+    /**
+     * @param token Zero-based number of the token
+     * @return The {@link System#nanoTime()} at which the token is due
+     */
+    public long dueNanos(long token) {
+        int step = stepRates.length - 1;
+        while (step > 0 && token < stepStartTokens[step]) {
+            step--;
+        }
+        return startNanos + step * stepNanos + (long) ((token - stepStartTokens[step]) / stepRates[step]);
+    }
+
+    /**
+     * @return The rate in rows per second at the given time
+     */
+    public double rowsPerSecondAt(long nanos) {
+        long step = Math.max(0, nanos - startNanos) / stepNanos;
+        return stepRates[(int) Math.min(step, stepRates.length - 1)] * 1e9;
+    }
+}
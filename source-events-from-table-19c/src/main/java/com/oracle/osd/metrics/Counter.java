@@ -0,0 +1,39 @@
+package com.oracle.osd.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonically increasing count incremented through this instance. A count maintained by another
+ * component is exposed as a {@link FunctionCounter} instead.
+ */
+public class Counter extends Metric implements CounterMBean {
+
+    private final LongAdder adder = new LongAdder();
+
+    Counter(String name, String help, String[] labels) {
+        super(name, help, labels);
+    }
+
+    public void increment() {
+        adder.increment();
+    }
+
+    public void add(long amount) {
+        adder.add(amount);
+    }
+
+    @Override
+    public long getCount() {
+        return adder.sum();
+    }
+
+    @Override
+    String type() {
+        return "counter";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out) {
+        writeSample(out, getName(), null, null, getCount());
+    }
+}
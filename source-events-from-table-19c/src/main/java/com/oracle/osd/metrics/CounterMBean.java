@@ -0,0 +1,9 @@
+package com.oracle.osd.metrics;
+
+/**
+ * JMX view of a {@link Counter}.
+ */
+public interface CounterMBean {
+
+    long getCount();
+}
@@ -0,0 +1,37 @@
+package com.oracle.osd.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Read-only counter whose count is maintained by another component, e.g. a {@code LongAdder} of a
+ * stats class, and read from it whenever the metrics are read.
+ */
+public class FunctionCounter extends Metric implements FunctionCounterMBean {
+
+    private volatile LongSupplier source;
+
+    FunctionCounter(String name, String help, String[] labels, LongSupplier source) {
+        super(name, help, labels);
+        this.source = source;
+    }
+
+    @Override
+    public long getCount() {
+        return source.getAsLong();
+    }
+
+    @Override
+    void rebind(Metric replacement) {
+        this.source = ((FunctionCounter) replacement).source;
+    }
+
+    @Override
+    String type() {
+        return "counter";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out) {
+        writeSample(out, getName(), null, null, getCount());
+    }
+}
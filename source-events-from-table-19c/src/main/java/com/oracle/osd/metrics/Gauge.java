@@ -0,0 +1,50 @@
+package com.oracle.osd.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Value sampled from its source whenever the metrics are read, e.g. a pool or queue size.
+ */
+public class Gauge extends Metric implements GaugeMBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(Gauge.class);
+
+    private volatile DoubleSupplier source;
+
+    Gauge(String name, String help, String[] labels, DoubleSupplier source) {
+        super(name, help, labels);
+        this.source = source;
+    }
+
+    /**
+     * @return The current value, or NaN if the source failed
+     */
+    @Override
+    public double getValue() {
+        try {
+            return source.getAsDouble();
+        } catch (RuntimeException e) {
+            logger.debug("Failed to read gauge {}: {}", getName(), e.getMessage());
+            return Double.NaN;
+        }
+    }
+
+    @Override
+    void rebind(Metric replacement) {
+        this.source = ((Gauge) replacement).source;
+    }
+
+    @Override
+    String type() {
+        return "gauge";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out) {
+        double value = getValue();
+        writeSample(out, getName(), null, null, value);
+    }
+}
@@ -0,0 +1,122 @@
+package com.oracle.osd.metrics;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cumulative distribution of durations over fixed bucket bounds, exported in seconds.
+ * Recording increments one {@link LongAdder} per call plus the sum, so it never allocates and
+ * rarely contends. Unlike {@link LatencyHistogram} it is never reset, as Prometheus computes rates
+ * and quantiles from the cumulative bucket counts.
+ */
+public class Histogram extends Metric implements HistogramMBean {
+
+    /**
+     * Bucket bounds in seconds suited to JDBC round trips and commits.
+     */
+    public static final double[] LATENCY_BOUNDS_SECONDS =
+            {0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private final double[] boundsSeconds;
+    private final long[] boundsNanos;
+    /** One counter per bound plus the overflow bucket; not cumulative. */
+    private final LongAdder[] buckets;
+    private final LongAdder sumNanos = new LongAdder();
+
+    Histogram(String name, String help, String[] labels, double[] boundsSeconds) {
+        super(name, help, labels);
+        this.boundsSeconds = boundsSeconds.clone();
+        this.boundsNanos = new long[boundsSeconds.length];
+        for (int i = 0; i < boundsSeconds.length; i++) {
+            boundsNanos[i] = (long) (boundsSeconds[i] * 1_000_000_000L);
+        }
+        this.buckets = new LongAdder[boundsSeconds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a duration. Negative durations are recorded as zero.
+     */
+    public void recordNanos(long nanos) {
+        long value = Math.max(0, nanos);
+        int bucket = 0;
+        while (bucket < boundsNanos.length && value > boundsNanos[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sumNanos.add(value);
+    }
+
+    @Override
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    @Override
+    public double getSumSeconds() {
+        return sumNanos.sum() / 1e9;
+    }
+
+    @Override
+    public double getMeanSeconds() {
+        long count = getCount();
+        return count > 0 ? getSumSeconds() / count : 0;
+    }
+
+    @Override
+    public double getP50Seconds() {
+        return percentile(50);
+    }
+
+    @Override
+    public double getP99Seconds() {
+        return percentile(99);
+    }
+
+    private double percentile(double percentile) {
+        long[] counts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < boundsSeconds.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return boundsSeconds[i];
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    String type() {
+        return "histogram";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out) {
+        // Read the buckets once, so the cumulative counts and the total are consistent
+        long cumulative = 0;
+        for (int i = 0; i < boundsSeconds.length; i++) {
+            cumulative += buckets[i].sum();
+            writeSample(out, getName() + "_bucket", "le",
+                    BigDecimal.valueOf(boundsSeconds[i]).stripTrailingZeros().toPlainString(), cumulative);
+        }
+        cumulative += buckets[boundsSeconds.length].sum();
+        writeSample(out, getName() + "_bucket", "le", "+Inf", cumulative);
+        writeSample(out, getName() + "_sum", null, null, getSumSeconds());
+        writeSample(out, getName() + "_count", null, null, cumulative);
+    }
+}
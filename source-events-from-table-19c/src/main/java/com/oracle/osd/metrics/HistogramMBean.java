@@ -0,0 +1,26 @@
+package com.oracle.osd.metrics;
+
+/**
+ * JMX view of a {@link Histogram}.
+ */
+public interface HistogramMBean {
+
+    long getCount();
+
+    /**
+     * @return The sum of all recorded durations in seconds
+     */
+    double getSumSeconds();
+
+    double getMeanSeconds();
+
+    /**
+     * @return Upper bound of the bucket holding the median, in seconds
+     */
+    double getP50Seconds();
+
+    /**
+     * @return Upper bound of the bucket holding the 99th percentile, in seconds
+     */
+    double getP99Seconds();
+}
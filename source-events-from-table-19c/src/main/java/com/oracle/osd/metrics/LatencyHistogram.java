@@ -0,0 +1,113 @@
+package com.oracle.osd.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Concurrent log-linear histogram in the style of HdrHistogram, sized once at construction so
+ * recording never allocates. Values below 64 are counted exactly; larger values fall into one of
+ * 32 sub-buckets per power of two, which bounds the relative error of reported percentiles to ~3%.
+ * <p>
+ * {@link #snapshotInterval()} returns the distribution recorded since the previous call, so a
+ * single instance can be reported at fixed intervals while it keeps recording.
+ */
+public class LatencyHistogram {
+
+    private static final int LINEAR_LIMIT = 64;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int FIRST_EXPONENT = 6;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - FIRST_EXPONENT) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final long[] previousCounts = new long[BUCKET_COUNT];
+    private final LongAccumulator intervalMax = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Records a value. Negative values are recorded as zero.
+     */
+    public void record(long value) {
+        long v = Math.max(0L, value);
+        counts.incrementAndGet(bucketIndex(v));
+        intervalMax.accumulate(v);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return The highest value that falls into the bucket
+     */
+    static long bucketUpperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + FIRST_EXPONENT;
+        int subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (subBucket + 1) * width - 1;
+    }
+
+    /**
+     * Captures the values recorded since the previous snapshot. Must not be called concurrently.
+     */
+    public synchronized Snapshot snapshotInterval() {
+        long[] interval = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long current = counts.get(i);
+            interval[i] = current - previousCounts[i];
+            previousCounts[i] = current;
+            total += interval[i];
+        }
+        return new Snapshot(interval, total, intervalMax.getThenReset());
+    }
+
+    /**
+     * Immutable view of the distribution recorded during one interval.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long totalCount;
+        private final long max;
+
+        private Snapshot(long[] counts, long totalCount, long max) {
+            this.counts = counts;
+            this.totalCount = totalCount;
+            this.max = max;
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * @param percentile Percentile between 0 and 100
+         * @return The upper bound of the bucket holding the requested percentile, capped at the maximum
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (totalCount == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
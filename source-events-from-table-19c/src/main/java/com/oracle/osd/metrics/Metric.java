@@ -0,0 +1,94 @@
+package com.oracle.osd.metrics;
+
+/**
+ * A named, labelled value registered in a {@link MetricsRegistry}.
+ */
+public abstract class Metric {
+
+    private final String name;
+    private final String help;
+    private final String[] labels;
+
+    Metric(String name, String help, String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels of metric " + name + " must be name/value pairs");
+        }
+        this.name = name;
+        this.help = help;
+        this.labels = labels.clone();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    /**
+     * @return The labels as alternating names and values
+     */
+    String[] labels() {
+        return labels;
+    }
+
+    /**
+     * Called when the identity of this metric is registered again; metrics that read their value
+     * from a source switch to the replacement's source, so the newest owner is reported.
+     */
+    void rebind(Metric replacement) {
+    }
+
+    /**
+     * @return The Prometheus metric type: counter, gauge or histogram
+     */
+    abstract String type();
+
+    /**
+     * Appends the samples of this metric in the Prometheus text exposition format.
+     */
+    abstract void writeSamples(StringBuilder out);
+
+    void writeSample(StringBuilder out, String sampleName, String extraLabel, String extraValue, double value) {
+        out.append(sampleName);
+        if (labels.length > 0 || extraLabel != null) {
+            out.append('{');
+            for (int i = 0; i < labels.length; i += 2) {
+                appendLabel(out, i > 0, labels[i], labels[i + 1]);
+            }
+            if (extraLabel != null) {
+                appendLabel(out, labels.length > 0, extraLabel, extraValue);
+            }
+            out.append('}');
+        }
+        out.append(' ').append(formatValue(value)).append('\n');
+    }
+
+    private static void appendLabel(StringBuilder out, boolean separator, String label, String value) {
+        if (separator) {
+            out.append(',');
+        }
+        out.append(label).append("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    static String formatValue(double value) {
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
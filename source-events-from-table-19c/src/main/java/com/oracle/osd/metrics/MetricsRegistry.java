@@ -0,0 +1,135 @@
+package com.oracle.osd.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide set of metrics shared by the consumer and the inserters. Every metric is
+ * registered as an MBean in the {@code com.oracle.osd.metrics} JMX domain when it is created, and
+ * the whole registry can be rendered in the Prometheus text format, see {@link PrometheusExporter}.
+ * <p>
+ * A metric is identified by its name and labels; registering the same identity again returns the
+ * existing metric, so components can look their metrics up instead of passing them around. A
+ * function counter or gauge registered again reads from the new source from then on, e.g. when a
+ * component is recreated. Registering an identity as a different kind of metric fails.
+ * Labels are given as alternating names and values, e.g. {@code "table", "ActionUpdatesTable"}.
+ */
+public class MetricsRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+    private static final String JMX_DOMAIN = "com.oracle.osd.metrics";
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry(true);
+
+    /** Sorted by identity, so the samples of one metric name are adjacent. */
+    private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+    private final boolean jmxEnabled;
+
+    public MetricsRegistry(boolean jmxEnabled) {
+        this.jmxEnabled = jmxEnabled;
+    }
+
+    /**
+     * @return The registry shared by all components of the process
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Returns the counter with the given name and labels, creating it if needed.
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return register(new Counter(name, help, labels), Counter.class);
+    }
+
+    /**
+     * Exposes a count maintained elsewhere, e.g. a {@code LongAdder} of a stats class, as a read-only
+     * counter.
+     */
+    public FunctionCounter functionCounter(String name, String help, LongSupplier source, String... labels) {
+        return register(new FunctionCounter(name, help, labels, source), FunctionCounter.class);
+    }
+
+    public Gauge gauge(String name, String help, DoubleSupplier source, String... labels) {
+        return register(new Gauge(name, help, labels, source), Gauge.class);
+    }
+
+    /**
+     * Returns the latency histogram with {@link Histogram#LATENCY_BOUNDS_SECONDS} buckets with the
+     * given name and labels, creating it if needed.
+     */
+    public Histogram histogram(String name, String help, String... labels) {
+        return register(new Histogram(name, help, labels, Histogram.LATENCY_BOUNDS_SECONDS), Histogram.class);
+    }
+
+    private <M extends Metric> M register(M metric, Class<M> type) {
+        String id = identity(metric);
+        Metric existing = metrics.putIfAbsent(id, metric);
+        if (existing != null) {
+            if (!type.isInstance(existing)) {
+                throw new IllegalArgumentException("Metric " + id + " is already registered as a "
+                        + existing.getClass().getSimpleName());
+            }
+            existing.rebind(metric);
+            return type.cast(existing);
+        }
+        if (jmxEnabled) {
+            registerMBean(metric);
+        }
+        return metric;
+    }
+
+    private static String identity(Metric metric) {
+        StringBuilder id = new StringBuilder(metric.getName()).append('{');
+        String[] labels = metric.labels();
+        for (int i = 0; i < labels.length; i += 2) {
+            id.append(i > 0 ? "," : "").append(labels[i]).append('=').append(labels[i + 1]);
+        }
+        return id.append('}').toString();
+    }
+
+    private static void registerMBean(Metric metric) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            StringBuilder objectName = new StringBuilder(JMX_DOMAIN).append(":type=").append(metric.type())
+                    .append(",name=").append(metric.getName());
+            String[] labels = metric.labels();
+            for (int i = 0; i < labels.length; i += 2) {
+                objectName.append(',').append(labels[i]).append('=').append(ObjectName.quote(labels[i + 1]));
+            }
+            server.registerMBean(metric, new ObjectName(objectName.toString()));
+        } catch (InstanceAlreadyExistsException e) {
+            logger.debug("MBean for metric {} is already registered", metric.getName());
+        } catch (JMException e) {
+            logger.warn("Failed to register metric {} with JMX: {}", metric.getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Renders all metrics in the Prometheus text exposition format, version 0.0.4.
+     */
+    public String toPrometheusText() {
+        StringBuilder out = new StringBuilder(4096);
+        String previousName = null;
+        for (Metric metric : metrics.values()) {
+            if (!metric.getName().equals(previousName)) {
+                out.append("# HELP ").append(metric.getName()).append(' ')
+                        .append(metric.getHelp().replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+                out.append("# TYPE ").append(metric.getName()).append(' ').append(metric.type()).append('\n');
+                previousName = metric.getName();
+            }
+            metric.writeSamples(out);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,85 @@
+package com.oracle.osd.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves a {@link MetricsRegistry} at {@code /metrics} in the Prometheus text format on the JDK's
+ * built-in HTTP server, from a single daemon thread.
+ */
+public class PrometheusExporter implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrometheusExporter.class);
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Starts serving the registry.
+     *
+     * @param port The port to listen on, 0 for any free port
+     * @throws UncheckedIOException if the port cannot be bound
+     */
+    public PrometheusExporter(MetricsRegistry registry, int port) {
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start metrics endpoint on port " + port, e);
+        }
+        server.createContext("/metrics", exchange -> serve(exchange, registry));
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.start();
+        logger.info("Prometheus metrics available at http://localhost:{}/metrics", server.getAddress().getPort());
+    }
+
+    /**
+     * Starts an exporter for the global registry if a port is configured.
+     *
+     * @param port The configured port; 0 or less disables the endpoint
+     * @return The exporter, or {@code null} if disabled
+     */
+    public static PrometheusExporter startIfEnabled(int port) {
+        return port > 0 ? new PrometheusExporter(MetricsRegistry.global(), port) : null;
+    }
+
+    private static void serve(HttpExchange exchange, MetricsRegistry registry) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = registry.toPrometheusText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -1,30 +1,22 @@
 package com.oracle.osd.processors;
 
+import com.oracle.osd.audit.AuditOutput;
 import com.oracle.osd.events.ActionEvent;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Processor for Action events from ActionUpdatesTopic.
  */
 public class ActionEventProcessor implements EventProcessor<ActionEvent> {
     
-    private static final Logger logger = LoggerFactory.getLogger(ActionEventProcessor.class);
+    private final AuditOutput auditOutput;
+    
+    public ActionEventProcessor(AuditOutput auditOutput) {
+        this.auditOutput = auditOutput;
+    }
     
     @Override
     public void processEvent(ActionEvent event, String subscriberName) {
-        logger.info("--- {} Event Details ---", getEventType());
-        logger.info("Action ID: {}", event.getActionId());
-        logger.info("Operation: {}", event.getAction());
-        logger.info("Notes: {}", event.getNotes());
-        logger.info("Event Timestamp: {}", event.getTimestamp());
-        
-        if (event.getNotesOld() != null && !event.getNotesOld().isEmpty()) {
-            logger.info("Previous Notes: {}", event.getNotesOld());
-        }
-        
-        logger.info("Processed by: {}", subscriberName);
-        logger.info("------------------------");
+        auditOutput.processed(getEventType(), "Action ID", event.getActionId(), event, subscriberName);
     }
     
     @Override
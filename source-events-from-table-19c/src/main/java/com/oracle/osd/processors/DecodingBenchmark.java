@@ -0,0 +1,139 @@
+package com.oracle.osd.processors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.osd.events.ActionEvent;
+import com.oracle.osd.events.BaseEvent;
+import com.oracle.osd.events.PaymentEvent;
+import com.oracle.osd.events.StatementEvent;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compares ops/sec and bytes allocated per message of the typed decoding paths: the original
+ * {@code objectMapper.readValue(text, X.class)} path with trim-based validation, prebuilt
+ * per-type readers, and prebuilt readers decoding into reusable event instances.
+ * <p>
+ * Payloads are generated up front and only decoding and validation are measured, on a single
+ * thread. Results are printed to stderr, e.g.
+ * {@code mvn -q exec:java -Dexec.mainClass="com.oracle.osd.processors.DecodingBenchmark" -Dexec.args="1000000"}
+ */
+public class DecodingBenchmark {
+
+    private static final int DEFAULT_MESSAGES = 1_000_000;
+    private static final int DISTINCT_PAYLOADS = 4096;
+    private static final String[] EVENT_TYPES = {"ACTION", "PAYMENT", "STATEMENT"};
+
+    public static void main(String[] args) throws Exception {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MESSAGES;
+        String[] payloads = createPayloads();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        EventDecoder readers = new EventDecoder(objectMapper, false);
+        EventDecoder reusing = new EventDecoder(objectMapper, true);
+
+        System.err.printf("Decoding benchmark: %d messages (ACTION/PAYMENT/STATEMENT round robin)%n", messages);
+        // Warm up every path so the first measured one is not penalised by JIT compilation
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            run(report ? "readValue(text, class)" : null, messages, payloads, (text, type) -> decodeLegacy(objectMapper, text, type));
+            run(report ? "prebuilt readers" : null, messages, payloads, (text, type) -> decode(readers, text, type));
+            run(report ? "prebuilt readers + reuse" : null, messages, payloads, (text, type) -> decode(reusing, text, type));
+        }
+    }
+
+    private static void run(String name, int messages, String[] payloads, Decoder decoder) throws Exception {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long decoded = 0;
+
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            int payload = i & (DISTINCT_PAYLOADS - 1);
+            if (decoder.decode(payloads[payload], EVENT_TYPES[payload % EVENT_TYPES.length]) != null) {
+                decoded++;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        if (name == null) {
+            return;
+        }
+        System.err.printf("%-26s %12.0f ops/sec %10.1f bytes/op %10.1f MB/sec allocated (%d decoded)%n",
+                name, messages / (elapsedNanos / 1_000_000_000.0), (double) allocated / messages,
+                allocated / (elapsedNanos / 1_000.0), decoded);
+    }
+
+    /**
+     * The decoding path MessageHandler used before prebuilt readers were introduced.
+     */
+    private static BaseEvent decodeLegacy(ObjectMapper objectMapper, String messageText, String eventType) throws Exception {
+        if (messageText == null || messageText.trim().isEmpty()) {
+            return null;
+        }
+        String trimmed = messageText.trim();
+        if (!trimmed.startsWith("{") || !trimmed.endsWith("}")) {
+            return null;
+        }
+        switch (eventType) {
+            case "ACTION": {
+                ActionEvent event = objectMapper.readValue(messageText, ActionEvent.class);
+                return event.getActionId() == null || event.getActionId().trim().isEmpty() ? null : event;
+            }
+            case "PAYMENT": {
+                PaymentEvent event = objectMapper.readValue(messageText, PaymentEvent.class);
+                return event.getPaymentId() == null || event.getPaymentId().trim().isEmpty() ? null : event;
+            }
+            default: {
+                StatementEvent event = objectMapper.readValue(messageText, StatementEvent.class);
+                return event.getPrimaryId() == null || event.getPrimaryId().trim().isEmpty() ? null : event;
+            }
+        }
+    }
+
+    private static BaseEvent decode(EventDecoder decoder, String messageText, String eventType) throws Exception {
+        if (!EventDecoder.isJsonObject(messageText)) {
+            return null;
+        }
+        switch (eventType) {
+            case "ACTION": {
+                ActionEvent event = decoder.decodeAction(messageText, 0);
+                return event.getActionId() == null || event.getActionId().isBlank() ? null : event;
+            }
+            case "PAYMENT": {
+                PaymentEvent event = decoder.decodePayment(messageText, 0);
+                return event.getPaymentId() == null || event.getPaymentId().isBlank() ? null : event;
+            }
+            default: {
+                StatementEvent event = decoder.decodeStatement(messageText, 0);
+                return event.getPrimaryId() == null || event.getPrimaryId().isBlank() ? null : event;
+            }
+        }
+    }
+
+    /**
+     * Payloads shaped like the ones the source tables' triggers enqueue, with surrounding
+     * whitespace so validation has to skip it.
+     */
+    private static String[] createPayloads() {
+        String[] payloads = new String[DISTINCT_PAYLOADS];
+        for (int i = 0; i < DISTINCT_PAYLOADS; i++) {
+            long now = System.currentTimeMillis();
+            String type = EVENT_TYPES[i % EVENT_TYPES.length];
+            String idField = switch (type) {
+                case "ACTION" -> "\"ActionId\": \"ACT-" + i + "\", \"Notes_Old\": \"Previous entry " + i + "\"";
+                case "PAYMENT" -> "\"PaymentId\": \"PAY-" + i + "\"";
+                default -> "\"StatementsId\": \"STM-" + i + "\"";
+            };
+            payloads[i] = "  { " + idField + ", \"Notes\": \"Entry: " + i + ", Timestamp: " + now
+                    + "\", \"Timestamp\": \"" + now + "\", \"Action\": \"UPDATE\" }\n";
+        }
+        return payloads;
+    }
+
+    @FunctionalInterface
+    private interface Decoder {
+        BaseEvent decode(String messageText, String eventType) throws Exception;
+    }
+}
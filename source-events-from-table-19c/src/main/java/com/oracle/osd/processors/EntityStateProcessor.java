@@ -0,0 +1,59 @@
+package com.oracle.osd.processors;
+
+import com.oracle.osd.events.ActionEvent;
+import com.oracle.osd.events.BaseEvent;
+import com.oracle.osd.events.PaymentEvent;
+import com.oracle.osd.events.StatementEvent;
+import com.oracle.osd.state.EntityStateView;
+
+import java.util.function.Function;
+
+/**
+ * Processor that feeds the latest state carried by each event into an {@link EntityStateView}.
+ */
+public class EntityStateProcessor<T extends BaseEvent> implements EventProcessor<T> {
+
+    private final String eventType;
+    private final EntityStateView view;
+    private final Function<T, String> idExtractor;
+
+    public EntityStateProcessor(String eventType, EntityStateView view, Function<T, String> idExtractor) {
+        this.eventType = eventType;
+        this.view = view;
+        this.idExtractor = idExtractor;
+    }
+
+    public static EntityStateProcessor<ActionEvent> forActions(EntityStateView view) {
+        return new EntityStateProcessor<>("ACTION", view, ActionEvent::getActionId);
+    }
+
+    public static EntityStateProcessor<PaymentEvent> forPayments(EntityStateView view) {
+        return new EntityStateProcessor<>("PAYMENT", view, PaymentEvent::getPaymentId);
+    }
+
+    public static EntityStateProcessor<StatementEvent> forStatements(EntityStateView view) {
+        return new EntityStateProcessor<>("STATEMENT", view, StatementEvent::getPrimaryId);
+    }
+
+    @Override
+    public void processEvent(T event, String subscriberName) {
+        view.update(eventType, idExtractor.apply(event), event.getAction(), event.getNotes(),
+                parseTimestamp(event.getTimestamp()));
+    }
+
+    private static long parseTimestamp(String timestamp) {
+        if (timestamp == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(timestamp.strip());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public String getEventType() {
+        return eventType;
+    }
+}
@@ -0,0 +1,109 @@
+package com.oracle.osd.processors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.oracle.osd.events.ActionEvent;
+import com.oracle.osd.events.BaseEvent;
+import com.oracle.osd.events.PaymentEvent;
+import com.oracle.osd.events.StatementEvent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Decodes message payloads into typed events with an {@link ObjectReader} prebuilt per event type,
+ * so no type lookup happens per message.
+ * <p>
+ * With event reuse enabled each thread decodes into its own pooled event instances instead of
+ * allocating a new event per message. A decoded event then stays valid only until the same thread
+ * decodes into the same slot again, so processors must not keep a reference to it after
+ * processing returns; {@link BaseEvent#copy()} creates a detached copy where one is needed.
+ * Slots allow several events of a batch to be held at the same time.
+ */
+public class EventDecoder {
+
+    private final TypedDecoder<ActionEvent> actionDecoder;
+    private final TypedDecoder<PaymentEvent> paymentDecoder;
+    private final TypedDecoder<StatementEvent> statementDecoder;
+
+    /**
+     * @param objectMapper Mapper the per-type readers are derived from
+     * @param reuseEvents  Whether to decode into per-thread reusable event instances
+     */
+    public EventDecoder(ObjectMapper objectMapper, boolean reuseEvents) {
+        this.actionDecoder = new TypedDecoder<>(objectMapper.readerFor(ActionEvent.class), ActionEvent::new, reuseEvents);
+        this.paymentDecoder = new TypedDecoder<>(objectMapper.readerFor(PaymentEvent.class), PaymentEvent::new, reuseEvents);
+        this.statementDecoder = new TypedDecoder<>(objectMapper.readerFor(StatementEvent.class), StatementEvent::new, reuseEvents);
+    }
+
+    public ActionEvent decodeAction(String messageText, int slot) throws IOException {
+        return actionDecoder.decode(messageText, slot);
+    }
+
+    public PaymentEvent decodePayment(String messageText, int slot) throws IOException {
+        return paymentDecoder.decode(messageText, slot);
+    }
+
+    public StatementEvent decodeStatement(String messageText, int slot) throws IOException {
+        return statementDecoder.decode(messageText, slot);
+    }
+
+    /**
+     * Checks that the payload looks like a JSON object, i.e. its first and last non-whitespace
+     * characters are braces, without trimming or otherwise copying the string.
+     *
+     * @param messageText The message payload
+     * @return true if the payload is a candidate JSON object
+     */
+    public static boolean isJsonObject(String messageText) {
+        if (messageText == null) {
+            return false;
+        }
+        int start = 0;
+        int end = messageText.length() - 1;
+        while (start <= end && Character.isWhitespace(messageText.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(messageText.charAt(end))) {
+            end--;
+        }
+        return end > start && messageText.charAt(start) == '{' && messageText.charAt(end) == '}';
+    }
+
+    private static final class TypedDecoder<T extends BaseEvent> {
+
+        private final ObjectReader reader;
+        private final Supplier<T> factory;
+        private final ThreadLocal<List<Slot<T>>> slots;
+
+        TypedDecoder(ObjectReader reader, Supplier<T> factory, boolean reuseEvents) {
+            this.reader = reader;
+            this.factory = factory;
+            this.slots = reuseEvents ? ThreadLocal.withInitial(ArrayList::new) : null;
+        }
+
+        T decode(String messageText, int slot) throws IOException {
+            if (slots == null) {
+                return reader.readValue(messageText);
+            }
+            Slot<T> reusable = slot(slot);
+            reusable.event().reset();
+            return reusable.reader().readValue(messageText);
+        }
+
+        private Slot<T> slot(int index) {
+            List<Slot<T>> threadSlots = slots.get();
+            while (threadSlots.size() <= index) {
+                // The updating reader is bound to its instance once, so decoding allocates no reader
+                T event = factory.get();
+                threadSlots.add(new Slot<>(event, reader.withValueToUpdate(event)));
+            }
+            return threadSlots.get(index);
+        }
+    }
+
+    private record Slot<T>(T event, ObjectReader reader) {
+    }
+}
@@ -2,6 +2,8 @@ package com.oracle.osd.processors;
 
 import com.oracle.osd.events.BaseEvent;
 
+import java.util.List;
+
 /**
  * Interface for event processors that handle specific event types.
  */
@@ -15,6 +17,20 @@ public interface EventProcessor<T extends BaseEvent> {
      */
     void processEvent(T event, String subscriberName);
 
+    /**
+     * Process a batch of parsed events received together. Processors that write to a database,
+     * file or cache should override this to perform one write for the whole batch; the default
+     * processes the events one at a time.
+     *
+     * @param events         The parsed events, in the order they were received
+     * @param subscriberName The name of the subscriber that received the messages
+     */
+    default void processBatch(List<T> events, String subscriberName) {
+        for (T event : events) {
+            processEvent(event, subscriberName);
+        }
+    }
+
     /**
      * Get the event type name for logging purposes.
      *
@@ -0,0 +1,96 @@
+package com.oracle.osd.processors;
+
+import com.oracle.osd.events.ActionEvent;
+import com.oracle.osd.events.BaseEvent;
+import com.oracle.osd.events.PaymentEvent;
+import com.oracle.osd.events.StatementEvent;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Sink processor that writes consumed events into a target table as part of the dequeue
+ * transaction, giving exactly-once delivery into the table. Rows are buffered in the
+ * {@link SinkBatch} bound by the consumer session and inserted in batches before the commit.
+ * <p>
+ * Register it after any processor with side effects outside the transaction: if a processor
+ * fails, the events of the failed batch are processed again one at a time.
+ */
+public class JdbcSinkProcessor<T extends BaseEvent> implements EventProcessor<T> {
+
+    private final String eventType;
+    private final String insertSql;
+    private final Function<T, Object[]> rowMapper;
+
+    /**
+     * @param eventType Event type the processor is registered for
+     * @param insertSql Insert statement whose parameters are the mapped row followed by the subscriber name
+     * @param rowMapper Maps an event to the statement's parameters, excluding the subscriber name
+     */
+    public JdbcSinkProcessor(String eventType, String insertSql, Function<T, Object[]> rowMapper) {
+        this.eventType = eventType;
+        this.insertSql = insertSql;
+        this.rowMapper = rowMapper;
+    }
+
+    public static JdbcSinkProcessor<ActionEvent> forActions(String table) {
+        return new JdbcSinkProcessor<>("ACTION",
+                "INSERT INTO " + table + " (ActionId, Action, Notes, NotesOld, EventTimestamp, Subscriber) VALUES (?, ?, ?, ?, ?, ?)",
+                event -> new Object[]{event.getActionId(), event.getAction(), event.getNotes(), event.getNotesOld(),
+                        parseTimestamp(event.getTimestamp())});
+    }
+
+    public static JdbcSinkProcessor<PaymentEvent> forPayments(String table) {
+        return new JdbcSinkProcessor<>("PAYMENT",
+                "INSERT INTO " + table + " (PaymentId, Action, Notes, EventTimestamp, Subscriber) VALUES (?, ?, ?, ?, ?)",
+                event -> new Object[]{event.getPaymentId(), event.getAction(), event.getNotes(),
+                        parseTimestamp(event.getTimestamp())});
+    }
+
+    public static JdbcSinkProcessor<StatementEvent> forStatements(String table) {
+        return new JdbcSinkProcessor<>("STATEMENT",
+                "INSERT INTO " + table + " (StatementsId, TransactionId, Action, Notes, EventTimestamp, Subscriber) VALUES (?, ?, ?, ?, ?, ?)",
+                event -> new Object[]{event.getStatementsId(), event.getTransactionId(), event.getAction(), event.getNotes(),
+                        parseTimestamp(event.getTimestamp())});
+    }
+
+    @Override
+    public void processEvent(T event, String subscriberName) {
+        addRow(SinkBatch.current(), event, subscriberName);
+    }
+
+    @Override
+    public void processBatch(List<T> events, String subscriberName) {
+        SinkBatch batch = SinkBatch.current();
+        for (T event : events) {
+            addRow(batch, event, subscriberName);
+        }
+    }
+
+    private void addRow(SinkBatch batch, T event, String subscriberName) {
+        Object[] values = rowMapper.apply(event);
+        Object[] row = new Object[values.length + 1];
+        System.arraycopy(values, 0, row, 0, values.length);
+        row[values.length] = subscriberName;
+        batch.add(insertSql, row);
+    }
+
+    /**
+     * @return The epoch milliseconds of the event, or {@code null} if the timestamp is not numeric
+     */
+    private static Long parseTimestamp(String timestamp) {
+        if (timestamp == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(timestamp.strip());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String getEventType() {
+        return eventType;
+    }
+}
@@ -1,14 +1,22 @@
 package com.oracle.osd.processors;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.osd.audit.AuditOutput;
+import com.oracle.osd.audit.LoggingAuditOutput;
 import com.oracle.osd.events.ActionEvent;
+import com.oracle.osd.events.BaseEvent;
 import com.oracle.osd.events.PaymentEvent;
 import com.oracle.osd.events.StatementEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 /**
  * Handles message parsing and routing to appropriate event processors.
@@ -18,17 +26,34 @@ public class MessageHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(MessageHandler.class);
 
-    private final ObjectMapper objectMapper;
-    private final Map<String, EventProcessor<?>> processors;
+    private final Map<String, EventRoute<?>> routes;
 
     public MessageHandler() {
-        this.objectMapper = new ObjectMapper();
-        this.processors = new HashMap<>();
+        this(new LoggingAuditOutput(LoggingAuditOutput.Format.VERBOSE));
+    }
+
+    /**
+     * @param auditOutput Destination for the processors' per-event audit records
+     */
+    public MessageHandler(AuditOutput auditOutput) {
+        this(auditOutput, false);
+    }
+
+    /**
+     * @param auditOutput Destination for the processors' per-event audit records
+     * @param reuseEvents Whether to decode into per-thread reusable event instances, see {@link EventDecoder}
+     */
+    public MessageHandler(AuditOutput auditOutput, boolean reuseEvents) {
+        EventDecoder decoder = new EventDecoder(new ObjectMapper(), reuseEvents);
+        this.routes = new HashMap<>();
 
         // Register event processors
-        processors.put("ACTION", new ActionEventProcessor());
-        processors.put("PAYMENT", new PaymentEventProcessor());
-        processors.put("STATEMENT", new StatementEventProcessor());
+        routes.put("ACTION", new EventRoute<>(new ActionEventProcessor(auditOutput),
+                decoder::decodeAction, this::isValidActionEvent));
+        routes.put("PAYMENT", new EventRoute<>(new PaymentEventProcessor(auditOutput),
+                decoder::decodePayment, this::isValidPaymentEvent));
+        routes.put("STATEMENT", new EventRoute<>(new StatementEventProcessor(auditOutput),
+                decoder::decodeStatement, this::isValidStatementEvent));
     }
 
     /**
@@ -37,94 +62,66 @@ public class MessageHandler {
      * @param messageText    The JSON message content
      * @param eventType      The type of event (ACTION, PAYMENT, STATEMENT)
      * @param subscriberName The subscriber that received the message
-     * @return true if message was processed successfully, false otherwise
+     * @return Whether the message was processed, rejected as invalid or failed in the processor
      */
-    public boolean processMessage(String messageText, String eventType, String subscriberName) {
-        if (!isValidJson(messageText)) {
-            logger.warn("Invalid JSON format for {} event from subscriber {}: {}", eventType, subscriberName, messageText);
-            return false;
-        }
-
-        try {
-            switch (eventType) {
-                case "ACTION":
-                    return processActionEvent(messageText, subscriberName);
-                case "PAYMENT":
-                    return processPaymentEvent(messageText, subscriberName);
-                case "STATEMENT":
-                    return processStatementEvent(messageText, subscriberName);
-                default:
-                    logger.warn("Unknown event type: {} from subscriber {}", eventType, subscriberName);
-                    return false;
-            }
-        } catch (Exception e) {
-            logger.error("Error processing {} event from subscriber {}: {}", eventType, subscriberName, e.getMessage());
-            logger.error("Malformed JSON rejected: {}", messageText);
-            return false;
+    public ProcessingOutcome processMessage(String messageText, String eventType, String subscriberName) {
+        EventRoute<?> route = route(eventType, subscriberName);
+        if (route == null) {
+            return ProcessingOutcome.REJECTED;
         }
+        return route.process(messageText, subscriberName);
     }
 
-    private boolean processActionEvent(String messageText, String subscriberName) {
-        try {
-            ActionEvent event = objectMapper.readValue(messageText, ActionEvent.class);
-            if (isValidActionEvent(event)) {
-                ActionEventProcessor processor = (ActionEventProcessor) processors.get("ACTION");
-                processor.processEvent(event, subscriberName);
-                return true;
-            }
-            return false;
-        } catch (Exception e) {
-            logger.error("Failed to parse ACTION event: {}", e.getMessage());
-            return false;
+    /**
+     * Process a batch of messages of one event type. Every message is parsed and validated, and the
+     * valid events are handed to the processor in a single
+     * {@link EventProcessor#processBatch(List, String)} call so it can amortise its I/O. If that
+     * call fails, the events are processed one at a time to find the ones that cannot be processed,
+     * so processors must tolerate seeing events of a failed batch again.
+     *
+     * @param messageTexts   The JSON message contents
+     * @param eventType      The type of event (ACTION, PAYMENT, STATEMENT)
+     * @param subscriberName The subscriber that received the messages
+     * @return The outcome of each message, in the order of {@code messageTexts}
+     */
+    public ProcessingOutcome[] processBatch(List<String> messageTexts, String eventType, String subscriberName) {
+        EventRoute<?> route = route(eventType, subscriberName);
+        if (route == null) {
+            ProcessingOutcome[] outcomes = new ProcessingOutcome[messageTexts.size()];
+            Arrays.fill(outcomes, ProcessingOutcome.REJECTED);
+            return outcomes;
         }
+        return route.processBatch(messageTexts, subscriberName);
     }
 
-    private boolean processPaymentEvent(String messageText, String subscriberName) {
-        try {
-            PaymentEvent event = objectMapper.readValue(messageText, PaymentEvent.class);
-            if (isValidPaymentEvent(event)) {
-                PaymentEventProcessor processor = (PaymentEventProcessor) processors.get("PAYMENT");
-                processor.processEvent(event, subscriberName);
-                return true;
-            }
-            return false;
-        } catch (Exception e) {
-            logger.error("Failed to parse PAYMENT event: {}", e.getMessage());
-            return false;
+    /**
+     * Registers an additional processor for the processor's event type. Processors run in
+     * registration order after the built-in audit processor; register them before consuming starts.
+     *
+     * @param processor The processor, whose {@link EventProcessor#getEventType()} selects the event type
+     * @throws IllegalArgumentException if the event type is unknown
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends BaseEvent> void addProcessor(EventProcessor<T> processor) {
+        EventRoute<T> route = (EventRoute<T>) routes.get(processor.getEventType());
+        if (route == null) {
+            throw new IllegalArgumentException("Unknown event type: " + processor.getEventType());
         }
+        route.addProcessor(processor);
+        logger.info("Registered {} for {} events", processor.getClass().getSimpleName(), processor.getEventType());
     }
 
-    private boolean processStatementEvent(String messageText, String subscriberName) {
-        try {
-            StatementEvent event = objectMapper.readValue(messageText, StatementEvent.class);
-            if (isValidStatementEvent(event)) {
-                StatementEventProcessor processor = (StatementEventProcessor) processors.get("STATEMENT");
-                processor.processEvent(event, subscriberName);
-                return true;
-            } else {
-                // Log the raw JSON when validation fails for debugging
-                logger.debug("STATEMENT validation failed. Raw JSON: {}", messageText);
-            }
-            return false;
-        } catch (Exception e) {
-            logger.error("Failed to parse STATEMENT event: {}", e.getMessage());
-            logger.debug("Problematic STATEMENT JSON: {}", messageText);
-            return false;
+    private EventRoute<?> route(String eventType, String subscriberName) {
+        EventRoute<?> route = routes.get(eventType);
+        if (route == null) {
+            logger.warn("Unknown event type: {} from subscriber {}", eventType, subscriberName);
         }
+        return route;
     }
 
     // Validation methods
-    private boolean isValidJson(String messageText) {
-        if (messageText == null || messageText.trim().isEmpty()) {
-            return false;
-        }
-
-        String trimmed = messageText.trim();
-        return trimmed.startsWith("{") && trimmed.endsWith("}");
-    }
-
     private boolean isValidActionEvent(ActionEvent event) {
-        if (event.getActionId() == null || event.getActionId().trim().isEmpty()) {
+        if (event.getActionId() == null || event.getActionId().isBlank()) {
             logger.warn("ACTION event missing required ActionId");
             return false;
         }
@@ -132,7 +129,7 @@ public class MessageHandler {
     }
 
     private boolean isValidPaymentEvent(PaymentEvent event) {
-        if (event.getPaymentId() == null || event.getPaymentId().trim().isEmpty()) {
+        if (event.getPaymentId() == null || event.getPaymentId().isBlank()) {
             logger.warn("PAYMENT event missing required PaymentId");
             return false;
         }
@@ -141,11 +138,121 @@ public class MessageHandler {
 
     private boolean isValidStatementEvent(StatementEvent event) {
         String primaryId = event.getPrimaryId();
-        if (primaryId == null || primaryId.trim().isEmpty()) {
+        if (primaryId == null || primaryId.isBlank()) {
             logger.warn("STATEMENT event missing required ID field. Event details: action='{}', notes='{}', timestamp='{}', statementsId='{}', transactionId='{}'",
                     event.getAction(), event.getNotes(), event.getTimestamp(), event.getStatementsId(), event.getTransactionId());
             return false;
         }
         return true;
     }
+
+    /**
+     * Decoding into an event instance; the slot selects the reusable instance when event reuse
+     * is enabled.
+     */
+    @FunctionalInterface
+    private interface Decode<T extends BaseEvent> {
+        T decode(String messageText, int slot) throws IOException;
+    }
+
+    /**
+     * Parsing, validation and processing of one event type.
+     */
+    private static final class EventRoute<T extends BaseEvent> {
+
+        private final String eventType;
+        private final List<EventProcessor<T>> processors = new ArrayList<>();
+        private final Decode<T> decode;
+        private final Predicate<T> validator;
+
+        EventRoute(EventProcessor<T> processor, Decode<T> decode, Predicate<T> validator) {
+            this.eventType = processor.getEventType();
+            this.processors.add(processor);
+            this.decode = decode;
+            this.validator = validator;
+        }
+
+        void addProcessor(EventProcessor<T> processor) {
+            processors.add(processor);
+        }
+
+        ProcessingOutcome process(String messageText, String subscriberName) {
+            T event = decodeValid(messageText, 0, subscriberName);
+            if (event == null) {
+                return ProcessingOutcome.REJECTED;
+            }
+            return processEvent(event, 0, subscriberName);
+        }
+
+        ProcessingOutcome[] processBatch(List<String> messageTexts, String subscriberName) {
+            ProcessingOutcome[] outcomes = new ProcessingOutcome[messageTexts.size()];
+            List<T> events = new ArrayList<>(messageTexts.size());
+            for (int i = 0; i < messageTexts.size(); i++) {
+                T event = decodeValid(messageTexts.get(i), events.size(), subscriberName);
+                if (event != null) {
+                    events.add(event);
+                    outcomes[i] = ProcessingOutcome.PROCESSED;
+                } else {
+                    outcomes[i] = ProcessingOutcome.REJECTED;
+                }
+            }
+            if (events.isEmpty()) {
+                return outcomes;
+            }
+
+            for (int p = 0; p < processors.size(); p++) {
+                try {
+                    processors.get(p).processBatch(events, subscriberName);
+                } catch (RuntimeException e) {
+                    // Processors before this one handled the whole batch; isolate the failing events from here on
+                    logger.error("Error processing batch of {} {} events from subscriber {}, retrying them one at a time: {}",
+                            events.size(), eventType, subscriberName, e.getMessage());
+                    int next = 0;
+                    for (int i = 0; i < outcomes.length; i++) {
+                        if (outcomes[i] == ProcessingOutcome.PROCESSED) {
+                            outcomes[i] = processEvent(events.get(next++), p, subscriberName);
+                        }
+                    }
+                    break;
+                }
+            }
+            return outcomes;
+        }
+
+        /**
+         * Runs the event through the processors, starting at {@code firstProcessor}.
+         */
+        private ProcessingOutcome processEvent(T event, int firstProcessor, String subscriberName) {
+            try {
+                for (int p = firstProcessor; p < processors.size(); p++) {
+                    processors.get(p).processEvent(event, subscriberName);
+                }
+                return ProcessingOutcome.PROCESSED;
+            } catch (RuntimeException e) {
+                logger.error("Error processing {} event from subscriber {}: {}",
+                        eventType, subscriberName, e.getMessage());
+                return ProcessingOutcome.FAILED;
+            }
+        }
+
+        private T decodeValid(String messageText, int slot, String subscriberName) {
+            if (!EventDecoder.isJsonObject(messageText)) {
+                logger.warn("Invalid JSON format for {} event from subscriber {}: {}", eventType, subscriberName, messageText);
+                return null;
+            }
+            try {
+                T event = decode.decode(messageText, slot);
+                if (validator.test(event)) {
+                    return event;
+                }
+                // Log the raw JSON when validation fails for debugging
+                logger.debug("{} validation failed. Raw JSON: {}", eventType, messageText);
+                return null;
+            } catch (IOException e) {
+                logger.error("Failed to parse {} event: {}", eventType, e.getMessage());
+                logger.debug("Problematic {} JSON: {}", eventType, messageText);
+                return null;
+            }
+        }
+    }
 }
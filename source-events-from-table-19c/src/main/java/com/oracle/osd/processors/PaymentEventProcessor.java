@@ -1,25 +1,22 @@
 package com.oracle.osd.processors;
 
+import com.oracle.osd.audit.AuditOutput;
 import com.oracle.osd.events.PaymentEvent;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Processor for Payment events from PaymentUpdatesTopic.
  */
 public class PaymentEventProcessor implements EventProcessor<PaymentEvent> {
     
-    private static final Logger logger = LoggerFactory.getLogger(PaymentEventProcessor.class);
+    private final AuditOutput auditOutput;
+    
+    public PaymentEventProcessor(AuditOutput auditOutput) {
+        this.auditOutput = auditOutput;
+    }
     
     @Override
     public void processEvent(PaymentEvent event, String subscriberName) {
-        logger.info("--- {} Event Details ---", getEventType());
-        logger.info("Payment ID: {}", event.getPaymentId());
-        logger.info("Operation: {}", event.getAction());
-        logger.info("Notes: {}", event.getNotes());
-        logger.info("Event Timestamp: {}", event.getTimestamp());
-        logger.info("Processed by: {}", subscriberName);
-        logger.info("------------------------");
+        auditOutput.processed(getEventType(), "Payment ID", event.getPaymentId(), event, subscriberName);
     }
     
     @Override
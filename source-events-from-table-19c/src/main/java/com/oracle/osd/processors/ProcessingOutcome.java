@@ -0,0 +1,24 @@
+package com.oracle.osd.processors;
+
+/**
+ * Result of handling a single message.
+ */
+public enum ProcessingOutcome {
+
+    /**
+     * The event was parsed, validated and processed.
+     */
+    PROCESSED,
+
+    /**
+     * The message can never be processed: malformed JSON, missing required fields or an unknown
+     * event type. Retrying it is pointless.
+     */
+    REJECTED,
+
+    /**
+     * The processor failed on a valid event. The failure may be transient, so the message is
+     * worth retrying.
+     */
+    FAILED
+}
@@ -0,0 +1,118 @@
+package com.oracle.osd.processors;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rows written by sink processors within one dequeue transaction. Processors only buffer rows
+ * here; the consumer session flushes them with JDBC array inserts on the connection of its
+ * transacted JMS session right before committing, so the dequeue and the writes commit or roll
+ * back together.
+ * <p>
+ * The consumer session binds its batch to the thread that runs the processors, which may be a
+ * pipeline worker, so adding rows is thread safe.
+ */
+public class SinkBatch {
+
+    private static final ThreadLocal<SinkBatch> CURRENT = new ThreadLocal<>();
+
+    private final int maxRowsPerExecute;
+    private final Map<String, List<Object[]>> rowsByStatement = new LinkedHashMap<>();
+    private int size;
+
+    /**
+     * @param maxRowsPerExecute Largest number of rows sent in one {@code executeBatch()} round trip
+     */
+    public SinkBatch(int maxRowsPerExecute) {
+        this.maxRowsPerExecute = Math.max(1, maxRowsPerExecute);
+    }
+
+    /**
+     * @return The batch of the transaction being processed on this thread
+     * @throws IllegalStateException if no consumer transaction is bound to the thread
+     */
+    public static SinkBatch current() {
+        SinkBatch batch = CURRENT.get();
+        if (batch == null) {
+            throw new IllegalStateException("JDBC sink used outside of a consumer transaction");
+        }
+        return batch;
+    }
+
+    /**
+     * Makes this batch the target of sink processors running on the current thread.
+     */
+    public void bind() {
+        CURRENT.set(this);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Buffers a row for the given insert statement. {@code null} values are written as NULL.
+     */
+    public synchronized void add(String insertSql, Object[] row) {
+        rowsByStatement.computeIfAbsent(insertSql, sql -> new ArrayList<>()).add(row);
+        size++;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Writes all buffered rows with one prepared statement per target table. The caller commits.
+     *
+     * @param connection The connection of the transacted JMS session
+     * @return The number of rows written
+     */
+    public int flush(Connection connection) throws SQLException {
+        Map<String, List<Object[]>> pending;
+        int rows;
+        synchronized (this) {
+            pending = new LinkedHashMap<>(rowsByStatement);
+            rows = size;
+            rowsByStatement.clear();
+            size = 0;
+        }
+
+        for (Map.Entry<String, List<Object[]>> entry : pending.entrySet()) {
+            try (PreparedStatement pstmt = connection.prepareStatement(entry.getKey())) {
+                int batched = 0;
+                for (Object[] row : entry.getValue()) {
+                    for (int i = 0; i < row.length; i++) {
+                        if (row[i] == null) {
+                            pstmt.setNull(i + 1, Types.VARCHAR);
+                        } else {
+                            pstmt.setObject(i + 1, row[i]);
+                        }
+                    }
+                    pstmt.addBatch();
+                    if (++batched % maxRowsPerExecute == 0) {
+                        pstmt.executeBatch();
+                    }
+                }
+                if (batched % maxRowsPerExecute != 0) {
+                    pstmt.executeBatch();
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Discards buffered rows, e.g. after the transaction was rolled back.
+     */
+    public synchronized void clear() {
+        rowsByStatement.clear();
+        size = 0;
+    }
+}
@@ -1,8 +1,7 @@
 package com.oracle.osd.processors;
 
+import com.oracle.osd.audit.AuditOutput;
 import com.oracle.osd.events.StatementEvent;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Processor for Statement events from TransactionStatementTopic.
@@ -10,17 +9,15 @@ import org.slf4j.LoggerFactory;
  */
 public class StatementEventProcessor implements EventProcessor<StatementEvent> {
     
-    private static final Logger logger = LoggerFactory.getLogger(StatementEventProcessor.class);
+    private final AuditOutput auditOutput;
+    
+    public StatementEventProcessor(AuditOutput auditOutput) {
+        this.auditOutput = auditOutput;
+    }
     
     @Override
     public void processEvent(StatementEvent event, String subscriberName) {
-        logger.info("--- {} Event Details ---", getEventType());
-        logger.info("{}: {}", event.getIdFieldName(), event.getPrimaryId());
-        logger.info("Operation: {}", event.getAction());
-        logger.info("Notes: {}", event.getNotes());
-        logger.info("Event Timestamp: {}", event.getTimestamp());
-        logger.info("Processed by: {}", subscriberName);
-        logger.info("------------------------");
+        auditOutput.processed(getEventType(), event.getIdFieldName(), event.getPrimaryId(), event, subscriberName);
     }
     
     @Override
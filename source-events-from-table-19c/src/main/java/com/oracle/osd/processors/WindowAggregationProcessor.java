@@ -0,0 +1,57 @@
+package com.oracle.osd.processors;
+
+import com.oracle.osd.aggregation.WindowedAggregator;
+import com.oracle.osd.events.ActionEvent;
+import com.oracle.osd.events.BaseEvent;
+import com.oracle.osd.events.PaymentEvent;
+import com.oracle.osd.events.StatementEvent;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Processor that counts each event in the windows of a {@link WindowedAggregator}, at the time it
+ * is processed.
+ */
+public class WindowAggregationProcessor<T extends BaseEvent> implements EventProcessor<T> {
+
+    private final String eventType;
+    private final WindowedAggregator aggregator;
+    private final Function<T, String> idExtractor;
+
+    public WindowAggregationProcessor(String eventType, WindowedAggregator aggregator, Function<T, String> idExtractor) {
+        this.eventType = eventType;
+        this.aggregator = aggregator;
+        this.idExtractor = idExtractor;
+    }
+
+    public static WindowAggregationProcessor<ActionEvent> forActions(WindowedAggregator aggregator) {
+        return new WindowAggregationProcessor<>("ACTION", aggregator, ActionEvent::getActionId);
+    }
+
+    public static WindowAggregationProcessor<PaymentEvent> forPayments(WindowedAggregator aggregator) {
+        return new WindowAggregationProcessor<>("PAYMENT", aggregator, PaymentEvent::getPaymentId);
+    }
+
+    public static WindowAggregationProcessor<StatementEvent> forStatements(WindowedAggregator aggregator) {
+        return new WindowAggregationProcessor<>("STATEMENT", aggregator, StatementEvent::getPrimaryId);
+    }
+
+    @Override
+    public void processEvent(T event, String subscriberName) {
+        aggregator.record(eventType, event.getAction(), idExtractor.apply(event), System.currentTimeMillis());
+    }
+
+    @Override
+    public void processBatch(List<T> events, String subscriberName) {
+        long now = System.currentTimeMillis();
+        for (T event : events) {
+            aggregator.record(eventType, event.getAction(), idExtractor.apply(event), now);
+        }
+    }
+
+    @Override
+    public String getEventType() {
+        return eventType;
+    }
+}
@@ -0,0 +1,12 @@
+package com.oracle.osd.state;
+
+/**
+ * Latest known state of a single entity, as returned by {@link EntityStateView#get(String, String)}.
+ *
+ * @param id        The entity ID, e.g. {@code ACT-1234}
+ * @param action    The operation of the latest event (INSERT, UPDATE)
+ * @param notes     The notes carried by the latest event
+ * @param timestamp The epoch milliseconds of the latest event, or 0 if it had none
+ */
+public record EntityState(String id, String action, String notes, long timestamp) {
+}
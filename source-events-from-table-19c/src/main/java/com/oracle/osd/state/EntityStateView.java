@@ -0,0 +1,297 @@
+package com.oracle.osd.state;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory materialized view of the latest state of every entity seen by the consumer, kept per
+ * event type and keyed by the entity ID (ActionId, PaymentId, StatementsId or TransactionId).
+ * <p>
+ * IDs of the form {@code <prefix><digits>}, such as {@code ACT-1234}, are stored as a single
+ * {@code long}: an index into a small table of interned prefixes plus the parsed number. Entries
+ * live in open-addressing parallel arrays (key, timestamp, action code, notes), so an entity costs
+ * a few bytes plus its notes string, and a lookup allocates nothing but the returned state. IDs that
+ * do not fit this form, or whose prefix is not among the first {@value #MAX_PREFIXES} seen, fall
+ * back to a regular map. An update only replaces the state if its timestamp is not older than the
+ * stored one, so events processed out of order cannot overwrite newer state.
+ * <p>
+ * Updates from consumer sessions are serialized per event type; lookups from any thread are
+ * optimistic and only take the lock if they raced with an update.
+ */
+public class EntityStateView {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityStateView.class);
+
+    private static final int NUMBER_BITS = 48;
+    private static final long MAX_NUMBER = (1L << NUMBER_BITS) - 1;
+    /**
+     * Prefixes are found by a linear scan on every update and lookup, so only a few are interned;
+     * IDs with further prefixes go to the fallback map. The packed key could address 32767.
+     */
+    private static final int MAX_PREFIXES = 64;
+    private static final int MAX_ACTIONS = 127;
+
+    private final int initialCapacity;
+    private final Map<String, Store> stores = new ConcurrentHashMap<>();
+
+    /**
+     * @param initialCapacity Number of entities per event type the view is sized for up front
+     */
+    public EntityStateView(int initialCapacity) {
+        this.initialCapacity = Math.max(16, initialCapacity);
+    }
+
+    /**
+     * Records the state carried by an event, unless a newer state is already known.
+     *
+     * @param eventType The event type (ACTION, PAYMENT, STATEMENT)
+     * @param id        The entity ID
+     * @param action    The operation of the event
+     * @param notes     The notes carried by the event
+     * @param timestamp The epoch milliseconds of the event, 0 if unknown
+     */
+    public void update(String eventType, String id, String action, String notes, long timestamp) {
+        stores.computeIfAbsent(eventType, type -> new Store(initialCapacity)).update(id, action, notes, timestamp);
+    }
+
+    /**
+     * Looks up the latest state of an entity.
+     *
+     * @param eventType The event type (ACTION, PAYMENT, STATEMENT)
+     * @param id        The entity ID
+     * @return The latest state, or empty if no event for the entity has been consumed
+     */
+    public Optional<EntityState> get(String eventType, String id) {
+        Store store = stores.get(eventType);
+        return store != null ? Optional.ofNullable(store.get(id)) : Optional.empty();
+    }
+
+    /**
+     * @return The number of entities of the event type in the view
+     */
+    public int size(String eventType) {
+        Store store = stores.get(eventType);
+        return store != null ? store.size() : 0;
+    }
+
+    public void logReport() {
+        StringBuilder sizes = new StringBuilder();
+        stores.forEach((type, store) -> sizes.append(sizes.isEmpty() ? "" : ", ").append(type).append('=').append(store.size()));
+        logger.info("Entity state view: {}", sizes.isEmpty() ? "empty" : sizes);
+    }
+
+    /**
+     * Entities of one event type.
+     */
+    private static final class Store {
+
+        private final StampedLock lock = new StampedLock();
+        /** Interned ID prefixes, e.g. "ACT-"; the index is part of the packed key. */
+        private volatile String[] prefixes = new String[0];
+        /** Interned action names; the index is the stored action code. */
+        private volatile String[] actions = new String[0];
+        private volatile Table table;
+        /** Entities whose ID cannot be packed into a key. */
+        private final Map<String, EntityState> fallback = new ConcurrentHashMap<>();
+
+        Store(int initialCapacity) {
+            this.table = new Table(Integer.highestOneBit(initialCapacity * 2 - 1) << 1);
+        }
+
+        void update(String id, String action, String notes, long timestamp) {
+            long stamp = lock.writeLock();
+            try {
+                long key = packedKey(id, true);
+                if (key == 0) {
+                    EntityState current = fallback.get(id);
+                    if (current == null || timestamp >= current.timestamp()) {
+                        fallback.put(id, new EntityState(id, action, notes, timestamp));
+                    }
+                    return;
+                }
+                if ((table.size + 1) * 2 > table.keys.length) {
+                    table = table.resized();
+                }
+                table.put(key, actionCode(action), notes, timestamp);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        EntityState get(String id) {
+            long stamp = lock.tryOptimisticRead();
+            EntityState state = read(id);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    state = read(id);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return state;
+        }
+
+        /**
+         * Reads without locking; the caller validates the result against concurrent updates.
+         */
+        private EntityState read(String id) {
+            long key = packedKey(id, false);
+            if (key == 0) {
+                return fallback.get(id);
+            }
+            Table current = table;
+            int slot = current.find(key);
+            if (slot < 0) {
+                return null;
+            }
+            String[] actionNames = actions;
+            int code = current.actions[slot];
+            String action = code < actionNames.length ? actionNames[code] : null;
+            return new EntityState(id, action, current.notes[slot], current.timestamps[slot]);
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return table.size + fallback.size();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Packs an ID of the form {@code <prefix><digits>} into a non-zero key without copying it.
+         *
+         * @param register Whether an unknown prefix may be added to the prefix table
+         * @return The key, or 0 if the ID cannot be packed
+         */
+        private long packedKey(String id, boolean register) {
+            int digitsStart = id.length();
+            while (digitsStart > 0 && isAsciiDigit(id.charAt(digitsStart - 1))) {
+                digitsStart--;
+            }
+            int digits = id.length() - digitsStart;
+            // Leading zeros would make different IDs pack to the same number
+            if (digits == 0 || digits > 15 || (digits > 1 && id.charAt(digitsStart) == '0')) {
+                return 0;
+            }
+            long number = 0;
+            for (int i = digitsStart; i < id.length(); i++) {
+                number = number * 10 + (id.charAt(i) - '0');
+            }
+            if (number > MAX_NUMBER) {
+                return 0;
+            }
+            int prefix = prefixIndex(id, digitsStart, register);
+            return prefix < 0 ? 0 : ((long) (prefix + 1) << NUMBER_BITS) | number;
+        }
+
+        private static boolean isAsciiDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        private int prefixIndex(String id, int prefixLength, boolean register) {
+            String[] known = prefixes;
+            for (int i = 0; i < known.length; i++) {
+                if (known[i].length() == prefixLength && id.regionMatches(0, known[i], 0, prefixLength)) {
+                    return i;
+                }
+            }
+            if (!register || known.length >= MAX_PREFIXES) {
+                return -1;
+            }
+            String[] grown = Arrays.copyOf(known, known.length + 1);
+            grown[known.length] = id.substring(0, prefixLength);
+            prefixes = grown;
+            return known.length;
+        }
+
+        private byte actionCode(String action) {
+            String[] known = actions;
+            for (int i = 0; i < known.length; i++) {
+                if (known[i].equals(action)) {
+                    return (byte) i;
+                }
+            }
+            if (action == null || known.length >= MAX_ACTIONS) {
+                return (byte) MAX_ACTIONS;
+            }
+            String[] grown = Arrays.copyOf(known, known.length + 1);
+            grown[known.length] = action;
+            actions = grown;
+            return (byte) known.length;
+        }
+    }
+
+    /**
+     * Open-addressing table with linear probing over parallel arrays. Entries are never removed.
+     */
+    private static final class Table {
+
+        final long[] keys;
+        final long[] timestamps;
+        final byte[] actions;
+        final String[] notes;
+        int size;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.timestamps = new long[capacity];
+            this.actions = new byte[capacity];
+            this.notes = new String[capacity];
+        }
+
+        int find(long key) {
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask), probes = 0; probes < keys.length; i = (i + 1) & mask, probes++) {
+                long k = keys[i];
+                if (k == key) {
+                    return i;
+                }
+                if (k == 0) {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, byte action, String note, long timestamp) {
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (keys[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == 0) {
+                size++;
+            } else if (timestamp < timestamps[i]) {
+                return;
+            }
+            timestamps[i] = timestamp;
+            actions[i] = action;
+            notes[i] = note;
+            keys[i] = key;
+        }
+
+        Table resized() {
+            Table grown = new Table(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    grown.put(keys[i], actions[i], notes[i], timestamps[i]);
+                }
+            }
+            return grown;
+        }
+
+        private static int slot(long key, int mask) {
+            long h = key * 0x9e3779b97f4a7c15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
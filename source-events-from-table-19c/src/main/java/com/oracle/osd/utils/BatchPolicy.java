@@ -0,0 +1,170 @@
+package com.oracle.osd.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides how many rows {@link DatabaseUtils#processRecordsInBatches} puts into each JDBC batch and
+ * how many executed rows it commits at once.
+ * <p>
+ * A fixed policy always uses the same batch size. An adaptive policy searches for the batch size
+ * with the most rows/sec while {@code executeBatch} stays within a latency bound, using additive
+ * increase and multiplicative decrease: every full batch executed within the bound grows the next
+ * one by a fixed step, as long as the throughput of the larger size keeps up with the best one
+ * seen; if it falls behind, the policy returns to the best size. A batch over the bound halves the
+ * size. With per-row trigger enqueues the best size differs a lot between databases, so it is
+ * measured rather than configured.
+ * <p>
+ * Holds the state of one connection's load and must only be used by one thread.
+ */
+public class BatchPolicy {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchPolicy.class);
+
+    /**
+     * Larger batches are only kept if they reach this share of the best throughput seen.
+     */
+    private static final double KEEP_GROWING_RATIO = 0.95;
+    private static final double SMOOTHING = 0.3;
+
+    private final int commitInterval;
+    private final boolean adaptive;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int step;
+    private final long latencyBoundNanos;
+    /** Smoothed rows/sec per measured batch size. */
+    private final Map<Integer, Double> ratesBySize = new HashMap<>();
+
+    private int batchSize;
+    private int bestBatchSize;
+    private double bestRowsPerSecond;
+    private long lastLatencyNanos;
+    private int decreases;
+
+    private BatchPolicy(int batchSize, int commitInterval, boolean adaptive, int minBatchSize, int maxBatchSize,
+                        int step, long latencyBoundNanos) {
+        this.batchSize = batchSize;
+        this.bestBatchSize = batchSize;
+        this.commitInterval = Math.max(1, commitInterval);
+        this.adaptive = adaptive;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.step = step;
+        this.latencyBoundNanos = latencyBoundNanos;
+    }
+
+    /**
+     * A policy that commits after every batch of {@code batchSize} rows.
+     */
+    public static BatchPolicy fixed(int batchSize) {
+        return fixed(batchSize, batchSize);
+    }
+
+    /**
+     * @param batchSize      Rows per JDBC batch
+     * @param commitInterval Rows executed before a commit; rounded up to whole batches
+     */
+    public static BatchPolicy fixed(int batchSize, int commitInterval) {
+        int size = Math.max(1, batchSize);
+        return new BatchPolicy(size, commitInterval, false, size, size, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param initialBatchSize   Batch size the search starts from
+     * @param minBatchSize       Smallest batch size the search goes down to
+     * @param maxBatchSize       Largest batch size the search goes up to
+     * @param step               Rows added to the batch size after a batch within the latency bound
+     * @param latencyBoundMillis Longest acceptable {@code executeBatch} call
+     * @param commitInterval     Rows executed before a commit; rounded up to whole batches
+     */
+    public static BatchPolicy adaptive(int initialBatchSize, int minBatchSize, int maxBatchSize, int step,
+                                       long latencyBoundMillis, int commitInterval) {
+        int min = Math.max(1, minBatchSize);
+        int max = Math.max(min, maxBatchSize);
+        return new BatchPolicy(Math.clamp(initialBatchSize, min, max), commitInterval, true, min, max,
+                Math.max(1, step), TimeUnit.MILLISECONDS.toNanos(Math.max(1, latencyBoundMillis)));
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getCommitInterval() {
+        return commitInterval;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * The batch size with the best throughput within the latency bound so far.
+     */
+    public int getBestBatchSize() {
+        return bestBatchSize;
+    }
+
+    /**
+     * Feeds the latency of an executed batch into the search for the next batch size.
+     * Partial batches, such as the last one of a load, are ignored.
+     *
+     * @param rows         Rows in the batch
+     * @param executeNanos Duration of the {@code executeBatch} call
+     */
+    void recordBatch(int rows, long executeNanos) {
+        if (!adaptive || rows != batchSize || executeNanos <= 0) {
+            return;
+        }
+        lastLatencyNanos = executeNanos;
+
+        if (executeNanos > latencyBoundNanos) {
+            int reduced = Math.max(minBatchSize, batchSize / 2);
+            if (batchSize == bestBatchSize) {
+                // The best size no longer meets the bound, start the search over from below
+                bestBatchSize = reduced;
+                bestRowsPerSecond = 0;
+            }
+            ratesBySize.remove(batchSize);
+            decreases++;
+            changeBatchSize(reduced, "latency " + TimeUnit.NANOSECONDS.toMillis(executeNanos) + " ms over the bound");
+            return;
+        }
+
+        double rate = rows * 1e9 / executeNanos;
+        double smoothed = ratesBySize.merge(batchSize, rate, (prev, next) -> prev + SMOOTHING * (next - prev));
+        if (batchSize == bestBatchSize || smoothed > bestRowsPerSecond) {
+            bestBatchSize = batchSize;
+            bestRowsPerSecond = smoothed;
+        }
+
+        if (smoothed >= bestRowsPerSecond * KEEP_GROWING_RATIO) {
+            changeBatchSize(Math.min(maxBatchSize, batchSize + step), "within the latency bound");
+        } else {
+            changeBatchSize(bestBatchSize, "lower throughput than " + bestBatchSize + " rows");
+        }
+    }
+
+    private void changeBatchSize(int next, String reason) {
+        if (next != batchSize) {
+            logger.debug("Batch size {} -> {} ({})", batchSize, next, reason);
+            batchSize = next;
+        }
+    }
+
+    /**
+     * Logs the batch size the adaptive search converged on. Does nothing for a fixed policy.
+     */
+    void logSummary(String table) {
+        if (!adaptive) {
+            return;
+        }
+        logger.info("Adaptive batch size for {} converged on {} rows ({} rows/sec per batch, last batch {} ms, bound {} ms, {} decreases)",
+                table, bestBatchSize, String.format("%.0f", bestRowsPerSecond),
+                TimeUnit.NANOSECONDS.toMillis(lastLatencyNanos), TimeUnit.NANOSECONDS.toMillis(latencyBoundNanos), decreases);
+    }
+}
@@ -1,13 +1,24 @@
 package com.oracle.osd.utils;
 
-import oracle.jdbc.pool.OracleDataSource;
+import com.oracle.osd.config.PoolConfig;
+import com.oracle.osd.metrics.Counter;
+import com.oracle.osd.metrics.Histogram;
+import com.oracle.osd.metrics.MetricsRegistry;
+import oracle.ucp.jdbc.PoolDataSource;
+import oracle.ucp.jdbc.PoolDataSourceFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
 
 public class DatabaseUtils {
 
@@ -17,44 +28,93 @@ public class DatabaseUtils {
     private static final String USERNAME = "replace_me_username";
     private static final String PASSWORD = "replace_me_password";
 
+    private static final String POOL_NAME = "source-events-pool";
+    private static volatile PoolDataSource pooledDataSource;
+
     /**
-     * Creates and returns an Oracle DataSource with the configured connection parameters.
+     * Returns the process-wide pooled DataSource shared by all inserters and consumers,
+     * creating it from database-pool.properties on first use.
      *
-     * @return OracleDataSource configured with connection details
-     * @throws RuntimeException if there's an error creating the data source
+     * @return The shared UCP PoolDataSource
+     * @throws RuntimeException if there's an error creating the pool
      */
-    public static OracleDataSource createDataSource() {
+    public static PoolDataSource getPooledDataSource() {
+        PoolDataSource pds = pooledDataSource;
+        if (pds == null) {
+            synchronized (DatabaseUtils.class) {
+                if (pooledDataSource == null) {
+                    pooledDataSource = createPooledDataSource(new PoolConfig());
+                }
+                pds = pooledDataSource;
+            }
+        }
+        return pds;
+    }
+
+    private static PoolDataSource createPooledDataSource(PoolConfig poolConfig) {
         try {
-            OracleDataSource ds = new OracleDataSource();
-            ds.setURL(URL);
-            ds.setUser(USERNAME);
-            ds.setPassword(PASSWORD);
-            logger.debug("DataSource created with URL: {}", URL);
-            return ds;
+            PoolDataSource pds = PoolDataSourceFactory.getPoolDataSource();
+            pds.setConnectionFactoryClassName("oracle.jdbc.pool.OracleDataSource");
+            pds.setConnectionPoolName(POOL_NAME);
+            pds.setURL(URL);
+            pds.setUser(USERNAME);
+            pds.setPassword(PASSWORD);
+            pds.setInitialPoolSize(poolConfig.getInitialPoolSize());
+            pds.setMinPoolSize(poolConfig.getMinPoolSize());
+            pds.setMaxPoolSize(poolConfig.getMaxPoolSize());
+            pds.setConnectionWaitDuration(Duration.ofSeconds(poolConfig.getConnectionWaitTimeoutSeconds()));
+            pds.setInactiveConnectionTimeout(poolConfig.getInactiveConnectionTimeoutSeconds());
+            pds.setMaxStatements(poolConfig.getMaxStatements());
+            pds.setValidateConnectionOnBorrow(poolConfig.isValidateOnBorrow());
+            pds.setSQLForValidateConnection(poolConfig.getValidationSql());
+
+            poolConfig.logConfiguration();
+            registerPoolMetrics(pds);
+            logger.info("Connection pool {} created for URL: {}", POOL_NAME, URL);
+            return pds;
         } catch (SQLException e) {
-            logger.error("Failed to create Oracle DataSource", e);
-            throw new RuntimeException("Failed to create Oracle DataSource", e);
+            logger.error("Failed to create connection pool", e);
+            throw new RuntimeException("Failed to create connection pool", e);
         }
     }
 
+    private static void registerPoolMetrics(PoolDataSource pds) {
+        MetricsRegistry registry = MetricsRegistry.global();
+        registry.gauge("pool_connections_borrowed", "Pooled connections currently in use",
+                () -> poolStatistic(pds::getBorrowedConnectionsCount), "pool", POOL_NAME);
+        registry.gauge("pool_connections_available", "Pooled connections currently idle",
+                () -> poolStatistic(pds::getAvailableConnectionsCount), "pool", POOL_NAME);
+        registry.gauge("pool_connections_max", "Maximum size of the pool",
+                pds::getMaxPoolSize, "pool", POOL_NAME);
+    }
+
+    private static double poolStatistic(SqlIntSupplier statistic) {
+        try {
+            return statistic.get();
+        } catch (SQLException e) {
+            return Double.NaN;
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlIntSupplier {
+        int get() throws SQLException;
+    }
+
     /**
-     * Creates and returns an Oracle DataSource with custom URL.
-     *
-     * @param url Custom database URL
-     * @return OracleDataSource configured with custom URL and default credentials
-     * @throws RuntimeException if there's an error creating the data source
+     * Logs how many pooled connections are currently borrowed and available.
+     * Does nothing if the pool has not been created.
      */
-    public static OracleDataSource createDataSource(String url) {
+    public static void logPoolStatistics() {
+        PoolDataSource pds = pooledDataSource;
+        if (pds == null) {
+            return;
+        }
         try {
-            OracleDataSource ds = new OracleDataSource();
-            ds.setURL(url);
-            ds.setUser(USERNAME);
-            ds.setPassword(PASSWORD);
-            logger.debug("DataSource created with custom URL: {}", url);
-            return ds;
+            logger.info("Connection pool {}: {} borrowed, {} available, max {}", POOL_NAME,
+                    pds.getBorrowedConnectionsCount(), pds.getAvailableConnectionsCount(), pds.getMaxPoolSize());
         } catch (SQLException e) {
-            logger.error("Failed to create Oracle DataSource with custom URL: {}", url, e);
-            throw new RuntimeException("Failed to create Oracle DataSource with custom URL", e);
+            logger.warn("Failed to read connection pool statistics: {}", e.getMessage());
         }
     }
 
@@ -69,79 +129,250 @@ public class DatabaseUtils {
      * @param batchProcessor Function to add a single record to the batch
      * @throws RuntimeException if there's an error processing the batch
      */
-    public static <T> void processRecordsInBatches(OracleDataSource ds, List<T> records, String insertQuery,
+    public static <T> void processRecordsInBatches(DataSource ds, List<T> records, String insertQuery,
+                                                   int bulkSize, BatchProcessor<T> batchProcessor) {
+        processRecordsInBatches(ds, records.iterator(), insertQuery, bulkSize, batchProcessor);
+    }
+
+    /**
+     * Processes records in batches as they are produced by the iterator, so only the current batch
+     * is held in memory regardless of the number of records.
+     *
+     * @param <T> The type of records to process
+     * @param ds The data source
+     * @param records Source of the records to process, consumed until exhausted
+     * @param insertQuery The SQL insert query
+     * @param bulkSize The batch size
+     * @param batchProcessor Function to add a single record to the batch
+     * @return The number of records processed
+     * @throws RuntimeException if there's an error processing the batch
+     */
+    public static <T> long processRecordsInBatches(DataSource ds, Iterator<T> records, String insertQuery,
                                                    int bulkSize, BatchProcessor<T> batchProcessor) {
-        try (Connection con = ds.getConnection();
-             PreparedStatement pstmt = con.prepareStatement(insertQuery)) {
+        return processRecordsInBatches(ds, records, insertQuery, bulkSize, batchProcessor, committed -> { });
+    }
+
+    /**
+     * Processes records in batches as they are produced by the iterator, reporting every commit.
+     * Each call borrows its own connection, so several calls can insert into the same table
+     * concurrently.
+     *
+     * @param <T> The type of records to process
+     * @param ds The data source
+     * @param records Source of the records to process, consumed until exhausted
+     * @param insertQuery The SQL insert query
+     * @param bulkSize The batch size
+     * @param batchProcessor Function to add a single record to the batch
+     * @param commitListener Called with the number of records after each commit
+     * @return The number of records processed
+     * @throws RuntimeException if there's an error processing the batch
+     */
+    public static <T> long processRecordsInBatches(DataSource ds, Iterator<T> records, String insertQuery,
+                                                   int bulkSize, BatchProcessor<T> batchProcessor,
+                                                   LongConsumer commitListener) {
+        return processRecordsInBatches(ds, records, insertQuery, BatchPolicy.fixed(bulkSize), batchProcessor,
+                commitListener);
+    }
+
+    /**
+     * Processes records in batches as they are produced by the iterator, with batch sizes and
+     * commit cadence decided by the policy. Each call borrows its own connection, so several calls
+     * can insert into the same table concurrently, each with its own policy.
+     *
+     * @param <T> The type of records to process
+     * @param ds The data source
+     * @param records Source of the records to process, consumed until exhausted
+     * @param insertQuery The SQL insert query
+     * @param policy Batch size and commit interval, updated with the latency of every batch
+     * @param batchProcessor Function to add a single record to the batch
+     * @param commitListener Called with the number of records after each commit
+     * @return The number of records processed
+     * @throws RuntimeException if there's an error processing the batch
+     */
+    public static <T> long processRecordsInBatches(DataSource ds, Iterator<T> records, String insertQuery,
+                                                   BatchPolicy policy, BatchProcessor<T> batchProcessor,
+                                                   LongConsumer commitListener) {
+        return processRecordsInBatches(ds, records, List.of(insertQuery), policy,
+                (statements, record) -> batchProcessor.addToBatch(statements[0], record), commitListener);
+    }
+
+    /**
+     * Processes records in batches that span several statements, e.g. an INSERT and an UPDATE of
+     * the same table. Each record is added to the batch of one of the statements; the batches are
+     * executed in the order of {@code queries} and committed together, so an UPDATE sees the rows
+     * inserted earlier in the same batch.
+     *
+     * @param <T> The type of records to process
+     * @param ds The data source
+     * @param records Source of the records to process, consumed until exhausted
+     * @param queries The SQL statements; the first one names the table in the metrics
+     * @param policy Batch size and commit interval, updated with the latency of every batch
+     * @param batchProcessor Function to add a single record to the batch of one of the statements
+     * @param commitListener Called with the number of records after each commit
+     * @return The number of records processed
+     * @throws RuntimeException if there's an error processing the batch
+     */
+    public static <T> long processRecordsInBatches(DataSource ds, Iterator<T> records, List<String> queries,
+                                                   BatchPolicy policy, StatementsBatchProcessor<T> batchProcessor,
+                                                   LongConsumer commitListener) {
+        return processRecordsInBatches(ds, records, queries, policy, batchProcessor, commitListener, null);
+    }
+
+    /**
+     * Processes records in batches that span several statements, reporting the latency of every
+     * batch measured from when its first record was due.
+     *
+     * @param schedule When the records were due and where batch latencies go, or {@code null} for
+     *                 records sent as fast as possible
+     * @see #processRecordsInBatches(DataSource, Iterator, List, BatchPolicy, StatementsBatchProcessor, LongConsumer)
+     */
+    public static <T> long processRecordsInBatches(DataSource ds, Iterator<T> records, List<String> queries,
+                                                   BatchPolicy policy, StatementsBatchProcessor<T> batchProcessor,
+                                                   LongConsumer commitListener, BatchSchedule schedule) {
+        InsertMetrics metrics = InsertMetrics.forQuery(queries.get(0));
+        try (Connection con = ds.getConnection()) {
+            PreparedStatement[] statements = new PreparedStatement[queries.size()];
+            try {
+                for (int i = 0; i < statements.length; i++) {
+                    statements[i] = con.prepareStatement(queries.get(i));
+                }
 
-            con.setAutoCommit(false);
-            logger.debug("Database connection established for batch of {} records", records.size());
+                con.setAutoCommit(false);
+                logger.debug("Database connection established for batches of {} records, committing every {}",
+                        policy.getBatchSize(), policy.getCommitInterval());
 
-            processBatch(con, pstmt, records, bulkSize, batchProcessor);
+                return processBatch(con, statements, records, policy, batchProcessor, metrics, commitListener, schedule);
+            } finally {
+                for (PreparedStatement statement : statements) {
+                    if (statement != null) {
+                        statement.close();
+                    }
+                }
+            }
 
         } catch (SQLException e) {
             logger.error("Error processing records in database", e);
             throw new RuntimeException("Failed to process records", e);
+        } finally {
+            policy.logSummary(metrics.table());
         }
     }
 
     /**
      * Internal method to process batches with error handling and performance tracking.
      */
-    private static <T> void processBatch(Connection con, PreparedStatement pstmt, List<T> records,
-                                        int bulkSize, BatchProcessor<T> batchProcessor) throws SQLException {
+    private static <T> long processBatch(Connection con, PreparedStatement[] statements, Iterator<T> records,
+                                         BatchPolicy policy, StatementsBatchProcessor<T> batchProcessor,
+                                         InsertMetrics metrics, LongConsumer commitListener,
+                                         BatchSchedule schedule) throws SQLException {
         long batchStartTime = System.currentTimeMillis();
-        int count = 0;
+        long count = 0;
+        int batched = 0;
+        long uncommitted = 0;
+        long batchDueNanos = 0;
 
         try {
-            logger.debug("Starting batch processing for {} records with bulk size {}", records.size(), bulkSize);
+            logger.debug("Starting batch processing with bulk size {}", policy.getBatchSize());
 
-            for (T record : records) {
-                batchProcessor.addToBatch(pstmt, record);
+            while (records.hasNext()) {
+                batchProcessor.addToBatch(statements, records.next());
                 count++;
+                if (batched++ == 0 && schedule != null) {
+                    batchDueNanos = schedule.lastDueNanos();
+                }
 
-                if (count % bulkSize == 0) {
-                    executeBatch(con, pstmt, bulkSize);
+                if (batched >= policy.getBatchSize()) {
+                    uncommitted += executeBatch(statements, batched, policy, metrics, schedule, batchDueNanos);
+                    batched = 0;
+                    if (uncommitted >= policy.getCommitInterval()) {
+                        commit(con, uncommitted, metrics, commitListener);
+                        uncommitted = 0;
+                    }
                 }
             }
 
             // Execute remaining records
-            if (count % bulkSize != 0) {
-                int remainingRecords = count % bulkSize;
-                logger.debug("Processing remaining {} records", remainingRecords);
-                executeBatch(con, pstmt, remainingRecords);
+            if (batched > 0) {
+                logger.debug("Processing remaining {} records", batched);
+                uncommitted += executeBatch(statements, batched, policy, metrics, schedule, batchDueNanos);
             }
+            if (uncommitted > 0) {
+                commit(con, uncommitted, metrics, commitListener);
+            }
+            return count;
 
         } catch (SQLException e) {
+            metrics.failures().increment();
             con.rollback();
-            logger.warn("Transaction rolled back due to an error after processing {} records", count);
+            logger.warn("Transaction rolled back due to an error after processing {} records, {} of them uncommitted",
+                    count, uncommitted + batched);
             throw e;
         } finally {
-            logBatchPerformance(records.size(), batchStartTime);
+            logBatchPerformance(count, batchStartTime);
         }
     }
 
     /**
-     * Executes a batch and commits the transaction with debug logging.
+     * Executes the batch of every statement with debug logging and feeds the latency to the batch
+     * policy and, if the records are scheduled, the latency from when the batch was due to the schedule.
+     *
+     * @param dueNanos When the first record of the batch was due, if the records are scheduled
+     * @return The number of records executed
      */
-    private static void executeBatch(Connection con, PreparedStatement pstmt, int batchSize) throws SQLException {
-        long startTime = System.currentTimeMillis();
+    private static int executeBatch(PreparedStatement[] statements, int batchSize, BatchPolicy policy,
+                                    InsertMetrics metrics, BatchSchedule schedule, long dueNanos) throws SQLException {
+        long startNanos = System.nanoTime();
         logger.debug("Executing batch of {} records", batchSize);
 
-        int[] results = pstmt.executeBatch();
-        con.commit();
+        int executed = 0;
+        for (PreparedStatement statement : statements) {
+            int[] results = statement.executeBatch();
+            executed += results.length;
+            for (int result : results) {
+                // Negative results are SUCCESS_NO_INFO, where the driver does not report row counts
+                if (result == 0) {
+                    metrics.unchanged().increment();
+                }
+            }
+            statement.clearBatch();
+        }
 
-        long endTime = System.currentTimeMillis();
+        long endNanos = System.nanoTime();
+        long executeNanos = endNanos - startNanos;
+        metrics.batchLatency().recordNanos(executeNanos);
+        policy.recordBatch(batchSize, executeNanos);
+        if (schedule != null) {
+            schedule.batchExecuted(batchSize, endNanos - dueNanos);
+        }
         logger.debug("Batch execution completed in {} ms, {} records processed",
-                    (endTime - startTime), results.length);
+                    TimeUnit.NANOSECONDS.toMillis(executeNanos), executed);
+        return executed;
+    }
 
-        pstmt.clearBatch();
+    /**
+     * Commits the executed batches of the transaction.
+     */
+    private static void commit(Connection con, long records, InsertMetrics metrics,
+                               LongConsumer commitListener) throws SQLException {
+        long startNanos = System.nanoTime();
+        con.commit();
+        metrics.commitLatency().recordNanos(System.nanoTime() - startNanos);
+        metrics.rows().add(records);
+        commitListener.accept(records);
+    }
+
+    /**
+     * @return The number of batched statements against the table that changed no rows so far, e.g.
+     *         updates of IDs without rows
+     */
+    public static long getUnchangedStatements(String table) {
+        return InsertMetrics.forTable(table).unchanged().getCount();
     }
 
     /**
      * Logs batch processing performance metrics.
      */
-    private static void logBatchPerformance(int totalRecords, long startTime) {
+    private static void logBatchPerformance(long totalRecords, long startTime) {
         long endTime = System.currentTimeMillis();
         long duration = endTime - startTime;
         double recordsPerSecond = totalRecords / (duration / 1000.0);
@@ -152,6 +383,75 @@ public class DatabaseUtils {
                     totalRecords, duration, String.format("%.2f", recordsPerSecond));
     }
 
+    /**
+     * Insert metrics of one target table, labelled with the table name from the INSERT statement.
+     */
+    private record InsertMetrics(String table, Counter rows, Counter failures, Counter unchanged,
+                                 Histogram batchLatency, Histogram commitLatency) {
+
+        static InsertMetrics forQuery(String insertQuery) {
+            return forTable(tableName(insertQuery));
+        }
+
+        static InsertMetrics forTable(String table) {
+            MetricsRegistry registry = MetricsRegistry.global();
+            return new InsertMetrics(table,
+                    registry.counter("inserter_rows_total", "Rows inserted or updated and committed", "table", table),
+                    registry.counter("inserter_failures_total", "Insert transactions rolled back after an error", "table", table),
+                    registry.counter("inserter_unchanged_total", "Batched statements that changed no rows, e.g. updates of IDs without rows", "table", table),
+                    registry.histogram("inserter_batch_seconds", "Time to execute one insert batch", "table", table),
+                    registry.histogram("inserter_commit_seconds", "Time to commit the executed insert batches", "table", table));
+        }
+
+        private static String tableName(String insertQuery) {
+            String[] tokens = insertQuery.trim().split("[\\s(]+");
+            for (int i = 0; i < tokens.length - 1; i++) {
+                String token = tokens[i].toUpperCase(Locale.ROOT);
+                if (token.equals("INTO") || (i == 0 && token.equals("UPDATE"))) {
+                    return tokens[i + 1];
+                }
+            }
+            return "unknown";
+        }
+    }
+
+    /**
+     * Time at which records were due to be sent, for loads that follow a schedule rather than
+     * sending as fast as possible. Batch latency is measured from when the batch's first record
+     * was due, so time spent waiting behind a slow batch is included (no coordinated omission).
+     */
+    public interface BatchSchedule {
+        /**
+         * @return When the record last returned by the source was due, in {@link System#nanoTime()} time
+         */
+        long lastDueNanos();
+
+        /**
+         * Called after every executed batch.
+         *
+         * @param records      The number of records in the batch
+         * @param latencyNanos Time from when the batch's first record was due until the batch was executed
+         */
+        void batchExecuted(int records, long latencyNanos);
+    }
+
+    /**
+     * Functional interface for adding individual records to the batch of one of several statements.
+     *
+     * @param <T> The type of record to process
+     */
+    @FunctionalInterface
+    public interface StatementsBatchProcessor<T> {
+        /**
+         * Adds a single record to the batch of one of the prepared statements.
+         *
+         * @param statements The prepared statements, in the order of their queries
+         * @param record The record to add
+         * @throws SQLException if there's an error adding the record
+         */
+        void addToBatch(PreparedStatement[] statements, T record) throws SQLException;
+    }
+
     /**
      * Functional interface for processing individual records in a batch.
      *
@@ -0,0 +1,137 @@
+package com.oracle.osd.utils;
+
+/**
+ * Allocation-free lookups of top-level scalar fields in the flat JSON payloads produced by the
+ * trigger handlers. Intended for hot paths that only need one value and cannot afford a full parse.
+ */
+public class JsonFieldScanner {
+
+    private JsonFieldScanner() {
+    }
+
+    /**
+     * Hashes the value of a field without copying it.
+     *
+     * @param json        The JSON payload
+     * @param quotedField The field name including its quotes, e.g. {@code "\"ActionId\""}
+     * @return The same hash {@link String#hashCode()} would return for the value, or 0 if the field is absent
+     */
+    public static int valueHash(String json, String quotedField) {
+        int start = valueStart(json, quotedField);
+        if (start < 0) {
+            return 0;
+        }
+        int hash = 0;
+        for (int i = start; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                return hash;
+            }
+            hash = 31 * hash + c;
+        }
+        return 0;
+    }
+
+    /**
+     * Computes a 64-bit FNV-1a hash of the value of a field without copying it, for callers that
+     * use the hash as an identity and cannot tolerate the collision rate of a 32-bit hash.
+     *
+     * @param json        The JSON payload
+     * @param quotedField The field name including its quotes, e.g. {@code "\"Id\""}
+     * @return The hash of the value, or 0 if the field is absent
+     */
+    public static long valueHash64(String json, String quotedField) {
+        int start = valueStart(json, quotedField);
+        if (start < 0) {
+            return 0;
+        }
+        int end = json.indexOf('"', start);
+        return end < 0 ? 0 : hash64(json, start, end);
+    }
+
+    /**
+     * 64-bit FNV-1a hash of a range of characters.
+     */
+    public static long hash64(CharSequence chars, int start, int end) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            hash ^= chars.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * MurmurHash3 finalizer: every output bit depends on every input bit, so any subset of the
+     * bits of an FNV-1a hash can be used on its own.
+     */
+    public static long mix64(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Parses the leading digits of a numeric field value, quoted or not.
+     *
+     * @param json         The JSON payload
+     * @param quotedField  The field name including its quotes, e.g. {@code "\"Timestamp\""}
+     * @param defaultValue Value returned when the field is absent or not numeric
+     * @return The parsed value
+     */
+    public static long longValue(String json, String quotedField, long defaultValue) {
+        int start = valueStart(json, quotedField);
+        if (start < 0) {
+            start = unquotedValueStart(json, quotedField);
+            if (start < 0) {
+                return defaultValue;
+            }
+        }
+        long value = 0;
+        int digits = 0;
+        for (int i = start; i < json.length() && digits < 18; i++, digits++) {
+            char c = json.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return digits == 0 ? defaultValue : value;
+    }
+
+    /**
+     * @return Index of the first character inside the quoted value of the field, or -1
+     */
+    private static int valueStart(String json, String quotedField) {
+        int colon = colonAfter(json, quotedField);
+        if (colon < 0) {
+            return -1;
+        }
+        int i = skipWhitespace(json, colon + 1);
+        return i < json.length() && json.charAt(i) == '"' ? i + 1 : -1;
+    }
+
+    private static int unquotedValueStart(String json, String quotedField) {
+        int colon = colonAfter(json, quotedField);
+        return colon < 0 ? -1 : skipWhitespace(json, colon + 1);
+    }
+
+    private static int colonAfter(String json, String quotedField) {
+        int fieldAt = json.indexOf(quotedField);
+        if (fieldAt < 0) {
+            return -1;
+        }
+        int i = skipWhitespace(json, fieldAt + quotedField.length());
+        return i < json.length() && json.charAt(i) == ':' ? i : -1;
+    }
+
+    private static int skipWhitespace(String json, int from) {
+        int i = from;
+        while (i < json.length() && Character.isWhitespace(json.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
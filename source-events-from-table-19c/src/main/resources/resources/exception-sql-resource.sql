@@ -0,0 +1,29 @@
+--STEP: 1 ------------------------------------------------------
+-- Create TxEventQ in 19c for messages the consumers could not process
+-- (set consumer.exception.topic=EventExceptionTopic to park them here)
+--------------------------------------------------------
+BEGIN
+    DBMS_AQADM.CREATE_SHARDED_QUEUE(
+            queue_name => 'EventExceptionTopic',
+            multiple_consumers => TRUE
+    );
+
+    -- Start the queue
+    DBMS_AQADM.start_queue(queue_name=>'EventExceptionTopic');
+END;
+
+--STEP: 2 ------------------------------------------------------
+-- Create subscriber so parked messages are retained until they are inspected
+--------------------------------------------------------
+BEGIN
+    DBMS_AQADM.ADD_SUBSCRIBER(
+            queue_name => 'EventExceptionTopic',
+            subscriber => SYS.AQ$_AGENT('EventExceptionSubscriber1', NULL, NULL)
+    );
+END;
+
+--STEP: 3 ------------------------------------------------------
+-- Inspect parked messages
+--------------------------------------------------------
+-- select msgid, enq_time, user_data
+-- from EventExceptionTopic;
@@ -0,0 +1,67 @@
+-- ========================================================================
+-- ROLLBACK SCRIPT FOR EXCEPTION SQL RESOURCE
+-- This script removes all database objects created by exception-sql-resource.sql
+-- Execute steps in order to properly handle dependencies
+-- ========================================================================
+
+--STEP: 1 ------------------------------------------------------
+-- Remove subscriber from queue
+--------------------------------------------------------
+BEGIN
+    DBMS_AQADM.REMOVE_SUBSCRIBER(
+            queue_name => 'EventExceptionTopic',
+            subscriber => SYS.AQ$_AGENT('EventExceptionSubscriber1', NULL, NULL)
+    );
+    DBMS_OUTPUT.PUT_LINE('Subscriber EventExceptionSubscriber1 removed successfully');
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE = -24034 THEN
+            DBMS_OUTPUT.PUT_LINE('Subscriber does not exist, skipping removal');
+        ELSE
+            DBMS_OUTPUT.PUT_LINE('Error removing subscriber: ' || SQLERRM);
+            RAISE;
+        END IF;
+END;
+/
+
+--STEP: 2 ------------------------------------------------------
+-- Stop and drop TxEventQ queue
+--------------------------------------------------------
+BEGIN
+    -- Stop the queue first
+    DBMS_AQADM.STOP_QUEUE(queue_name => 'EventExceptionTopic');
+    DBMS_OUTPUT.PUT_LINE('Queue EventExceptionTopic stopped successfully');
+
+    -- Drop the sharded queue
+    DBMS_AQADM.DROP_SHARDED_QUEUE(queue_name => 'EventExceptionTopic');
+    DBMS_OUTPUT.PUT_LINE('Sharded queue EventExceptionTopic dropped successfully');
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE = -24010 THEN
+            DBMS_OUTPUT.PUT_LINE('Queue does not exist, skipping drop');
+        ELSIF SQLCODE = -24001 THEN
+            DBMS_OUTPUT.PUT_LINE('Queue already stopped, attempting to drop...');
+            BEGIN
+                DBMS_AQADM.DROP_SHARDED_QUEUE(queue_name => 'EventExceptionTopic');
+                DBMS_OUTPUT.PUT_LINE('Sharded queue EventExceptionTopic dropped successfully');
+            EXCEPTION
+                WHEN OTHERS THEN
+                    DBMS_OUTPUT.PUT_LINE('Error dropping queue: ' || SQLERRM);
+                    RAISE;
+            END;
+        ELSE
+            DBMS_OUTPUT.PUT_LINE('Error with queue operations: ' || SQLERRM);
+            RAISE;
+        END IF;
+END;
+/
+
+-- ========================================================================
+-- ROLLBACK COMPLETE
+-- All database objects from exception-sql-resource.sql have been removed
+-- ========================================================================
+COMMIT;
+
+DBMS_OUTPUT.PUT_LINE('========================================');
+DBMS_OUTPUT.PUT_LINE('ROLLBACK SCRIPT EXECUTION COMPLETED');
+DBMS_OUTPUT.PUT_LINE('========================================');
@@ -0,0 +1,65 @@
+-- ========================================================================
+-- ROLLBACK SCRIPT FOR SINK SQL RESOURCE
+-- This script removes all database objects created by sink-sql-resource.sql
+-- ========================================================================
+
+--STEP: 1 ------------------------------------------------------
+-- Drop table ActionEventSink
+--------------------------------------------------------
+BEGIN
+    EXECUTE IMMEDIATE 'DROP TABLE ActionEventSink';
+    DBMS_OUTPUT.PUT_LINE('Table ActionEventSink dropped successfully');
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE = -942 THEN
+            DBMS_OUTPUT.PUT_LINE('Table does not exist, skipping drop');
+        ELSE
+            DBMS_OUTPUT.PUT_LINE('Error dropping table: ' || SQLERRM);
+            RAISE;
+        END IF;
+END;
+/
+
+--STEP: 2 ------------------------------------------------------
+-- Drop table PaymentEventSink
+--------------------------------------------------------
+BEGIN
+    EXECUTE IMMEDIATE 'DROP TABLE PaymentEventSink';
+    DBMS_OUTPUT.PUT_LINE('Table PaymentEventSink dropped successfully');
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE = -942 THEN
+            DBMS_OUTPUT.PUT_LINE('Table does not exist, skipping drop');
+        ELSE
+            DBMS_OUTPUT.PUT_LINE('Error dropping table: ' || SQLERRM);
+            RAISE;
+        END IF;
+END;
+/
+
+--STEP: 3 ------------------------------------------------------
+-- Drop table StatementEventSink
+--------------------------------------------------------
+BEGIN
+    EXECUTE IMMEDIATE 'DROP TABLE StatementEventSink';
+    DBMS_OUTPUT.PUT_LINE('Table StatementEventSink dropped successfully');
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE = -942 THEN
+            DBMS_OUTPUT.PUT_LINE('Table does not exist, skipping drop');
+        ELSE
+            DBMS_OUTPUT.PUT_LINE('Error dropping table: ' || SQLERRM);
+            RAISE;
+        END IF;
+END;
+/
+
+-- ========================================================================
+-- ROLLBACK COMPLETE
+-- All database objects from sink-sql-resource.sql have been removed
+-- ========================================================================
+COMMIT;
+
+DBMS_OUTPUT.PUT_LINE('========================================');
+DBMS_OUTPUT.PUT_LINE('ROLLBACK SCRIPT EXECUTION COMPLETED');
+DBMS_OUTPUT.PUT_LINE('========================================');
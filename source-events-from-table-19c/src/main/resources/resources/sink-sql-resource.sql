@@ -0,0 +1,46 @@
+--STEP: 1 ------------------------------------------------------
+-- Create sink tables the consumer writes events into when consumer.sink.enabled=true.
+-- Rows are inserted in the same transaction as the dequeue.
+--------------------------------------------------------
+CREATE TABLE ActionEventSink
+(
+    Id             RAW(16) DEFAULT SYS_GUID() PRIMARY KEY,
+    ActionId       VARCHAR(100),
+    Action         VARCHAR(10),
+    Notes          VARCHAR(500),
+    NotesOld       VARCHAR(500),
+    EventTimestamp NUMBER(13, 0),
+    Subscriber     VARCHAR(128),
+    ConsumedAt     TIMESTAMP DEFAULT SYSTIMESTAMP
+);
+
+CREATE TABLE PaymentEventSink
+(
+    Id             RAW(16) DEFAULT SYS_GUID() PRIMARY KEY,
+    PaymentId      VARCHAR(100),
+    Action         VARCHAR(10),
+    Notes          VARCHAR(500),
+    EventTimestamp NUMBER(13, 0),
+    Subscriber     VARCHAR(128),
+    ConsumedAt     TIMESTAMP DEFAULT SYSTIMESTAMP
+);
+
+CREATE TABLE StatementEventSink
+(
+    Id             RAW(16) DEFAULT SYS_GUID() PRIMARY KEY,
+    StatementsId   VARCHAR(100),
+    TransactionId  VARCHAR(100),
+    Action         VARCHAR(10),
+    Notes          VARCHAR(500),
+    EventTimestamp NUMBER(13, 0),
+    Subscriber     VARCHAR(128),
+    ConsumedAt     TIMESTAMP DEFAULT SYSTIMESTAMP
+);
+
+--STEP: 2 ------------------------------------------------------
+-- Verify that every consumed event was written exactly once
+--------------------------------------------------------
+-- select ActionId, EventTimestamp, count(*)
+-- from ActionEventSink
+-- group by ActionId, EventTimestamp
+-- having count(*) > 1;
@@ -0,0 +1,114 @@
+package com.oracle.osd.aggregation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WindowedAggregatorTest {
+
+    /** Aligned to every window length used here. */
+    private static final long T0 = 1_700_000_000_000L;
+
+    private final List<WindowResult> results = new ArrayList<>();
+
+    private List<WindowResult> results(WindowResult.Kind kind) {
+        return results.stream().filter(result -> result.kind() == kind).toList();
+    }
+
+    @Test
+    void tumblingWindowIsEmittedWhenItEnds() {
+        WindowedAggregator aggregator = new WindowedAggregator(1000, 4000, 1000, 2, results::add);
+        aggregator.record("ACTION", "INSERT", "ACT-1", T0 + 100);
+        aggregator.record("ACTION", "INSERT", "ACT-1", T0 + 200);
+        aggregator.record("ACTION", "INSERT", "ACT-1", T0 + 300);
+        aggregator.record("ACTION", "UPDATE", "ACT-2", T0 + 400);
+
+        aggregator.tick(T0 + 999);
+        assertTrue(results(WindowResult.Kind.TUMBLING).isEmpty());
+
+        aggregator.tick(T0 + 1000);
+        List<WindowResult> tumbling = results(WindowResult.Kind.TUMBLING);
+        assertEquals(1, tumbling.size());
+        WindowResult window = tumbling.get(0);
+        assertEquals("ACTION", window.eventType());
+        assertEquals(T0, window.startMillis());
+        assertEquals(T0 + 1000, window.endMillis());
+        assertEquals(Map.of("INSERT", 3L, "UPDATE", 1L), window.countsByAction());
+        assertEquals(4, window.totalCount());
+        assertEquals("ACT-1", window.hottestKeys().get(0).key());
+        assertEquals(3, window.hottestKeys().get(0).count());
+    }
+
+    @Test
+    void slidingWindowDropsStepsOlderThanItsLength() {
+        WindowedAggregator aggregator = new WindowedAggregator(1000, 4000, 1000, 0, results::add);
+        aggregator.record("PAYMENT", "INSERT", "PAY-1", T0 + 100);
+        aggregator.record("PAYMENT", "INSERT", "PAY-2", T0 + 2100);
+
+        aggregator.tick(T0 + 3999);
+        assertEquals(Map.of("INSERT", 2L), aggregator.slidingCounts("PAYMENT"));
+
+        aggregator.tick(T0 + 4000);
+        assertEquals(Map.of("INSERT", 1L), aggregator.slidingCounts("PAYMENT"));
+
+        aggregator.tick(T0 + 60_000);
+        assertEquals(Map.of(), aggregator.slidingCounts("PAYMENT"));
+        assertEquals(Map.of(), aggregator.slidingCounts("STATEMENT"));
+    }
+
+    @Test
+    void everySlidingWindowWithEventsIsEmittedAfterATickGap() {
+        WindowedAggregator aggregator = new WindowedAggregator(1000, 4000, 1000, 0, results::add);
+        aggregator.record("PAYMENT", "INSERT", "PAY-1", T0 + 100);
+
+        aggregator.tick(T0 + 60_000);
+
+        List<WindowResult> sliding = results(WindowResult.Kind.SLIDING);
+        assertEquals(4, sliding.size());
+        for (int i = 0; i < sliding.size(); i++) {
+            assertEquals(T0 + (i + 1) * 1000L, sliding.get(i).endMillis());
+            assertEquals(1, sliding.get(i).totalCount());
+        }
+
+        aggregator.record("PAYMENT", "INSERT", "PAY-1", T0 + 60_100);
+        assertEquals(Map.of("INSERT", 1L), aggregator.slidingCounts("PAYMENT"));
+        aggregator.tick(T0 + 61_000);
+        assertEquals(T0 + 61_000, results(WindowResult.Kind.SLIDING).get(4).endMillis());
+    }
+
+    @Test
+    void rateOfAYoungWindowIsPerCoveredTime() {
+        WindowedAggregator aggregator = new WindowedAggregator(1000, 4000, 1000, 0, results::add);
+        for (int i = 0; i < 10; i++) {
+            aggregator.record("ACTION", "INSERT", "ACT-1", T0 + 500);
+        }
+
+        // Half a second since the first event, not the four seconds of the window
+        assertEquals(20.0, aggregator.rate("ACTION", "ACT-1", T0 + 1000), 1e-9);
+        assertEquals(0.0, aggregator.rate("PAYMENT", "PAY-1", T0 + 1000));
+    }
+
+    @Test
+    void rateOfAFullWindowIsPerWindowLength() {
+        WindowedAggregator aggregator = new WindowedAggregator(1000, 4000, 1000, 0, results::add);
+        for (int i = 0; i < 10; i++) {
+            aggregator.record("ACTION", "INSERT", "ACT-1", T0);
+        }
+
+        aggregator.tick(T0 + 3000);
+        assertEquals(2.5, aggregator.rate("ACTION", "ACT-1", T0 + 4000), 1e-9);
+    }
+
+    @Test
+    void slidingWindowMustBeWholeStepsOfBoundedCount() {
+        assertThrows(IllegalArgumentException.class, () -> new WindowedAggregator(1000, 2500, 1000, 0, results::add));
+        assertThrows(IllegalArgumentException.class, () -> new WindowedAggregator(1000, 257_000, 1000, 0, results::add));
+        assertThrows(IllegalArgumentException.class, () -> new WindowedAggregator(1000, 500, 1000, 0, results::add));
+    }
+}
@@ -0,0 +1,63 @@
+package com.oracle.osd.audit;
+
+import com.oracle.osd.events.ActionEvent;
+import com.oracle.osd.events.BaseEvent;
+import com.oracle.osd.events.StatementEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SampledAuditOutputTest {
+
+    private final List<String> consumed = new ArrayList<>();
+    private final List<String> processed = new ArrayList<>();
+
+    private final AuditOutput recorder = new AuditOutput() {
+        @Override
+        public void consumed(String eventType, String subscriberName, String messageId, long jmsTimestamp,
+                             long consumedAt, String messageText) {
+            consumed.add(messageId);
+        }
+
+        @Override
+        public void processed(String eventType, String idLabel, String id, BaseEvent event, String subscriberName) {
+            processed.add(event.getNotes());
+        }
+    };
+
+    @Test
+    void sampledMessagesKeepBothRecords() {
+        SampledAuditOutput output = new SampledAuditOutput(recorder, 10);
+        int messages = 10_000;
+        for (int i = 0; i < messages; i++) {
+            String actionId = "ACT-" + i / 5;
+            String timestamp = Long.toString(1_700_000_000_000L + i);
+            String messageText = "{\"ActionId\":\"" + actionId + "\",\"Action\":\"INSERT\",\"Notes\":\"ID:" + i
+                    + "\",\"Timestamp\":" + timestamp + "}";
+            output.consumed("ACTION", "sub", "ID:" + i, 0, 0, messageText);
+            output.processed("ACTION", "Action ID", actionId,
+                    new ActionEvent(actionId, "INSERT", "ID:" + i, null, timestamp), "sub");
+        }
+
+        assertEquals(consumed, processed);
+        assertTrue(Math.abs(consumed.size() - messages / 10) < messages / 10 * 0.2, "sampled " + consumed.size());
+    }
+
+    @Test
+    void statementsAreKeyedByTransactionIdWithoutStatementsId() {
+        SampledAuditOutput output = new SampledAuditOutput(recorder, 4);
+        for (int i = 0; i < 1000; i++) {
+            String messageText = "{\"StatementsId\":\"\",\"TransactionId\":\"TXN-" + i + "\",\"Timestamp\":\"5\"}";
+            output.consumed("STATEMENT", "sub", "ID:" + i, 0, 0, messageText);
+            StatementEvent event = new StatementEvent("", "INSERT", "ID:" + i, "5");
+            event.setTransactionId("TXN-" + i);
+            output.processed("STATEMENT", event.getIdFieldName(), event.getPrimaryId(), event, "sub");
+        }
+
+        assertEquals(consumed, processed);
+    }
+}
@@ -0,0 +1,77 @@
+package com.oracle.osd.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsumerConfigWatcherTest {
+
+    private static Path write(Path file, String... lines) throws IOException {
+        return Files.write(file, List.of(lines));
+    }
+
+    @Test
+    void reloadOnlyChangesLiveKeys() throws IOException {
+        Path file = write(Files.createTempFile("consumer-config", ".properties"),
+                "consumer.mode=poll", "consumer.sink.enabled=false", "consumer.batch.max.messages=1");
+        try {
+            ConsumerConfig initial = ConsumerConfig.load(file);
+            ConsumerConfigWatcher watcher = new ConsumerConfigWatcher(file, initial);
+            List<ConsumerConfig> published = new ArrayList<>();
+            watcher.addListener((previous, next) -> published.add(next));
+
+            write(file, "consumer.mode=listener", "consumer.sink.enabled=true", "consumer.batch.max.messages=50");
+            watcher.reload();
+
+            ConsumerConfig current = watcher.getCurrent();
+            assertEquals(List.of(current), published);
+            assertEquals(50, current.getBatchMaxMessages());
+            assertEquals(ConsumerConfig.ConsumerMode.POLL, current.getConsumerMode());
+            assertFalse(current.isSinkEnabled());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void restartOnlyChangesAreNotPublished() throws IOException {
+        Path file = write(Files.createTempFile("consumer-config", ".properties"), "consumer.mode=poll");
+        try {
+            ConsumerConfig initial = ConsumerConfig.load(file);
+            ConsumerConfigWatcher watcher = new ConsumerConfigWatcher(file, initial);
+
+            write(file, "consumer.mode=listener");
+            watcher.reload();
+
+            assertSame(initial, watcher.getCurrent());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void invalidReloadKeepsTheCurrentSnapshot() throws IOException {
+        Path file = write(Files.createTempFile("consumer-config", ".properties"), "consumer.batch.max.messages=10");
+        try {
+            ConsumerConfig initial = ConsumerConfig.load(file);
+            ConsumerConfigWatcher watcher = new ConsumerConfigWatcher(file, initial);
+
+            write(file, "consumer.batch.max.messages=ten");
+            watcher.reload();
+
+            assertSame(initial, watcher.getCurrent());
+            assertTrue(ConsumerConfig.isLiveReloadable("consumer.batch.max.messages"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
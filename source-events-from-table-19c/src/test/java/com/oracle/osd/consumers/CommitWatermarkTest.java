@@ -0,0 +1,75 @@
+package com.oracle.osd.consumers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CommitWatermarkTest {
+
+    @Test
+    void watermarkCoversTheContiguousProcessedPrefix() {
+        CommitWatermark watermark = new CommitWatermark(5);
+
+        watermark.markProcessed(2);
+        assertEquals(0, watermark.getWatermark());
+        watermark.markProcessed(0);
+        assertEquals(1, watermark.getWatermark());
+        watermark.markProcessed(1);
+        assertEquals(3, watermark.getWatermark());
+        watermark.markProcessed(4);
+        assertEquals(3, watermark.getWatermark());
+        watermark.markProcessed(3);
+        assertEquals(5, watermark.getWatermark());
+    }
+
+    @Test
+    void failedMessageStopsTheWatermark() throws InterruptedException {
+        CommitWatermark watermark = new CommitWatermark(4);
+        RuntimeException cause = new RuntimeException("bad message");
+
+        watermark.markProcessed(0);
+        watermark.markFailed(1, cause);
+        watermark.markProcessed(2);
+        watermark.markProcessed(3);
+
+        assertEquals(1, watermark.awaitCompletion());
+        assertSame(cause, watermark.getFailure());
+    }
+
+    @Test
+    void awaitCompletionWaitsForEveryWorker() throws InterruptedException {
+        CommitWatermark watermark = new CommitWatermark(100);
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 99; i >= 0; i--) {
+                int index = i;
+                workers.execute(() -> watermark.markProcessed(index));
+            }
+            assertEquals(100, watermark.awaitCompletion());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    void abandonedBatchOnlyWaitsForDispatchedMessages() throws InterruptedException {
+        CommitWatermark watermark = new CommitWatermark(10);
+        RuntimeException cause = new RuntimeException("receive failed");
+        watermark.markProcessed(0);
+        watermark.markProcessed(2);
+
+        watermark.abandon(3, cause);
+        assertEquals(1, watermark.getWatermark());
+
+        // Message 1 was dispatched before the failure and still completes
+        Thread worker = new Thread(() -> watermark.markProcessed(1));
+        worker.start();
+        assertEquals(3, watermark.awaitCompletion());
+        assertSame(cause, watermark.getFailure());
+        worker.join();
+    }
+}
@@ -0,0 +1,51 @@
+package com.oracle.osd.consumers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeduplicationCacheTest {
+
+    @Test
+    void redeliveredMessageIsADuplicate() {
+        DeduplicationCache cache = new DeduplicationCache(1 << 20, true);
+        long fingerprint = DeduplicationCache.fingerprint("ACTION", "ID:1", "{\"Id\":\"ACT-1\"}");
+
+        assertFalse(cache.isDuplicate(fingerprint));
+        cache.markProcessed(fingerprint);
+        assertTrue(cache.isDuplicate(fingerprint));
+
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void fingerprintIdentifiesTheMessageIdPerEventType() {
+        long fingerprint = DeduplicationCache.fingerprint("ACTION", "ID:1", "{\"Id\":\"ACT-1\"}");
+
+        assertEquals(fingerprint, DeduplicationCache.fingerprint("ACTION", "ID:1", "{\"Id\":\"ACT-1\",\"v\":2}"));
+        assertNotEquals(fingerprint, DeduplicationCache.fingerprint("ACTION", "ID:2", "{\"Id\":\"ACT-1\"}"));
+        assertNotEquals(fingerprint, DeduplicationCache.fingerprint("PAYMENT", "ID:1", "{\"Id\":\"ACT-1\"}"));
+        // Without a message ID the payload identifies the message
+        assertNotEquals(DeduplicationCache.fingerprint("ACTION", null, "{\"Id\":\"ACT-1\"}"),
+                DeduplicationCache.fingerprint("ACTION", null, "{\"Id\":\"ACT-2\"}"));
+    }
+
+    @Test
+    void fullCacheForgetsTheOldestMessages() {
+        // The smallest cache remembers a few thousand messages
+        DeduplicationCache cache = new DeduplicationCache(0, false);
+        int messages = 100_000;
+        for (int i = 0; i < messages; i++) {
+            cache.markProcessed(DeduplicationCache.fingerprint("ACTION", "ID:" + i, ""));
+        }
+
+        assertFalse(cache.isDuplicate(DeduplicationCache.fingerprint("ACTION", "ID:0", "")));
+        for (int i = messages - 100; i < messages; i++) {
+            assertTrue(cache.isDuplicate(DeduplicationCache.fingerprint("ACTION", "ID:" + i, "")));
+        }
+    }
+}
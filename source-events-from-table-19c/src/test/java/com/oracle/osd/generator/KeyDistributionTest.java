@@ -0,0 +1,64 @@
+package com.oracle.osd.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyDistributionTest {
+
+    private static final int DRAWS = 200_000;
+
+    private static int[] histogram(KeyDistribution distribution, int firstKey, int keyCount) {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[keyCount];
+        for (int i = 0; i < DRAWS; i++) {
+            int key = distribution.nextKey(random);
+            assertTrue(key >= firstKey && key < firstKey + keyCount, "key " + key + " out of range");
+            counts[key - firstKey]++;
+        }
+        return counts;
+    }
+
+    @Test
+    void uniformDrawsEveryKeyOfTheRangeEvenly() {
+        int[] counts = histogram(KeyDistribution.uniform(500, 100), 500, 100);
+
+        for (int count : counts) {
+            assertEquals(DRAWS / 100.0, count, DRAWS / 100.0 * 0.15);
+        }
+    }
+
+    @Test
+    void zipfianFavoursTheLowestKeys() {
+        int[] counts = histogram(KeyDistribution.zipfian(1000, 1000, 1.0), 1000, 1000);
+
+        // With exponent 1 the first key is drawn twice as often as the second, three times as often as the third
+        assertEquals(2.0, (double) counts[0] / counts[1], 0.1);
+        assertEquals(3.0, (double) counts[0] / counts[2], 0.2);
+        assertTrue(counts[0] > counts[999] * 100);
+    }
+
+    @Test
+    void hotspotSendsTheHotShareOfDrawsToTheHotKeys() {
+        int[] counts = histogram(KeyDistribution.hotspot(0, 1000, 0.01, 0.9), 0, 1000);
+
+        long hot = 0;
+        for (int i = 0; i < 10; i++) {
+            hot += counts[i];
+        }
+        assertEquals(0.9, (double) hot / DRAWS, 0.01);
+    }
+
+    @Test
+    void forNameIgnoresCaseAndRejectsUnknownNames() {
+        KeyDistribution distribution = KeyDistribution.forName(" Zipfian ", 0, 10, 1.0, 0.01, 0.9);
+        assertEquals(10, histogram(distribution, 0, 10).length);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> KeyDistribution.forName("gaussian", 0, 10, 1.0, 0.01, 0.9));
+    }
+}
@@ -0,0 +1,57 @@
+package com.oracle.osd.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RowSourceTest {
+
+    @Test
+    void insertsComeInRunsOfEntriesPerKey() {
+        RowSource source = new RowSource(TableSpec.ACTIONS, 1000, 100);
+
+        for (int run = 0; run < 1000 / TableSpec.ACTIONS.entriesPerKey(); run++) {
+            GeneratedRow first = source.next();
+            assertTrue(first.id().startsWith(TableSpec.ACTIONS.idPrefix()));
+            for (int entry = 1; entry <= TableSpec.ACTIONS.entriesPerKey(); entry++) {
+                GeneratedRow row = entry == 1 ? first : source.next();
+                assertEquals(first.id(), row.id());
+                assertEquals(entry, row.entryNumber());
+                assertEquals(GeneratedRow.Operation.INSERT, row.operation());
+            }
+        }
+        assertFalse(source.hasNext());
+    }
+
+    @Test
+    void updatesOnlyTargetInsertedEntities() {
+        int rows = 100_000;
+        RowSource source = new RowSource(TableSpec.PAYMENTS, rows, KeyDistribution.uniform(0, 50_000),
+                KeyDistribution.zipfian(0, 50_000, 0.99), 0.3, new SplittableRandom(7));
+
+        Set<String> inserted = new HashSet<>();
+        int updates = 0;
+        int unmatched = 0;
+        while (source.hasNext()) {
+            GeneratedRow row = source.next();
+            if (row.operation() == GeneratedRow.Operation.INSERT) {
+                inserted.add(row.id());
+            } else {
+                updates++;
+                if (!inserted.contains(row.id())) {
+                    unmatched++;
+                }
+            }
+        }
+
+        assertEquals(0, unmatched);
+        assertEquals(updates, source.getUpdates());
+        assertEquals(0.3, (double) updates / rows, 0.01);
+    }
+}
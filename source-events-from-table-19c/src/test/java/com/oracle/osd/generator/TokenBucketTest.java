@@ -0,0 +1,47 @@
+package com.oracle.osd.generator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketTest {
+
+    private static final long START = 1_000_000_000L;
+    private static final double SECOND = 1e9;
+    /** Tolerance for the floating point token arithmetic. */
+    private static final double NANOS = 1_000;
+
+    @Test
+    void tokensAreDueAtTheTargetRate() {
+        TokenBucket bucket = new TokenBucket(1000, 1, 10, START);
+
+        assertEquals(START, bucket.dueNanos(0));
+        assertEquals(SECOND / 1000, bucket.dueNanos(1) - START, NANOS);
+        assertEquals(5 * SECOND, bucket.dueNanos(5000) - START, NANOS);
+        assertEquals(1000, bucket.rowsPerSecondAt(START + 60 * (long) SECOND), 1e-6);
+    }
+
+    @Test
+    void rampReachesTheTargetInEqualSteps() {
+        // 250, 500, 750 and then 1000 rows/sec, one second each
+        TokenBucket bucket = new TokenBucket(1000, 4, 1, START);
+
+        assertEquals(SECOND / 250, bucket.dueNanos(1) - START, NANOS);
+        assertEquals(SECOND, bucket.dueNanos(250) - START, NANOS);
+        assertEquals(2 * SECOND, bucket.dueNanos(750) - START, NANOS);
+        assertEquals(3 * SECOND, bucket.dueNanos(1500) - START, NANOS);
+        assertEquals(4 * SECOND, bucket.dueNanos(2500) - START, NANOS);
+        assertEquals(5 * SECOND, bucket.dueNanos(3500) - START, NANOS);
+    }
+
+    @Test
+    void rateFollowsTheRampSteps() {
+        TokenBucket bucket = new TokenBucket(1000, 4, 1, START);
+
+        assertEquals(250, bucket.rowsPerSecondAt(START - 1), 1e-6);
+        assertEquals(250, bucket.rowsPerSecondAt(START), 1e-6);
+        assertEquals(500, bucket.rowsPerSecondAt(START + (long) (1.5 * SECOND)), 1e-6);
+        assertEquals(1000, bucket.rowsPerSecondAt(START + 3 * (long) SECOND), 1e-6);
+        assertEquals(1000, bucket.rowsPerSecondAt(START + 100 * (long) SECOND), 1e-6);
+    }
+}
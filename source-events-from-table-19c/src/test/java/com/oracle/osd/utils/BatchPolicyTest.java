@@ -0,0 +1,86 @@
+package com.oracle.osd.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchPolicyTest {
+
+    /**
+     * Simulated {@code executeBatch} latency: a fixed round trip plus a cost per row that triples
+     * beyond 6000 rows, so throughput peaks at 6000 rows.
+     */
+    private static long executeNanos(int rows) {
+        double millis = 3 + rows * 0.01 + Math.max(0, rows - 6000) * 0.03;
+        return (long) (millis * 1_000_000);
+    }
+
+    @Test
+    void fixedPolicyKeepsItsBatchSize() {
+        BatchPolicy policy = BatchPolicy.fixed(500, 2000);
+
+        policy.recordBatch(500, TimeUnit.SECONDS.toNanos(10));
+
+        assertFalse(policy.isAdaptive());
+        assertEquals(500, policy.getBatchSize());
+        assertEquals(2000, policy.getCommitInterval());
+    }
+
+    @Test
+    void adaptivePolicyConvergesOnTheThroughputKnee() {
+        BatchPolicy policy = BatchPolicy.adaptive(1000, 100, 20000, 500, 1000, 1000);
+
+        for (int i = 0; i < 200; i++) {
+            int rows = policy.getBatchSize();
+            policy.recordBatch(rows, executeNanos(rows));
+        }
+
+        assertEquals(6000, policy.getBestBatchSize());
+        // The search keeps probing one step above the best size
+        int batchSize = policy.getBatchSize();
+        assertTrue(batchSize == 6000 || batchSize == 6500, "batch size " + batchSize);
+    }
+
+    @Test
+    void adaptivePolicyStaysWithinTheLatencyBound() {
+        // 3500 rows take 38 ms, 4000 rows 43 ms
+        BatchPolicy policy = BatchPolicy.adaptive(1000, 100, 20000, 500, 40, 1000);
+
+        for (int i = 0; i < 200; i++) {
+            int rows = policy.getBatchSize();
+            policy.recordBatch(rows, executeNanos(rows));
+        }
+
+        assertEquals(3500, policy.getBestBatchSize());
+    }
+
+    @Test
+    void batchOverTheLatencyBoundHalvesTheBatchSize() {
+        BatchPolicy policy = BatchPolicy.adaptive(4000, 300, 20000, 500, 100, 1000);
+        long slow = TimeUnit.MILLISECONDS.toNanos(200);
+
+        policy.recordBatch(4000, slow);
+        assertEquals(2000, policy.getBatchSize());
+        assertEquals(2000, policy.getBestBatchSize());
+
+        policy.recordBatch(2000, slow);
+        policy.recordBatch(1000, slow);
+        policy.recordBatch(500, slow);
+        assertEquals(300, policy.getBatchSize(), "never below the minimum");
+    }
+
+    @Test
+    void partialBatchesAreIgnored() {
+        BatchPolicy policy = BatchPolicy.adaptive(1000, 100, 20000, 500, 100, 1000);
+
+        policy.recordBatch(10, TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1000, policy.getBatchSize());
+
+        policy.recordBatch(1000, TimeUnit.MILLISECONDS.toNanos(10));
+        assertEquals(1500, policy.getBatchSize());
+    }
+}